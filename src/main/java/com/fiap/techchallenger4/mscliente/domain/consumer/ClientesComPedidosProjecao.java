@@ -0,0 +1,89 @@
+package com.fiap.techchallenger4.mscliente.domain.consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Projeção local de quais clientes possuem pedidos, um bit por codigoCliente, alimentada por {@link PedidoEvento}
+ * e {@link PedidoSnapshotEvento}. Enquanto nenhum snapshot chegou a projeção está fria: só sabe afirmar quem tem
+ * pedidos, e para o resto quem consulta deve perguntar ao serviço de pedidos.
+ * <p>
+ * O bitmap fica na memória desta instância e cada POST do feed chega a uma só réplica: atrás de um balanceador,
+ * as outras responderiam com dados velhos e liberariam a exclusão de quem passou a ter pedidos. Por isso a projeção
+ * só é usada com {@code eventos.pedidos.instancia-unica=true}, declarando que o serviço roda com uma réplica;
+ * sem isso ela nunca responde e toda exclusão consulta o serviço de pedidos.
+ */
+@Component
+public class ClientesComPedidosProjecao {
+
+    private final BitSet comPedidos = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final boolean ativa;
+    private volatile boolean aquecida;
+
+    public ClientesComPedidosProjecao(@Value("${eventos.pedidos.instancia-unica:false}") boolean ativa) {
+        this.ativa = ativa;
+    }
+
+    /**
+     * @return {@code TRUE}/{@code FALSE} quando a projeção sabe responder, {@code null} quando não sabe
+     * (projeção desativada ou fria, ou código fora da faixa do bitmap).
+     */
+    public Boolean possuiPedidos(Long codigoCliente) {
+        if (!ativa || !cabeNoBitmap(codigoCliente)) return null;
+        lock.readLock().lock();
+        try {
+            if (comPedidos.get(codigoCliente.intValue())) return Boolean.TRUE;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return aquecida ? Boolean.FALSE : null;
+    }
+
+    public boolean isAtiva() {
+        return ativa;
+    }
+
+    public boolean isAquecida() {
+        return aquecida;
+    }
+
+    @EventListener
+    public void aplicar(PedidoEvento evento) {
+        if (!ativa || !cabeNoBitmap(evento.codigoCliente()) || evento.possuiPedidos() == null) return;
+        lock.writeLock().lock();
+        try {
+            comPedidos.set(evento.codigoCliente().intValue(), evento.possuiPedidos());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // União com o que já existe: um evento que chegou antes do snapshot não é perdido, e um "tem pedidos"
+    // a mais só recusa uma exclusão, nunca libera uma indevida.
+    @EventListener
+    public void carregar(PedidoSnapshotEvento snapshot) {
+        // Snapshot vazio aqueceria a projeção respondendo "sem pedidos" para todos; fica fria e segue consultando.
+        if (!ativa) return;
+        if (snapshot.codigosClientesComPedidos() == null || snapshot.codigosClientesComPedidos().isEmpty()) return;
+        BitSet recebidos = new BitSet();
+        snapshot.codigosClientesComPedidos().stream().filter(ClientesComPedidosProjecao::cabeNoBitmap)
+                .forEach(codigo -> recebidos.set(codigo.intValue()));
+        lock.writeLock().lock();
+        try {
+            comPedidos.or(recebidos);
+            aquecida = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean cabeNoBitmap(Long codigoCliente) {
+        return codigoCliente != null && codigoCliente >= 0 && codigoCliente <= Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,101 @@
+package com.fiap.techchallenger4.mscliente.domain.consumer;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Responde se clientes possuem pedidos. Primeiro consulta a {@link ClientesComPedidosProjecao} local; só o que ela
+ * não sabe responder (projeção fria) vai ao serviço de pedidos, protegido por bulkhead e circuit breaker
+ * (instância {@value #PEDIDOS}). A política é fail-closed: se não der para confirmar que o cliente não tem pedidos,
+ * a exclusão é recusada.
+ */
+@Slf4j
+@Component
+public class PedidoConsumer {
+
+    public static final String PEDIDOS = "pedidos";
+    static final String INDISPONIVEL = "Não foi possível verificar os pedidos do cliente. Exclusão não realizada, tente novamente mais tarde.";
+
+    private final PedidoConsumerFeignClient feignClient;
+    private final ClientesComPedidosProjecao projecao;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public PedidoConsumer(PedidoConsumerFeignClient feignClient, ClientesComPedidosProjecao projecao, BulkheadRegistry bulkheadRegistry,
+                          CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
+        this.feignClient = feignClient;
+        this.projecao = projecao;
+        this.bulkhead = bulkheadRegistry.bulkhead(PEDIDOS);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(PEDIDOS);
+
+        // Estado e latência já são publicados pelo resilience4j-micrometer; aqui contamos as transições.
+        circuitBreaker.getEventPublisher().onStateTransition(evento -> {
+            log.warn("Circuit breaker {}: {}", PEDIDOS, evento.getStateTransition());
+            Counter.builder("resilience4j.circuitbreaker.transitions")
+                    .tag("name", PEDIDOS)
+                    .tag("from", evento.getStateTransition().getFromState().name().toLowerCase())
+                    .tag("to", evento.getStateTransition().getToState().name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+
+    public boolean clientePossuiPedidos(Long codigoCliente) throws BusinessException {
+        Boolean local = projecao.possuiPedidos(codigoCliente);
+        if (local != null) return local;
+        return executar(() -> consultar(codigoCliente), "cliente " + codigoCliente);
+    }
+
+    /**
+     * Uma chamada para o bloco inteiro. Códigos ausentes ou com valor nulo no mapa devolvido
+     * não foram confirmados e devem ser tratados como se tivessem pedidos.
+     */
+    public Map<Long, Boolean> clientesPossuemPedidos(Collection<Long> codigosClientes) throws BusinessException {
+        Map<Long, Boolean> pedidos = new HashMap<>();
+        List<Long> desconhecidos = new ArrayList<>();
+        for (Long codigo : codigosClientes) {
+            Boolean local = projecao.possuiPedidos(codigo);
+            if (local != null) pedidos.put(codigo, local);
+            else desconhecidos.add(codigo);
+        }
+        if (desconhecidos.isEmpty()) return pedidos;
+
+        Map<Long, Boolean> resposta = executar(() -> feignClient.clientesPossuemPedidos(desconhecidos),
+                desconhecidos.size() + " clientes");
+        if (resposta != null) pedidos.putAll(resposta);
+        return pedidos;
+    }
+
+    private <T> T executar(Supplier<T> consulta, String descricao) throws BusinessException {
+        // Bulkhead por fora: chamadas recusadas por falta de vaga não contam como falha do serviço de pedidos.
+        Supplier<T> chamada = Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, consulta));
+        try {
+            return chamada.get();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao consultar pedidos de {}: {}", descricao, e.toString());
+            throw new BusinessException(INDISPONIVEL);
+        }
+    }
+
+    private boolean consultar(Long codigoCliente) {
+        Map<String, Boolean> resposta = feignClient.clientePossuiPedidos(codigoCliente);
+        Boolean possuiPedidos = resposta == null ? null : resposta.get("possui-pedidos");
+        if (possuiPedidos == null)
+            throw new IllegalStateException("Resposta sem o campo possui-pedidos para o cliente " + codigoCliente);
+        return possuiPedidos;
+    }
+}
@@ -1,15 +1,21 @@
 package com.fiap.techchallenger4.mscliente.domain.consumer;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name="PedidoConsumerFeignClient",url="${url.pedido.consumer.feign.client}")
+// URL em spring.cloud.openfeign.client.config: lida na inicialização, não congelada no build AOT da imagem nativa.
+@FeignClient(name="PedidoConsumerFeignClient")
 public interface PedidoConsumerFeignClient {
     
     @PostMapping("/cliente/possui-pedidos")
     Map<String, Boolean> clientePossuiPedidos(@RequestParam("codigoCliente") final Long codigoCliente);
 
+    @PostMapping("/cliente/possui-pedidos/lote")
+    Map<Long, Boolean> clientesPossuemPedidos(@RequestBody final Collection<Long> codigosClientes);
+
 }
@@ -0,0 +1,75 @@
+package com.fiap.techchallenger4.mscliente.domain.consumer;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Contraparte não bloqueante do {@link PedidoConsumer} para a stack reativa: mesma projeção local, mesmas instâncias
+ * de bulkhead e circuit breaker ({@value PedidoConsumer#PEDIDOS}) e os mesmos timeouts configurados para o Feign.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PedidoConsumerReativo {
+
+    private static final ParameterizedTypeReference<Map<String, Boolean>> RESPOSTA = new ParameterizedTypeReference<>() {
+    };
+
+    private final WebClient webClient;
+    private final ClientesComPedidosProjecao projecao;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration timeout;
+
+    public PedidoConsumerReativo(WebClient.Builder webClientBuilder, ClientesComPedidosProjecao projecao,
+                                 BulkheadRegistry bulkheadRegistry, CircuitBreakerRegistry circuitBreakerRegistry,
+                                 @Value("${url.pedido.consumer.feign.client}") String url,
+                                 @Value("${spring.cloud.openfeign.client.config.PedidoConsumerFeignClient.connect-timeout}") int connectTimeout,
+                                 @Value("${spring.cloud.openfeign.client.config.PedidoConsumerFeignClient.read-timeout}") long readTimeout) {
+        this.webClient = webClientBuilder
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)))
+                .build();
+        this.projecao = projecao;
+        this.bulkhead = bulkheadRegistry.bulkhead(PedidoConsumer.PEDIDOS);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(PedidoConsumer.PEDIDOS);
+        this.timeout = Duration.ofMillis(readTimeout);
+    }
+
+    public Mono<Boolean> clientePossuiPedidos(Long codigoCliente) {
+        Boolean local = projecao.possuiPedidos(codigoCliente);
+        if (local != null) return Mono.just(local);
+
+        return webClient.post()
+                .uri(uri -> uri.path("/cliente/possui-pedidos").queryParam("codigoCliente", codigoCliente).build())
+                .retrieve()
+                .bodyToMono(RESPOSTA)
+                .timeout(timeout)
+                .mapNotNull(resposta -> resposta.get("possui-pedidos"))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Resposta sem o campo possui-pedidos para o cliente " + codigoCliente)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(e -> {
+                    log.warn("Falha ao consultar pedidos de cliente {}: {}", codigoCliente, e.toString());
+                    return new BusinessException(PedidoConsumer.INDISPONIVEL);
+                });
+    }
+}
@@ -0,0 +1,11 @@
+package com.fiap.techchallenger4.mscliente.domain.consumer;
+
+/**
+ * Mudança publicada pelo serviço de pedidos: o cliente passou a ter pedidos ou deixou de ter. possuiPedidos é
+ * obrigatório; um evento sem ele não pode virar "sem pedidos" e liberar a exclusão.
+ */
+public record PedidoEvento(
+        Long codigoCliente,
+        Boolean possuiPedidos
+) {
+}
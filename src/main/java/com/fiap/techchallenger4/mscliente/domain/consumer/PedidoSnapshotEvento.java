@@ -0,0 +1,11 @@
+package com.fiap.techchallenger4.mscliente.domain.consumer;
+
+import java.util.Collection;
+
+/**
+ * Carga completa dos clientes que possuem pedidos; ao ser aplicada deixa a projeção aquecida.
+ */
+public record PedidoSnapshotEvento(
+        Collection<Long> codigosClientesComPedidos
+) {
+}
@@ -3,45 +3,123 @@ package com.fiap.techchallenger4.mscliente.domain.controllers;
 import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerCreate;
 import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerNoContent;
 import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerOk;
+import br.com.fiap.estrutura.exception.BusinessException;
+import br.com.fiap.estrutura.utils.GerarResponse;
+import br.com.fiap.estrutura.utils.MessageErrorHandler;
 import br.com.fiap.estrutura.utils.SpringControllerUtils;
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
 import com.fiap.techchallenger4.mscliente.domain.services.ClienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 
 @Tag(name = "Clientes", description = "Rotas para gerenciamento dos clientes")
 @RestController
 @RequestMapping("/clientes")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ClienteController {
 
     @Autowired
     private ClienteService clienteService;
 
+    // Respostas de um único cliente levam a ETag da versão; num GET, o Spring responde 304 sozinho quando ela
+    // bate com o If-None-Match. Versão desatualizada vira 412, o resto segue o SpringControllerUtils.
+    private static ResponseEntity<?> responseVersionada(HttpStatus status, GerarResponse<ClienteDtoResponse> gerar) {
+        return responseVersionada(status, gerar, cliente -> cliente);
+    }
+
+    // Com fields= a ETag continua a da versão do cliente; só o corpo é recortado.
+    private static ResponseEntity<?> responseVersionada(HttpStatus status, GerarResponse<ClienteDtoResponse> gerar, Corpo corpo) {
+        try {
+            ClienteDtoResponse cliente = gerar.get();
+            return ResponseEntity.status(status).eTag(cliente.etag()).body(corpo.gerar(cliente));
+        } catch (VersaoDesatualizada e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(MessageErrorHandler.create(e.getMessage()));
+        } catch (BusinessException | RuntimeException e) {
+            return SpringControllerUtils.response(status, () -> {
+                throw e;
+            });
+        }
+    }
+
+    private interface Corpo {
+        Object gerar(ClienteDtoResponse cliente) throws BusinessException;
+    }
+
+    private ResponseEntity<?> responseVersionada(HttpStatus status, String campos, GerarResponse<ClienteDtoResponse> gerar) {
+        if (campos == null || campos.isBlank()) return responseVersionada(status, gerar);
+        return responseVersionada(status, gerar, cliente -> clienteService.selecionarCampos(cliente, campos));
+    }
+
     @GetMapping
-    @Operation(summary = "Listar todos os clientes")
+    @Operation(summary = "Listar clientes", description = "Sem parâmetros retorna todos os clientes. Informando cursor e/ou tamanho, retorna uma página por keyset e o cursor da próxima página. "
+            + "Com fields (ex.: fields=nome,email) lê e devolve só esses campos, além do codigoCliente.")
     @ApiResponseSwaggerOk
-    public ResponseEntity<?> listarClientes() {
-        return ResponseEntity.status(HttpStatus.OK).body(clienteService.listarClientes());
+    public ResponseEntity<?> listarClientes(@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho,
+                                            @RequestParam(name = "fields", required = false) String campos) {
+        boolean paginado = cursor != null || tamanho != null;
+        if (campos != null && !campos.isBlank()) {
+            return SpringControllerUtils.response(HttpStatus.OK, () -> paginado
+                    ? clienteService.listarClientesPaginados(cursor, tamanho, campos)
+                    : clienteService.listarClientes(campos));
+        }
+        return SpringControllerUtils.response(HttpStatus.OK, () -> paginado
+                ? clienteService.listarClientesPaginados(cursor, tamanho)
+                : clienteService.listarClientes());
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar clientes por nome, cidade ou estado", description = "Nome por parte de palavra ou aproximado (tolera erros de digitação), cidade pelo início e estado pela UF. Ordena por relevância e pagina pelo cursor devolvido, até as primeiras 1000 posições.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> buscarClientes(@RequestParam(required = false) String nome, @RequestParam(required = false) String cidade,
+                                            @RequestParam(required = false) String estado, @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer tamanho) {
+        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.buscarClientes(nome, cidade, estado, cursor, tamanho));
+    }
+
+    @GetMapping("/contagens")
+    @Operation(summary = "Contar clientes por estado, cidade e mês de cadastro", description = "Totais para painéis, agrupados no banco; dispensa trazer todos os clientes pelo GET /clientes.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> contarClientes() {
+        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.contarClientes());
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar todos os clientes em NDJSON", description = "Um cliente por linha, lido da base por cursor e escrito direto na resposta.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<StreamingResponseBody> exportarClientes() {
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(clienteService::exportarClientes);
     }
 
     @GetMapping("/{codigoCliente}")
-    @Operation(summary = "Buscar cliente por código")
+    @Operation(summary = "Buscar cliente por código", description = "Devolve a ETag da versão; com If-None-Match igual responde 304 sem corpo. Com fields devolve só esses campos.")
     @ApiResponseSwaggerOk
     @ApiResponseSwaggerNoContent
-    public ResponseEntity<?> buscarClientePorCodigo(@PathVariable Long codigoCliente) {
-        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.buscarClientePorCodigo(codigoCliente));
+    public ResponseEntity<?> buscarClientePorCodigo(@PathVariable Long codigoCliente, @RequestParam(name = "fields", required = false) String campos) {
+        return responseVersionada(HttpStatus.OK, campos, () -> clienteService.buscarClientePorCodigo(codigoCliente));
     }
 
     @GetMapping("email/{email}")
-    @Operation(summary = "Buscar cliente por Email")
+    @Operation(summary = "Buscar cliente por Email", description = "Devolve a ETag da versão; com If-None-Match igual responde 304 sem corpo. Com fields devolve só esses campos.")
     @ApiResponseSwaggerOk
     @ApiResponseSwaggerNoContent
-    public ResponseEntity<?> buscarClientePorEmail(@PathVariable String email) {
-        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.buscarClientePorEmail(email));
+    public ResponseEntity<?> buscarClientePorEmail(@PathVariable String email, @RequestParam(name = "fields", required = false) String campos) {
+        return responseVersionada(HttpStatus.OK, campos, () -> clienteService.buscarClientePorEmail(email));
     }
 
     @PostMapping
@@ -51,18 +129,57 @@ public class ClienteController {
         return SpringControllerUtils.response(HttpStatus.CREATED, () -> clienteService.cadastrarCliente(cliente));
     }
 
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Cadastrar clientes em lote", description = "Recebe um array JSON e devolve o resultado de cada registro.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> cadastrarClientesEmLote(@RequestBody List<ClienteDtoRequest> clientes) {
+        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.cadastrarClientesEmLote(clientes));
+    }
+
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Cadastrar clientes em lote a partir de NDJSON", description = "Um cliente por linha; devolve o resultado de cada registro.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> cadastrarClientesEmLoteNdjson(InputStream clientes) {
+        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.cadastrarClientesEmLote(clientes));
+    }
+
+    @PostMapping("/lote/exclusao")
+    @Operation(summary = "Excluir clientes em lote", description = "Recebe os códigos dos clientes e exclui apenas os que não possuem pedidos, devolvendo o resultado de cada código.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> excluirClientesEmLote(@RequestBody List<Long> codigosClientes) {
+        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.excluirClientesEmLote(codigosClientes));
+    }
+
     @PutMapping("/{codigoCliente}")
-    @Operation(summary = "Atualizar um cliente pelo Código de Cliente")
+    @Operation(summary = "Atualizar um cliente pelo Código de Cliente", description = "Com If-Match, só atualiza se a ETag informada for a da versão atual; senão responde 412.")
     @ApiResponseSwaggerOk
-    public ResponseEntity<?> atualizarClientePorCodigo(@PathVariable Long codigoCliente, @RequestBody ClienteDtoRequest clienteDto) {
-        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.atualizarClientePorCodigo(codigoCliente, clienteDto));
+    public ResponseEntity<?> atualizarClientePorCodigo(@PathVariable Long codigoCliente, @RequestBody ClienteDtoRequest clienteDto,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String seCorresponder) {
+        return responseVersionada(HttpStatus.OK, () -> clienteService.atualizarClientePorCodigo(codigoCliente, clienteDto, seCorresponder));
     }
 
     @PutMapping("email/{email}")
-    @Operation(summary = "Atualizar um cliente por Email")
+    @Operation(summary = "Atualizar um cliente por Email", description = "Com If-Match, só atualiza se a ETag informada for a da versão atual; senão responde 412.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> atualizarClientePorEmail(@PathVariable String email, @RequestBody ClienteDtoRequest clienteDto,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String seCorresponder) {
+        return responseVersionada(HttpStatus.OK, () -> clienteService.atualizarClientePorEmail(email, clienteDto, seCorresponder));
+    }
+
+    @PatchMapping(value = "/{codigoCliente}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @Operation(summary = "Atualizar parcialmente um cliente pelo Código de Cliente", description = "Recebe só os campos que mudam; os demais ficam como estão. Aceita If-Match como o PUT.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> atualizarParcialmentePorCodigo(@PathVariable Long codigoCliente, @RequestBody Map<String, String> campos,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String seCorresponder) {
+        return responseVersionada(HttpStatus.OK, () -> clienteService.atualizarParcialmentePorCodigo(codigoCliente, campos, seCorresponder));
+    }
+
+    @PatchMapping(value = "email/{email}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @Operation(summary = "Atualizar parcialmente um cliente por Email", description = "Recebe só os campos que mudam; os demais ficam como estão. Aceita If-Match como o PUT.")
     @ApiResponseSwaggerOk
-    public ResponseEntity<?> atualizarClientePorEmail(@PathVariable String email, @RequestBody ClienteDtoRequest clienteDto) {
-        return SpringControllerUtils.response(HttpStatus.OK, () -> clienteService.atualizarClientePorEmail(email, clienteDto));
+    public ResponseEntity<?> atualizarParcialmentePorEmail(@PathVariable String email, @RequestBody Map<String, String> campos,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String seCorresponder) {
+        return responseVersionada(HttpStatus.OK, () -> clienteService.atualizarParcialmentePorEmail(email, campos, seCorresponder));
     }
 
     @DeleteMapping("/{codigoCliente}")
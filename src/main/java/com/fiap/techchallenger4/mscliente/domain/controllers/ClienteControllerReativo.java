@@ -0,0 +1,108 @@
+package com.fiap.techchallenger4.mscliente.domain.controllers;
+
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerCreate;
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerNoContent;
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerOk;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.services.ClienteServiceReativo;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * As rotas de {@code /clientes} na stack reativa. Nem tudo do {@link ClienteController} existe aqui: as rotas e
+ * parâmetros de {@link #SOMENTE_SERVLET} respondem 404 (ou o parâmetro é ignorado) com
+ * {@code spring.main.web-application-type=reactive}. O ClienteControllerReativoTest compara as duas classes, então
+ * uma rota nova na stack servlet precisa ser implementada aqui ou entrar nessa lista.
+ */
+@Tag(name = "Clientes", description = "Rotas para gerenciamento dos clientes (stack reativa)")
+@RestController
+@RequestMapping("/clientes")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ClienteControllerReativo {
+
+    static final Set<String> SOMENTE_SERVLET = Set.of(
+            // Paginação por cursor e seleção de campos (fields=) na listagem e nas buscas.
+            "GET /clientes?cursor", "GET /clientes?tamanho", "GET /clientes?fields",
+            "GET /clientes/{codigoCliente}?fields", "GET /clientes/email/{email}?fields",
+            // Busca por nome/cidade/UF, contagens dos painéis e exportação NDJSON.
+            "GET /clientes/busca", "GET /clientes/contagens", "GET /clientes/exportar",
+            // Cadastro e exclusão em lote.
+            "POST /clientes/lote", "POST /clientes/lote/exclusao",
+            // Atualização parcial (merge patch).
+            "PATCH /clientes/{codigoCliente}", "PATCH /clientes/email/{email}");
+
+    @Autowired
+    private ClienteServiceReativo clienteService;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Listar clientes", description = "Escrito à medida que as linhas chegam da base, no ritmo em que o cliente consome a resposta.")
+    @ApiResponseSwaggerOk
+    public Flux<ClienteDtoResponse> listarClientes() {
+        return clienteService.listarClientes();
+    }
+
+    @GetMapping("/{codigoCliente}")
+    @Operation(summary = "Buscar cliente por código")
+    @ApiResponseSwaggerOk
+    @ApiResponseSwaggerNoContent
+    public Mono<ResponseEntity<?>> buscarClientePorCodigo(@PathVariable Long codigoCliente) {
+        return RespostaReativa.response(HttpStatus.OK, clienteService.buscarClientePorCodigo(codigoCliente));
+    }
+
+    @GetMapping("email/{email}")
+    @Operation(summary = "Buscar cliente por Email")
+    @ApiResponseSwaggerOk
+    @ApiResponseSwaggerNoContent
+    public Mono<ResponseEntity<?>> buscarClientePorEmail(@PathVariable String email) {
+        return RespostaReativa.response(HttpStatus.OK, clienteService.buscarClientePorEmail(email));
+    }
+
+    @PostMapping
+    @Operation(summary = "Cadastrar um novo cliente")
+    @ApiResponseSwaggerCreate
+    public Mono<ResponseEntity<?>> cadastrarCliente(@RequestBody ClienteDtoRequest cliente) {
+        return RespostaReativa.response(HttpStatus.CREATED, clienteService.cadastrarCliente(cliente));
+    }
+
+    @PutMapping("/{codigoCliente}")
+    @Operation(summary = "Atualizar um cliente pelo Código de Cliente", description = "Com If-Match, só atualiza se a ETag informada for a da versão atual; senão responde 412.")
+    @ApiResponseSwaggerOk
+    public Mono<ResponseEntity<?>> atualizarClientePorCodigo(@PathVariable Long codigoCliente, @RequestBody ClienteDtoRequest clienteDto,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String seCorresponder) {
+        return RespostaReativa.response(HttpStatus.OK, clienteService.atualizarClientePorCodigo(codigoCliente, clienteDto, seCorresponder));
+    }
+
+    @PutMapping("email/{email}")
+    @Operation(summary = "Atualizar um cliente por Email", description = "Com If-Match, só atualiza se a ETag informada for a da versão atual; senão responde 412.")
+    @ApiResponseSwaggerOk
+    public Mono<ResponseEntity<?>> atualizarClientePorEmail(@PathVariable String email, @RequestBody ClienteDtoRequest clienteDto,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String seCorresponder) {
+        return RespostaReativa.response(HttpStatus.OK, clienteService.atualizarClientePorEmail(email, clienteDto, seCorresponder));
+    }
+
+    @DeleteMapping("/{codigoCliente}")
+    @Operation(summary = "Excluir um cliente pelo Código de Cliente")
+    @ApiResponseSwaggerNoContent
+    public Mono<ResponseEntity<?>> excluirClientePorCodigo(@PathVariable Long codigoCliente) {
+        return RespostaReativa.response(HttpStatus.NO_CONTENT, clienteService.excluirClientePorCodigo(codigoCliente));
+    }
+
+    @DeleteMapping("email/{email}")
+    @Operation(summary = "Excluir um cliente por Email")
+    @ApiResponseSwaggerNoContent
+    public Mono<ResponseEntity<?>> excluirClientePorEmail(@PathVariable String email) {
+        return RespostaReativa.response(HttpStatus.NO_CONTENT, clienteService.excluirClientePorEmail(email));
+    }
+}
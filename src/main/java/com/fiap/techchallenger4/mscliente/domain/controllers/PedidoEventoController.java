@@ -0,0 +1,81 @@
+package com.fiap.techchallenger4.mscliente.domain.controllers;
+
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerOk;
+import br.com.fiap.estrutura.utils.MessageErrorHandler;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoEvento;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoSnapshotEvento;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+@Tag(name = "Eventos de pedidos", description = "Feed do serviço de pedidos que mantém a projeção local de clientes com pedidos")
+@RestController
+@RequestMapping("/eventos/pedidos")
+public class PedidoEventoController {
+
+    static final String HEADER_TOKEN = "X-Token-Eventos";
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    // Segredo compartilhado com o serviço de pedidos (EVENTOS_PEDIDOS_TOKEN). Sem ele o feed fica fechado: um
+    // snapshot aquecido libera exclusões sem consultar pedidos, então só quem tem o token pode alimentar a projeção.
+    @Value("${eventos.pedidos.token:}")
+    private String token;
+
+    // A projeção alimentada por este feed vive na memória de uma instância (ver ClientesComPedidosProjecao): com
+    // mais réplicas ela fica desligada e o feed é recusado, para o serviço de pedidos perceber a configuração.
+    @Value("${eventos.pedidos.instancia-unica:false}")
+    private boolean instanciaUnica;
+
+    @PostMapping
+    @Operation(summary = "Receber eventos de pedidos", description = "Cada evento informa se o cliente passou a ter ou deixou de ter pedidos.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> receberEventos(@RequestHeader(name = HEADER_TOKEN, required = false) String tokenRecebido,
+                                            @RequestBody List<PedidoEvento> eventos) {
+        if (!autorizado(tokenRecebido)) return naoAutorizado();
+        if (!instanciaUnica) return desativado();
+        if (eventos.stream().anyMatch(evento -> evento == null || evento.codigoCliente() == null || evento.possuiPedidos() == null)) {
+            return ResponseEntity.badRequest().body(MessageErrorHandler.create("Todo evento deve informar codigoCliente e possuiPedidos."));
+        }
+        eventos.forEach(publisher::publishEvent);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/snapshot")
+    @Operation(summary = "Receber carga completa", description = "Códigos de todos os clientes com pedidos. Depois dela as exclusões deixam de consultar o serviço de pedidos; só aceito com eventos.pedidos.instancia-unica.")
+    @ApiResponseSwaggerOk
+    public ResponseEntity<?> receberSnapshot(@RequestHeader(name = HEADER_TOKEN, required = false) String tokenRecebido,
+                                             @RequestBody List<Long> codigosClientesComPedidos) {
+        if (!autorizado(tokenRecebido)) return naoAutorizado();
+        if (!instanciaUnica) return desativado();
+        if (codigosClientesComPedidos.isEmpty()) {
+            return ResponseEntity.badRequest().body(MessageErrorHandler.create("Snapshot vazio não é aceito."));
+        }
+        publisher.publishEvent(new PedidoSnapshotEvento(codigosClientesComPedidos));
+        return ResponseEntity.accepted().build();
+    }
+
+    private boolean autorizado(String tokenRecebido) {
+        if (token == null || token.isBlank() || tokenRecebido == null) return false;
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), tokenRecebido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<?> desativado() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(MessageErrorHandler.create(
+                "Projeção de pedidos desativada: só é usada com uma única instância (eventos.pedidos.instancia-unica)."));
+    }
+
+    private static ResponseEntity<?> naoAutorizado() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageErrorHandler.create("Token do feed de pedidos ausente ou inválido."));
+    }
+}
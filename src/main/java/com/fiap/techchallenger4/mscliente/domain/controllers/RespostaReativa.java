@@ -0,0 +1,38 @@
+package com.fiap.techchallenger4.mscliente.domain.controllers;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import br.com.fiap.estrutura.exception.EntidadeNaoEncontrada;
+import br.com.fiap.estrutura.utils.MessageErrorHandler;
+import br.com.fiap.estrutura.utils.SpringControllerUtils;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente reativo do {@link SpringControllerUtils#response}: mesmos status e mesmo corpo de erro. Como no
+ * {@link ClienteController}, um cliente devolvido leva a ETag da versão e versão desatualizada vira 412.
+ */
+final class RespostaReativa {
+
+    private RespostaReativa() {
+    }
+
+    static Mono<ResponseEntity<?>> response(HttpStatus status, Mono<?> resposta) {
+        Mono<ResponseEntity<?>> sucesso = status == HttpStatus.NO_CONTENT
+                ? resposta.then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()))
+                : resposta.map(corpo -> corpo instanceof ClienteDtoResponse cliente
+                        ? ResponseEntity.status(status).eTag(cliente.etag()).body(cliente)
+                        : ResponseEntity.status(status).body(corpo));
+        return sucesso
+                .onErrorResume(VersaoDesatualizada.class, e -> erro(HttpStatus.PRECONDITION_FAILED, e))
+                .onErrorResume(EntidadeNaoEncontrada.class, e -> erro(HttpStatus.NOT_FOUND, e))
+                .onErrorResume(BusinessException.class, e -> erro(HttpStatus.BAD_REQUEST, e))
+                .onErrorResume(Exception.class, e -> erro(HttpStatus.INTERNAL_SERVER_ERROR, e));
+    }
+
+    private static Mono<ResponseEntity<?>> erro(HttpStatus status, Exception e) {
+        return Mono.just(ResponseEntity.status(status).body(MessageErrorHandler.create(e.getMessage())));
+    }
+}
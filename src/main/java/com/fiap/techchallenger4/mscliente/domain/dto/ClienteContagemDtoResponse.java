@@ -0,0 +1,7 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+public record ClienteContagemDtoResponse(
+        String valor,
+        long quantidade
+) {
+}
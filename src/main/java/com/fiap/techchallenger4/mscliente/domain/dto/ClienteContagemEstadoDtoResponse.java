@@ -0,0 +1,10 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+import java.util.List;
+
+public record ClienteContagemEstadoDtoResponse(
+        String estado,
+        long quantidade,
+        List<ClienteContagemDtoResponse> cidades
+) {
+}
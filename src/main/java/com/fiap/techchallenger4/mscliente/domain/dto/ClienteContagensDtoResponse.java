@@ -0,0 +1,10 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+import java.util.List;
+
+public record ClienteContagensDtoResponse(
+        long total,
+        List<ClienteContagemEstadoDtoResponse> porEstado,
+        List<ClienteContagemDtoResponse> porMes
+) {
+}
@@ -1,6 +1,10 @@
 package com.fiap.techchallenger4.mscliente.domain.dto;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 public record ClienteDtoResponse (
         Long codigoCliente,
@@ -15,6 +19,38 @@ public record ClienteDtoResponse (
         String cidade,
         String estado,
         String telefone,
-        LocalDateTime dataCriacao
+        LocalDateTime dataCriacao,
+        Long versao
 ) {
+
+    // Campos aceitos em fields=, na ordem em que saem na resposta.
+    public static final Map<String, Function<ClienteDtoResponse, Object>> CAMPOS;
+
+    static {
+        Map<String, Function<ClienteDtoResponse, Object>> campos = new LinkedHashMap<>();
+        campos.put("codigoCliente", ClienteDtoResponse::codigoCliente);
+        campos.put("nome", ClienteDtoResponse::nome);
+        campos.put("cpf", ClienteDtoResponse::cpf);
+        campos.put("email", ClienteDtoResponse::email);
+        campos.put("cep", ClienteDtoResponse::cep);
+        campos.put("logradouro", ClienteDtoResponse::logradouro);
+        campos.put("numero", ClienteDtoResponse::numero);
+        campos.put("complemento", ClienteDtoResponse::complemento);
+        campos.put("bairro", ClienteDtoResponse::bairro);
+        campos.put("cidade", ClienteDtoResponse::cidade);
+        campos.put("estado", ClienteDtoResponse::estado);
+        campos.put("telefone", ClienteDtoResponse::telefone);
+        campos.put("dataCriacao", ClienteDtoResponse::dataCriacao);
+        campos.put("versao", ClienteDtoResponse::versao);
+        CAMPOS = Collections.unmodifiableMap(campos);
+    }
+
+    // O código entra na ETag para que um cliente excluído e recadastrado com o mesmo email não repita a de antes.
+    public String etag() {
+        return etag(codigoCliente, versao);
+    }
+
+    public static String etag(Long codigoCliente, Long versao) {
+        return "\"" + codigoCliente + "-" + versao + "\"";
+    }
 }
@@ -0,0 +1,11 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+import java.util.List;
+
+public record ClienteExclusaoLoteDtoResponse(
+        int total,
+        int excluidos,
+        int mantidos,
+        List<ClienteExclusaoLoteItemDtoResponse> resultados
+) {
+}
@@ -0,0 +1,15 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+public record ClienteExclusaoLoteItemDtoResponse(
+        Long codigoCliente,
+        boolean excluido,
+        String mensagem
+) {
+    public static ClienteExclusaoLoteItemDtoResponse excluido(Long codigoCliente) {
+        return new ClienteExclusaoLoteItemDtoResponse(codigoCliente, true, null);
+    }
+
+    public static ClienteExclusaoLoteItemDtoResponse mantido(Long codigoCliente, String mensagem) {
+        return new ClienteExclusaoLoteItemDtoResponse(codigoCliente, false, mensagem);
+    }
+}
@@ -0,0 +1,11 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+import java.util.List;
+
+public record ClienteLoteDtoResponse(
+        int total,
+        int cadastrados,
+        int rejeitados,
+        List<ClienteLoteItemDtoResponse> resultados
+) {
+}
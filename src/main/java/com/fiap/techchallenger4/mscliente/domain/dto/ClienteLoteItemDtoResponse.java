@@ -0,0 +1,19 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+public record ClienteLoteItemDtoResponse(
+        int linha,
+        boolean cadastrado,
+        Long codigoCliente,
+        String cpf,
+        String email,
+        String mensagem
+) {
+    public static ClienteLoteItemDtoResponse cadastrado(int linha, Long codigoCliente, ClienteDtoRequest cliente) {
+        return new ClienteLoteItemDtoResponse(linha, true, codigoCliente, cliente.cpf(), cliente.email(), null);
+    }
+
+    public static ClienteLoteItemDtoResponse rejeitado(int linha, ClienteDtoRequest cliente, String mensagem) {
+        return new ClienteLoteItemDtoResponse(linha, false, null,
+                cliente == null ? null : cliente.cpf(), cliente == null ? null : cliente.email(), mensagem);
+    }
+}
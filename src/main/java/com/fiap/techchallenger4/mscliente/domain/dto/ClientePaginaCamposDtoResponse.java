@@ -0,0 +1,10 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record ClientePaginaCamposDtoResponse(
+        List<Map<String, Object>> clientes,
+        String proximoCursor
+) {
+}
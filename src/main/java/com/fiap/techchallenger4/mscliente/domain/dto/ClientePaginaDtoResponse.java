@@ -0,0 +1,9 @@
+package com.fiap.techchallenger4.mscliente.domain.dto;
+
+import java.util.List;
+
+public record ClientePaginaDtoResponse(
+        List<ClienteDtoResponse> clientes,
+        String proximoCursor
+) {
+}
@@ -1,28 +1,57 @@
 package com.fiap.techchallenger4.mscliente.domain.entities;
 
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.validation.Cpf;
+import com.fiap.techchallenger4.mscliente.domain.validation.Email;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
+// UPDATE só com as colunas alteradas: trocar o telefone não reescreve cpf e email nem revalida os índices únicos.
 @Entity
-@Table(name = "clientes")
+@DynamicUpdate
+// Os índices de estado/cidade e data de criação atendem as contagens agrupadas (ClienteRepository#contarPorCidade e
+// #contarPorMes) lendo só o índice, sem passar pela tabela.
+@Table(name = "clientes", uniqueConstraints = {
+        @UniqueConstraint(name = ClienteEntity.UK_CPF, columnNames = "cpf"),
+        @UniqueConstraint(name = ClienteEntity.UK_EMAIL, columnNames = "email_normalizado")
+}, indexes = {
+        @Index(name = "ix_clientes_estado_cidade", columnList = "estado, cidade"),
+        @Index(name = "ix_clientes_data_criacao", columnList = "data_criacao")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class ClienteEntity {
 
+    public static final String UK_CPF = "uk_clientes_cpf";
+    public static final String UK_EMAIL = "uk_clientes_email_normalizado";
+    // Índice sobre email das bases criadas antes de email_normalizado: o ddl-auto=update não o remove.
+    public static final String UK_EMAIL_ANTIGO = "uk_clientes_email";
+
+    // Sequence com allocationSize > 1 usa o otimizador pooled do Hibernate: um nextval a cada 50 inserts
+    // e, ao contrário de IDENTITY, permite que os inserts sejam enviados em batch JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long codigoCliente;
 
     private String nome;
-    private String cpf;
+    // CPF canônico (11 dígitos); a formatação XXX.XXX.XXX-XX fica só na saída da API.
+    @Column(nullable = false)
+    private Long cpf;
     private String email;
+    // Email na forma de Email#normalizar, mantido pelo setEmail: as buscas e o índice único ignoram maiúsculas e espaços.
+    // Nullable só para o ddl-auto=update criar a coluna em uma tabela já populada (ver EmailNormalizadoMigracao).
+    @Setter(AccessLevel.NONE)
+    private String emailNormalizado;
     private String cep;
     private String logradouro;
     private String numero;
@@ -36,11 +65,18 @@ public class ClienteEntity {
     @Column(nullable = false, updatable = false)
     private LocalDateTime dataCriacao;
 
-    public ClienteEntity(Long codigoCliente, String nome, String cpf, String email, String cep, String logradouro, String numero, String complemento, String bairro, String cidade, String estado, String telefone) {
+    // Controle otimista de concorrência: todo UPDATE confere e incrementa a versão, exposta na API como ETag.
+    // O default da coluna permite ao ddl-auto=update adicioná-la em uma tabela já populada.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
+    public ClienteEntity(Long codigoCliente, String nome, Long cpf, String email, String cep, String logradouro, String numero, String complemento, String bairro, String cidade, String estado, String telefone) {
         this.codigoCliente = codigoCliente;
         this.nome = nome;
         this.cpf = cpf;
-        this.email = email;
+        setEmail(email);
         this.cep = cep;
         this.logradouro = logradouro;
         this.numero = numero;
@@ -51,7 +87,12 @@ public class ClienteEntity {
         this.telefone = telefone;
     }
 
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailNormalizado = Email.normalizar(email);
+    }
+
     public ClienteDtoResponse toDto() {
-        return new ClienteDtoResponse(codigoCliente, nome, cpf, email, cep, logradouro, numero, complemento, bairro, cidade, estado, telefone, dataCriacao);
+        return new ClienteDtoResponse(codigoCliente, nome, Cpf.formatar(cpf), email, cep, logradouro, numero, complemento, bairro, cidade, estado, telefone, dataCriacao, versao);
     }
 }
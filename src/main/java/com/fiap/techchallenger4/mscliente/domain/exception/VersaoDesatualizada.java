@@ -0,0 +1,13 @@
+package com.fiap.techchallenger4.mscliente.domain.exception;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+
+/**
+ * A atualização partiu de uma versão do cliente que já não é a atual (If-Match divergente ou alteração concorrente).
+ */
+public class VersaoDesatualizada extends BusinessException {
+
+    public VersaoDesatualizada() {
+        super("O cliente foi alterado por outra requisição. Busque a versão atual e tente novamente.");
+    }
+}
@@ -1,13 +1,147 @@
 package com.fiap.techchallenger4.mscliente.domain.repositories;
 
 import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ClienteRepository extends JpaRepository<ClienteEntity, Long> {
+public interface ClienteRepository extends JpaRepository<ClienteEntity, Long>, ClienteRepositoryCampos {
+
+    // UPDATE em massa não passa pelo @Version do Hibernate: a versão é incrementada no próprio comando.
+    String ATUALIZAR = "update ClienteEntity c set c.nome = :#{#dados.nome}, c.cpf = :#{#dados.cpf}, c.email = :#{#dados.email}, "
+            + "c.emailNormalizado = :#{#dados.emailNormalizado}, c.cep = :#{#dados.cep}, c.logradouro = :#{#dados.logradouro}, c.numero = :#{#dados.numero}, "
+            + "c.complemento = :#{#dados.complemento}, c.bairro = :#{#dados.bairro}, c.cidade = :#{#dados.cidade}, "
+            + "c.estado = :#{#dados.estado}, c.telefone = :#{#dados.telefone}, c.versao = c.versao + 1 where ";
+    // If-Match conferido no mesmo comando, no formato de ClienteDtoResponse#etag().
+    String NA_VERSAO = " and concat('\"', cast(c.codigoCliente as String), '-', cast(c.versao as String), '\"') in :etags";
+
     ClienteEntity findByCodigoCliente(Long codigoCliente);
-    ClienteEntity findByEmail(String email);
-    boolean existsByCpf(String cpf);
-    boolean existsByEmail(String email);
+    // Buscas por email sempre pela coluna normalizada (Email#normalizar), coberta pelo índice único.
+    ClienteEntity findByEmailNormalizado(String emailNormalizado);
+    boolean existsByEmailNormalizado(String emailNormalizado);
+
+    @Query("select c.codigoCliente from ClienteEntity c where c.emailNormalizado = :emailNormalizado")
+    Long findCodigoClienteByEmailNormalizado(String emailNormalizado);
+
+    // Mutações em um único comando SQL, sem carregar a entidade antes; o retorno é o número de linhas afetadas.
+    @Transactional
+    @Modifying
+    @Query(ATUALIZAR + "c.codigoCliente = :codigoCliente")
+    int atualizarPorCodigo(Long codigoCliente, ClienteEntity dados);
+
+    @Transactional
+    @Modifying
+    @Query(ATUALIZAR + "c.codigoCliente = :codigoCliente" + NA_VERSAO)
+    int atualizarPorCodigo(Long codigoCliente, ClienteEntity dados, Collection<String> etags);
+
+    @Transactional
+    @Modifying
+    @Query(ATUALIZAR + "c.emailNormalizado = :emailNormalizado")
+    int atualizarPorEmail(String emailNormalizado, ClienteEntity dados);
+
+    @Transactional
+    @Modifying
+    @Query(ATUALIZAR + "c.emailNormalizado = :emailNormalizado" + NA_VERSAO)
+    int atualizarPorEmail(String emailNormalizado, ClienteEntity dados, Collection<String> etags);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ClienteEntity c where c.codigoCliente = :codigoCliente")
+    int excluirPorCodigo(Long codigoCliente);
+
+    // Linhas gravadas antes da coluna normalizada existir: o ddl-auto=update a cria vazia.
+    boolean existsByEmailNormalizadoIsNullAndEmailIsNotNull();
+
+    // Só as linhas cujo email normalizado não é de nenhum outro cliente: as que diferem só por maiúsculas ficam
+    // vazias (e são relatadas por EmailNormalizadoMigracao) em vez de violar o índice único e derrubar a subida.
+    @Transactional
+    @Modifying
+    @Query("update ClienteEntity c set c.emailNormalizado = lower(trim(c.email)) where c.emailNormalizado is null and c.email is not null "
+            + "and not exists (select 1 from ClienteEntity o where o.codigoCliente <> c.codigoCliente "
+            + "and (o.emailNormalizado = lower(trim(c.email)) or (o.emailNormalizado is null and lower(trim(o.email)) = lower(trim(c.email)))))")
+    int preencherEmailNormalizado();
+
+    @Query("select c.codigoCliente as codigoCliente, c.email as email from ClienteEntity c "
+            + "where c.emailNormalizado is null and c.email is not null order by lower(trim(c.email)), c.codigoCliente")
+    List<CodigoEmail> findEmailsNaoNormalizados();
+
+    // Verificação de duplicidade de um lote inteiro em uma consulta, trazendo só as colunas comparadas (email normalizado).
+    @Query("select c.cpf as cpf, c.emailNormalizado as email from ClienteEntity c where c.cpf in :cpfs or c.emailNormalizado in :emails")
+    List<CpfEmail> findCpfEmailByCpfInOrEmailNormalizadoIn(Collection<Long> cpfs, Collection<String> emails);
+
+    // Exclusão em lote: só o necessário para descartar inexistentes e invalidar o cache por email.
+    @Query("select c.codigoCliente as codigoCliente, c.email as email from ClienteEntity c where c.codigoCliente in :codigos")
+    List<CodigoEmail> findCodigoEmailByCodigoClienteIn(Collection<Long> codigos);
+
+    // Paginação por keyset: busca pelo índice da PK a partir do último código lido, custo constante em qualquer profundidade.
+    // JPQL explícito para reaproveitar o plano em cache; a query derivada montava um Criteria novo a cada chamada.
+    @Query("select c from ClienteEntity c where c.codigoCliente > :codigoCliente order by c.codigoCliente")
+    List<ClienteEntity> findByCodigoClienteGreaterThanOrderByCodigoClienteAsc(Long codigoCliente, Limit limit);
+
+    // Cursor JDBC para exportação: precisa ser consumido dentro de uma transação e fechado ao final.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from ClienteEntity c order by c.codigoCliente")
+    Stream<ClienteEntity> streamAllByOrderByCodigoCliente();
+
+    // Carga do índice de busca em memória (profile local): só os campos buscáveis, lidos por cursor.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c.codigoCliente as codigoCliente, c.nome as nome, c.cidade as cidade, c.estado as estado from ClienteEntity c")
+    Stream<ClienteBuscavel> streamParaBusca();
+
+    // Contagens dos painéis, agrupadas no banco. count(*) não lê colunas fora do GROUP BY, então o Postgres
+    // responde só pelos índices ix_clientes_estado_cidade e ix_clientes_data_criacao; os totais por estado saem
+    // da soma por cidade.
+    @Query("select c.estado as estado, c.cidade as cidade, count(*) as quantidade from ClienteEntity c "
+            + "group by c.estado, c.cidade order by c.estado, c.cidade")
+    List<ContagemCidade> contarPorCidade();
+
+    @Query("select year(c.dataCriacao) as ano, month(c.dataCriacao) as mes, count(*) as quantidade from ClienteEntity c "
+            + "group by year(c.dataCriacao), month(c.dataCriacao) order by ano, mes")
+    List<ContagemMes> contarPorMes();
+
+    interface ContagemCidade {
+        String getEstado();
+        String getCidade();
+        Long getQuantidade();
+    }
+
+    interface ContagemMes {
+        Integer getAno();
+        Integer getMes();
+        Long getQuantidade();
+    }
+
+    interface ClienteBuscavel {
+        Long getCodigoCliente();
+        String getNome();
+        String getCidade();
+        String getEstado();
+    }
+
+    interface CodigoEmail {
+        Long getCodigoCliente();
+        String getEmail();
+    }
+
+    interface CpfEmail {
+        Long getCpf();
+        String getEmail();
+    }
 }
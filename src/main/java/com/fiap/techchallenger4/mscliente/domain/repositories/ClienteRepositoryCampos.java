@@ -0,0 +1,14 @@
+package com.fiap.techchallenger4.mscliente.domain.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura só das colunas pedidas em {@code fields=}: o SELECT traz apenas elas, em tuplas, sem montar
+ * entidades nem o DTO completo. Os nomes são os de {@code ClienteDtoResponse}, já validados por quem chama.
+ */
+public interface ClienteRepositoryCampos {
+
+    // Mesmo keyset de ClienteRepository#findByCodigoClienteGreaterThanOrderByCodigoClienteAsc; limite nulo lê até o fim.
+    List<Map<String, Object>> findCamposByCodigoClienteGreaterThan(List<String> campos, Long codigoCliente, Integer limite);
+}
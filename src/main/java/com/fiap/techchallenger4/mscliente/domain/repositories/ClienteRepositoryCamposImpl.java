@@ -0,0 +1,37 @@
+package com.fiap.techchallenger4.mscliente.domain.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ClienteRepositoryCamposImpl implements ClienteRepositoryCampos {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // JPQL em texto, e não Criteria: cada combinação de campos vira um texto fixo (os campos chegam sempre na
+    // mesma ordem), que o Hibernate compila uma vez e reaproveita do cache de planos.
+    @Override
+    public List<Map<String, Object>> findCamposByCodigoClienteGreaterThan(List<String> campos, Long codigoCliente, Integer limite) {
+        String jpql = campos.stream().map(campo -> "c." + campo + " as " + campo).collect(Collectors.joining(", ", "select ",
+                " from ClienteEntity c where c.codigoCliente > :codigoCliente order by c.codigoCliente"));
+        TypedQuery<Tuple> consulta = entityManager.createQuery(jpql, Tuple.class).setParameter("codigoCliente", codigoCliente);
+        if (limite != null) consulta.setMaxResults(limite);
+        return consulta.getResultList().stream().map(ClienteRepositoryCamposImpl::paraMapa).toList();
+    }
+
+    private static Map<String, Object> paraMapa(Tuple tupla) {
+        Map<String, Object> cliente = new LinkedHashMap<>();
+        for (TupleElement<?> elemento : tupla.getElements()) {
+            cliente.put(elemento.getAlias(), tupla.get(elemento));
+        }
+        return cliente;
+    }
+}
@@ -0,0 +1,143 @@
+package com.fiap.techchallenger4.mscliente.domain.repositories;
+
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
+import com.fiap.techchallenger4.mscliente.domain.validation.Email;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Acesso R2DBC à mesma tabela {@code clientes} do {@link ClienteRepository}, devolvendo {@link ClienteEntity}
+ * para que as duas stacks compartilhem o mapeamento para DTO.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ClienteRepositoryReativo {
+
+    private static final int LOTE_LISTAGEM = 500;
+    private static final String COLUNAS = "codigo_cliente, nome, cpf, email, email_normalizado, cep, logradouro, numero, complemento, bairro, cidade, estado, telefone, data_criacao, versao";
+
+    private final DatabaseClient databaseClient;
+    private final String proximoCodigoSql;
+
+    public ClienteRepositoryReativo(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        // Cada nextval reserva um bloco inteiro do pooled optimizer do Hibernate (allocationSize 50); usar o valor
+        // devolvido, que é o topo do bloco, nunca colide com os ids que o JPA distribui a partir de outros blocos.
+        this.proximoCodigoSql = "PostgreSQL".equalsIgnoreCase(databaseClient.getConnectionFactory().getMetadata().getName())
+                ? "SELECT nextval('clientes_seq')"
+                : "SELECT NEXT VALUE FOR clientes_seq";
+    }
+
+    // O fetchSize faz o driver buscar as linhas por demanda: a listagem acompanha o ritmo de escrita da resposta.
+    public Flux<ClienteEntity> listar() {
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM clientes ORDER BY codigo_cliente")
+                .filter((statement, next) -> next.execute(statement.fetchSize(LOTE_LISTAGEM)))
+                .map(ClienteRepositoryReativo::paraEntidade)
+                .all();
+    }
+
+    public Mono<ClienteEntity> buscarPorCodigo(Long codigoCliente) {
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM clientes WHERE codigo_cliente = :codigo")
+                .bind("codigo", codigoCliente)
+                .map(ClienteRepositoryReativo::paraEntidade)
+                .one();
+    }
+
+    public Mono<ClienteEntity> buscarPorEmail(String email) {
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM clientes WHERE email_normalizado = :email")
+                .bind("email", Email.normalizar(email))
+                .map(ClienteRepositoryReativo::paraEntidade)
+                .one();
+    }
+
+    public Mono<ClienteEntity> inserir(ClienteEntity cliente) {
+        return databaseClient.sql(proximoCodigoSql)
+                .map(linha -> linha.get(0, Long.class))
+                .one()
+                .flatMap(codigo -> {
+                    cliente.setCodigoCliente(codigo);
+                    cliente.setDataCriacao(LocalDateTime.now());
+                    cliente.setVersao(0L);
+                    return vincular(databaseClient.sql("INSERT INTO clientes (" + COLUNAS + ") VALUES (:codigoCliente, :nome, :cpf, :email, :emailNormalizado, "
+                            + ":cep, :logradouro, :numero, :complemento, :bairro, :cidade, :estado, :telefone, :dataCriacao, :versao)"), cliente)
+                            .bind("dataCriacao", cliente.getDataCriacao())
+                            .bind("versao", cliente.getVersao())
+                            .then();
+                })
+                .thenReturn(cliente);
+    }
+
+    // Com conferirVersao, mesmo controle otimista do @Version no JPA: nenhuma linha atualizada significa que a versão
+    // lida já mudou. Sem ele (PUT sem If-Match) vale a última escrita, como na stack servlet, e nenhuma linha
+    // atualizada significa que o cliente foi excluído: o Mono termina vazio.
+    public Mono<ClienteEntity> atualizar(ClienteEntity cliente, boolean conferirVersao) {
+        GenericExecuteSpec sql = vincular(databaseClient.sql("UPDATE clientes SET nome = :nome, cpf = :cpf, email = :email, email_normalizado = :emailNormalizado, "
+                + "cep = :cep, logradouro = :logradouro, numero = :numero, complemento = :complemento, bairro = :bairro, cidade = :cidade, "
+                + "estado = :estado, telefone = :telefone, "
+                + "versao = versao + 1 WHERE codigo_cliente = :codigoCliente" + (conferirVersao ? " AND versao = :versao" : "")), cliente);
+        if (conferirVersao) sql = sql.bind("versao", cliente.getVersao());
+        return sql.fetch()
+                .rowsUpdated()
+                .flatMap(linhas -> {
+                    if (linhas == 0) return conferirVersao ? Mono.error(new VersaoDesatualizada()) : Mono.empty();
+                    if (!conferirVersao) return buscarVersao(cliente.getCodigoCliente()).map(versao -> {
+                        cliente.setVersao(versao);
+                        return cliente;
+                    });
+                    cliente.setVersao(cliente.getVersao() + 1);
+                    return Mono.just(cliente);
+                });
+    }
+
+    private Mono<Long> buscarVersao(Long codigoCliente) {
+        return databaseClient.sql("SELECT versao FROM clientes WHERE codigo_cliente = :codigo")
+                .bind("codigo", codigoCliente)
+                .map(linha -> linha.get("versao", Long.class))
+                .one();
+    }
+
+    public Mono<Long> excluir(Long codigoCliente) {
+        return databaseClient.sql("DELETE FROM clientes WHERE codigo_cliente = :codigo")
+                .bind("codigo", codigoCliente)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static GenericExecuteSpec vincular(GenericExecuteSpec sql, ClienteEntity cliente) {
+        sql = sql.bind("codigoCliente", cliente.getCodigoCliente()).bind("cpf", cliente.getCpf());
+        sql = vincular(sql, "nome", cliente.getNome());
+        sql = vincular(sql, "email", cliente.getEmail());
+        sql = vincular(sql, "emailNormalizado", cliente.getEmailNormalizado());
+        sql = vincular(sql, "cep", cliente.getCep());
+        sql = vincular(sql, "logradouro", cliente.getLogradouro());
+        sql = vincular(sql, "numero", cliente.getNumero());
+        sql = vincular(sql, "complemento", cliente.getComplemento());
+        sql = vincular(sql, "bairro", cliente.getBairro());
+        sql = vincular(sql, "cidade", cliente.getCidade());
+        sql = vincular(sql, "estado", cliente.getEstado());
+        return vincular(sql, "telefone", cliente.getTelefone());
+    }
+
+    private static GenericExecuteSpec vincular(GenericExecuteSpec sql, String parametro, String valor) {
+        return valor == null ? sql.bindNull(parametro, String.class) : sql.bind(parametro, valor);
+    }
+
+    private static ClienteEntity paraEntidade(Readable linha) {
+        ClienteEntity cliente = new ClienteEntity(linha.get("codigo_cliente", Long.class), linha.get("nome", String.class),
+                linha.get("cpf", Long.class), linha.get("email", String.class), linha.get("cep", String.class),
+                linha.get("logradouro", String.class), linha.get("numero", String.class), linha.get("complemento", String.class),
+                linha.get("bairro", String.class), linha.get("cidade", String.class), linha.get("estado", String.class),
+                linha.get("telefone", String.class));
+        cliente.setDataCriacao(linha.get("data_criacao", LocalDateTime.class));
+        cliente.setVersao(linha.get("versao", Long.class));
+        return cliente;
+    }
+}
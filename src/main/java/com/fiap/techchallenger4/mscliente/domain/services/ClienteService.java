@@ -1,159 +1,701 @@
 package com.fiap.techchallenger4.mscliente.domain.services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumerFeignClient;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumer;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemEstadoDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagensDtoResponse;
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteExclusaoLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteExclusaoLoteItemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteItemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClientePaginaCamposDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClientePaginaDtoResponse;
 import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
 import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepository;
+import com.fiap.techchallenger4.mscliente.domain.validation.ClienteValidador;
+import com.fiap.techchallenger4.mscliente.domain.validation.Cpf;
+import com.fiap.techchallenger4.mscliente.domain.validation.Email;
+import com.fiap.techchallenger4.mscliente.infra.busca.BuscaClientes;
+import com.fiap.techchallenger4.mscliente.infra.cache.ClienteCache;
+import com.fiap.techchallenger4.mscliente.infra.metricas.ClienteMetricas;
 
 import br.com.fiap.estrutura.exception.BusinessException;
 import br.com.fiap.estrutura.exception.EntidadeNaoEncontrada;
+import jakarta.persistence.EntityManager;
 
 @Service
 public class ClienteService {
 
+    private static final int TAMANHO_PAGINA_PADRAO = 50;
+    private static final int TAMANHO_PAGINA_MAXIMO = 500;
+    private static final int LOTE_EXPORTACAO = 500;
+    private static final int TAMANHO_LOTE_CADASTRO_MAXIMO = 50_000;
+    private static final int LOTE_CONSULTA_DUPLICIDADE = 1_000;
+    private static final int LOTE_INSERCAO = 500;
+    private static final int TAMANHO_LOTE_EXCLUSAO_MAXIMO = 50_000;
+    private static final int LOTE_EXCLUSAO = 500;
+    private static final int TAMANHO_BUSCA_PADRAO = 20;
+    private static final int TAMANHO_BUSCA_MAXIMO = 100;
+    private static final int RESULTADOS_BUSCA_MAXIMOS = 1_000;
+    private static final int TAMANHO_MINIMO_NOME_BUSCA = 3;
+    static final String POSSUI_PEDIDOS = "O Cliente não pode ser excluido pois possui pedidos realizados";
+
     private final ClienteRepository clienteRepository;
-    private final PedidoConsumerFeignClient pedidoConsumerFeignClient;
+    private final PedidoConsumer pedidoConsumer;
+    private final EntityManager entityManager;
+    private final ObjectWriter exportacaoWriter;
+    private final ObjectReader loteReader;
+    private final ClienteCache clienteCache;
+    private final BuscaClientes buscaClientes;
+    private final ClienteMetricas clienteMetricas;
 
     @Autowired
-    public ClienteService(ClienteRepository clienteRepository, PedidoConsumerFeignClient pedidoConsumerFeignClient) {
+    public ClienteService(ClienteRepository clienteRepository, PedidoConsumer pedidoConsumer,
+                          EntityManager entityManager, ObjectMapper objectMapper, ClienteCache clienteCache,
+                          BuscaClientes buscaClientes, ClienteMetricas clienteMetricas) {
 		this.clienteRepository = clienteRepository;
-		this.pedidoConsumerFeignClient = pedidoConsumerFeignClient;
+		this.pedidoConsumer = pedidoConsumer;
+		this.entityManager = entityManager;
+		this.clienteCache = clienteCache;
+		this.buscaClientes = buscaClientes;
+		this.clienteMetricas = clienteMetricas;
+		this.exportacaoWriter = objectMapper.writerFor(ClienteDtoResponse.class)
+				.withRootValueSeparator("\n")
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.loteReader = objectMapper.readerFor(ClienteDtoRequest.class);
 	}
 
 	private ClienteEntity findByCodigoCliente(Long codigoCliente) throws BusinessException {
         ClienteEntity cliente = clienteRepository.findByCodigoCliente(codigoCliente);
         if (cliente == null) {
-            throw new EntidadeNaoEncontrada("Cliente com código " + codigoCliente + " não encontrado");
+            throw naoEncontrado(codigoCliente);
         }
         return cliente;
     }
 
     private ClienteEntity findByEmail(String email) throws BusinessException {
-        ClienteEntity cliente = clienteRepository.findByEmail(email);
+        ClienteEntity cliente = clienteRepository.findByEmailNormalizado(Email.normalizar(email));
         if (cliente == null) {
-            throw new EntidadeNaoEncontrada("Cliente com Email " + email + " não encontrado");
+            throw naoEncontrado(email);
         }
         return cliente;
     }
 
-    private void verificaDuplicidade(ClienteDtoRequest dto, ClienteEntity clienteExistente) throws BusinessException {
-        if (clienteExistente != null) {
-            if (!clienteExistente.getCpf().equals(dto.cpf()) && clienteRepository.existsByCpf(dto.cpf())) {
-                throw new BusinessException("CPF já cadastrado.");
-            }
-            if (!clienteExistente.getEmail().equals(dto.email()) && clienteRepository.existsByEmail(dto.email())) {
-                throw new BusinessException("Email já cadastrado.");
-            }
-        } else {
-            if (clienteRepository.existsByCpf(dto.cpf())) {
-                throw new BusinessException("CPF já cadastrado.");
-            }
-            if (clienteRepository.existsByEmail(dto.email())) {
-                throw new BusinessException("Email já cadastrado.");
-            }
+    private static EntidadeNaoEncontrada naoEncontrado(Long codigoCliente) {
+        return new EntidadeNaoEncontrada("Cliente com código " + codigoCliente + " não encontrado");
+    }
+
+    private static EntidadeNaoEncontrada naoEncontrado(String email) {
+        return new EntidadeNaoEncontrada("Cliente com Email " + email + " não encontrado");
+    }
+
+    // Nas mutações de um comando só a existência do cliente não é lida antes: quando uma validação falha,
+    // ela é consultada para manter o 404 de cliente inexistente à frente de qualquer outro erro.
+    private interface Validacao {
+        void executar() throws BusinessException;
+    }
+
+    private void validarExistente(Long codigoCliente, Validacao validacao) throws BusinessException {
+        try {
+            validacao.executar();
+        } catch (BusinessException e) {
+            throw clienteRepository.existsById(codigoCliente) ? e : naoEncontrado(codigoCliente);
+        }
+    }
+
+    private void validarExistente(String email, Validacao validacao) throws BusinessException {
+        try {
+            validacao.executar();
+        } catch (BusinessException e) {
+            throw clienteRepository.existsByEmailNormalizado(Email.normalizar(email)) ? e : naoEncontrado(email);
+        }
+    }
+
+    // CPF e email únicos são garantidos pelos índices da tabela, sem consultas prévias de existência.
+    private ClienteEntity salvar(ClienteEntity cliente) throws BusinessException {
+        try {
+            return clienteRepository.save(cliente);
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicidadeClienteTradutor.traduzir(e);
+        }
+    }
+
+    // If-Match: "*" aceita qualquer versão; caso contrário, uma das ETags informadas precisa ser a atual.
+    static void conferirVersao(ClienteEntity cliente, String seCorresponder) throws VersaoDesatualizada {
+        List<String> etags = etagsExigidas(seCorresponder);
+        if (etags != null && !etags.contains(ClienteDtoResponse.etag(cliente.getCodigoCliente(), cliente.getVersao()))) {
+            throw new VersaoDesatualizada();
+        }
+    }
+
+    static boolean exigeVersao(String seCorresponder) {
+        return etagsExigidas(seCorresponder) != null;
+    }
+
+    // null quando não há If-Match ou ele aceita qualquer versão.
+    private static List<String> etagsExigidas(String seCorresponder) {
+        if (seCorresponder == null || seCorresponder.isBlank()) return null;
+        List<String> etags = Arrays.stream(seCorresponder.split(",")).map(String::trim).toList();
+        return etags.contains("*") ? null : etags;
+    }
+
+    public List<ClienteDtoResponse> listarClientes() throws BusinessException {
+        return clienteMetricas.medir("listarClientes", () -> clienteRepository.findAll().stream().map(ClienteEntity::toDto).toList());
+    }
+
+    // fields=: o SELECT, as linhas lidas e o JSON ficam só com os campos pedidos, sem entidade nem DTO completo.
+    public List<Map<String, Object>> listarClientes(String campos) throws BusinessException {
+        return clienteMetricas.medir("listarClientes", () ->
+                formatarCpf(clienteRepository.findCamposByCodigoClienteGreaterThan(camposSelecionados(campos), 0L, null)));
+    }
+
+    public ClientePaginaDtoResponse listarClientesPaginados(String cursor, Integer tamanho) throws BusinessException {
+        return clienteMetricas.medir("listarClientesPaginados", () -> {
+            int tamanhoPagina = tamanhoPagina(tamanho);
+
+            // Busca um registro a mais só para saber se existe próxima página, sem precisar de COUNT.
+            List<ClienteEntity> clientes = clienteRepository.findByCodigoClienteGreaterThanOrderByCodigoClienteAsc(
+                    decodificarCursor(cursor), Limit.of(tamanhoPagina + 1));
+
+            boolean possuiProximaPagina = clientes.size() > tamanhoPagina;
+            List<ClienteDtoResponse> pagina = clientes.stream().limit(tamanhoPagina).map(ClienteEntity::toDto).toList();
+            String proximoCursor = possuiProximaPagina ? codificarCursor(pagina.get(pagina.size() - 1).codigoCliente()) : null;
+            return new ClientePaginaDtoResponse(pagina, proximoCursor);
+        });
+    }
+
+    public ClientePaginaCamposDtoResponse listarClientesPaginados(String cursor, Integer tamanho, String campos) throws BusinessException {
+        return clienteMetricas.medir("listarClientesPaginados", () -> {
+            List<String> selecionados = camposSelecionados(campos);
+            int tamanhoPagina = tamanhoPagina(tamanho);
+
+            List<Map<String, Object>> clientes = clienteRepository.findCamposByCodigoClienteGreaterThan(
+                    selecionados, decodificarCursor(cursor), tamanhoPagina + 1);
+
+            boolean possuiProximaPagina = clientes.size() > tamanhoPagina;
+            List<Map<String, Object>> pagina = formatarCpf(clientes.subList(0, Math.min(tamanhoPagina, clientes.size())));
+            String proximoCursor = possuiProximaPagina ? codificarCursor((Long) pagina.get(pagina.size() - 1).get("codigoCliente")) : null;
+            return new ClientePaginaCamposDtoResponse(pagina, proximoCursor);
+        });
+    }
+
+    // Para as buscas de um cliente, que vêm do cache: o DTO guardado é recortado só na resposta.
+    public Map<String, Object> selecionarCampos(ClienteDtoResponse cliente, String campos) throws BusinessException {
+        Map<String, Object> selecionado = new LinkedHashMap<>();
+        for (String campo : camposSelecionados(campos)) {
+            selecionado.put(campo, ClienteDtoResponse.CAMPOS.get(campo).apply(cliente));
+        }
+        return selecionado;
+    }
+
+    // Na ordem de ClienteDtoResponse#CAMPOS, para que a mesma seleção gere sempre o mesmo SQL. O código vai sempre:
+    // identifica o cliente e é a chave do cursor.
+    static List<String> camposSelecionados(String campos) throws BusinessException {
+        Set<String> pedidos = new HashSet<>();
+        for (String campo : campos.split(",")) {
+            String nome = campo.trim();
+            if (nome.isEmpty()) continue;
+            if (!ClienteDtoResponse.CAMPOS.containsKey(nome))
+                throw new BusinessException("Campo inexistente: " + nome + ". Disponíveis: " + String.join(", ", ClienteDtoResponse.CAMPOS.keySet()) + ".");
+            pedidos.add(nome);
         }
+        return ClienteDtoResponse.CAMPOS.keySet().stream().filter(campo -> campo.equals("codigoCliente") || pedidos.contains(campo)).toList();
     }
 
-    private void validarEndereco(ClienteDtoRequest dto) throws BusinessException {
-        if (dto.cep().isBlank() || !dto.cep().matches("\\d{5}-\\d{3}"))
-            throw new BusinessException("CEP inválido ou vazio. Deve estar no formato XXXXX-XXX.");
-        if (dto.logradouro().isBlank()) throw new BusinessException("Logradouro não pode ser vazio.");
-        if (dto.numero().isBlank()) throw new BusinessException("Número não pode ser vazio.");
-        if (dto.bairro().isBlank()) throw new BusinessException("Bairro não pode ser vazio.");
-        if (dto.cidade().isBlank()) throw new BusinessException("Cidade não pode ser vazia.");
-        if (dto.estado().isBlank()) throw new BusinessException("Estado não pode ser vazio.");
-        if (dto.telefone().isBlank() || !dto.telefone().matches("\\(\\d{2}\\) 9?\\d{4}-\\d{4}"))
-            throw new BusinessException("Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX.");
+    // O CPF sai do banco como número, e na API é sempre formatado.
+    private static List<Map<String, Object>> formatarCpf(List<Map<String, Object>> clientes) {
+        clientes.forEach(cliente -> cliente.computeIfPresent("cpf", (campo, cpf) -> Cpf.formatar((Long) cpf)));
+        return clientes;
     }
 
-    private void validarClienteDto(ClienteDtoRequest dto, ClienteEntity clienteExistente) throws BusinessException {
-        if (dto.nome().isBlank()) throw new BusinessException("Nome não pode ser vazio.");
-        if (dto.cpf().isBlank() || !dto.cpf().matches("\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}"))
-            throw new BusinessException("CPF inválido ou vazio. Deve estar no formato XXX.XXX.XXX-XX.");
-        if (dto.email().isBlank() || !dto.email().matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}$"))
-            throw new BusinessException("Email inválido ou vazio. Formato esperado: exemplo@dominio.com");
+    private static int tamanhoPagina(Integer tamanho) throws BusinessException {
+        int tamanhoPagina = tamanho == null ? TAMANHO_PAGINA_PADRAO : tamanho;
+        if (tamanhoPagina < 1 || tamanhoPagina > TAMANHO_PAGINA_MAXIMO)
+            throw new BusinessException("Tamanho da página deve estar entre 1 e " + TAMANHO_PAGINA_MAXIMO + ".");
+        return tamanhoPagina;
+    }
+
+    // Relevância calculada pela BuscaClientes; o cursor aqui é a posição da próxima página, não um código.
+    // Só as primeiras RESULTADOS_BUSCA_MAXIMOS posições são navegáveis, para a ordenação nunca crescer com a base:
+    // quem precisa ir além deve refinar a busca.
+    public ClientePaginaDtoResponse buscarClientes(String nome, String cidade, String estado, String cursor, Integer tamanho) throws BusinessException {
+        return clienteMetricas.medir("buscarClientes", () -> {
+            String nomeBuscado = BuscaClientes.normalizar(nome);
+            if (nomeBuscado == null && BuscaClientes.normalizar(cidade) == null && BuscaClientes.normalizar(estado) == null)
+                throw new BusinessException("Informe nome, cidade ou estado para a busca.");
+            if (nomeBuscado != null && nomeBuscado.length() < TAMANHO_MINIMO_NOME_BUSCA)
+                throw new BusinessException("Informe ao menos " + TAMANHO_MINIMO_NOME_BUSCA + " letras do nome.");
+            int tamanhoPagina = tamanho == null ? TAMANHO_BUSCA_PADRAO : tamanho;
+            if (tamanhoPagina < 1 || tamanhoPagina > TAMANHO_BUSCA_MAXIMO)
+                throw new BusinessException("Tamanho da página deve estar entre 1 e " + TAMANHO_BUSCA_MAXIMO + ".");
 
-        verificaDuplicidade(dto, clienteExistente);
+            long posicao = decodificarCursor(cursor);
+            if (posicao < 0 || posicao >= RESULTADOS_BUSCA_MAXIMOS) throw new BusinessException("Cursor inválido.");
+            int inicio = (int) posicao;
+            int quantidade = Math.min(tamanhoPagina, RESULTADOS_BUSCA_MAXIMOS - inicio);
+            List<Long> codigos = buscaClientes.buscar(nome, cidade, estado, inicio, quantidade + 1);
+
+            boolean possuiProximaPagina = codigos.size() > quantidade && inicio + quantidade < RESULTADOS_BUSCA_MAXIMOS;
+            List<Long> codigosPagina = codigos.subList(0, Math.min(quantidade, codigos.size()));
+            Map<Long, ClienteEntity> clientes = clienteRepository.findAllById(codigosPagina).stream()
+                    .collect(Collectors.toMap(ClienteEntity::getCodigoCliente, Function.identity()));
+            List<ClienteDtoResponse> pagina = codigosPagina.stream().map(clientes::get).filter(Objects::nonNull).map(ClienteEntity::toDto).toList();
+            return new ClientePaginaDtoResponse(pagina, possuiProximaPagina ? codificarCursor((long) inicio + quantidade) : null);
+        });
+    }
 
-        validarEndereco(dto);
+    // Para os painéis: duas consultas agrupadas no banco em vez de trazer a tabela pelo GET /clientes,
+    // e servidas pelo cache até a próxima mudança em algum cliente.
+    public ClienteContagensDtoResponse contarClientes() throws BusinessException {
+        return clienteMetricas.medir("contarClientes", () -> clienteCache.buscarContagens(() -> {
+            Map<String, List<ClienteRepository.ContagemCidade>> cidadesPorEstado = clienteRepository.contarPorCidade().stream()
+                    .collect(Collectors.groupingBy(c -> Objects.toString(c.getEstado(), ""), LinkedHashMap::new, Collectors.toList()));
+            List<ClienteContagemEstadoDtoResponse> porEstado = cidadesPorEstado.values().stream()
+                    .map(cidades -> new ClienteContagemEstadoDtoResponse(cidades.get(0).getEstado(),
+                            cidades.stream().mapToLong(ClienteRepository.ContagemCidade::getQuantidade).sum(),
+                            cidades.stream().map(c -> new ClienteContagemDtoResponse(c.getCidade(), c.getQuantidade())).toList()))
+                    .toList();
+            List<ClienteContagemDtoResponse> porMes = clienteRepository.contarPorMes().stream()
+                    .map(m -> new ClienteContagemDtoResponse(String.format("%04d-%02d", m.getAno(), m.getMes()), m.getQuantidade()))
+                    .toList();
+            long total = porEstado.stream().mapToLong(ClienteContagemEstadoDtoResponse::quantidade).sum();
+            return new ClienteContagensDtoResponse(total, porEstado, porMes);
+        }));
     }
 
-    public List<ClienteDtoResponse> listarClientes() {
-        return clienteRepository.findAll().stream().map(ClienteEntity::toDto).toList();
+    private String codificarCursor(Long codigoCliente) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(codigoCliente.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodificarCursor(String cursor) throws BusinessException {
+        if (cursor == null || cursor.isBlank()) return 0L;
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarClientes(OutputStream saida) throws IOException {
+        clienteMetricas.medirEscrita("exportarClientes", () -> {
+            try (Stream<ClienteEntity> clientes = clienteRepository.streamAllByOrderByCodigoCliente();
+                 SequenceWriter linhas = exportacaoWriter.writeValues(saida)) {
+                Iterator<ClienteEntity> iterator = clientes.iterator();
+                int lidos = 0;
+                while (iterator.hasNext()) {
+                    linhas.write(iterator.next().toDto());
+                    // Desanexa as entidades já escritas para o cache de primeiro nível não crescer com a tabela.
+                    if (++lidos % LOTE_EXPORTACAO == 0) {
+                        linhas.flush();
+                        entityManager.clear();
+                    }
+                }
+                if (lidos > 0) {
+                    linhas.flush();
+                    saida.write('\n');
+                }
+            }
+        });
     }
 
     public ClienteDtoResponse buscarClientePorCodigo(Long codigoCliente) throws BusinessException {
-        ClienteEntity cliente = findByCodigoCliente(codigoCliente);
-        return cliente.toDto();
+        return clienteMetricas.medir("buscarClientePorCodigo", () -> carregarPorCodigo(codigoCliente));
+    }
+
+    private ClienteDtoResponse carregarPorCodigo(Long codigoCliente) throws BusinessException {
+        return clienteCache.buscarPorCodigo(codigoCliente, () -> findByCodigoCliente(codigoCliente).toDto());
     }
 
     public ClienteDtoResponse buscarClientePorEmail(String email) throws BusinessException {
-        ClienteEntity cliente = findByEmail(email);
-        return cliente.toDto();
+        return clienteMetricas.medir("buscarClientePorEmail", () -> clienteCache.buscarPorEmail(email, () -> findByEmail(email).toDto()));
     }
 
     public ClienteDtoResponse cadastrarCliente(ClienteDtoRequest cliente) throws BusinessException {
-        validarClienteDto(cliente, null);
-        ClienteEntity novoCliente = cliente.toEntity();
-        ClienteEntity clienteSalvo = clienteRepository.save(novoCliente);
-        return clienteSalvo.toDto();
+        return clienteMetricas.medir("cadastrarCliente", () -> {
+            ClienteValidador.validar(cliente);
+            ClienteEntity novoCliente = cliente.toEntity();
+            ClienteEntity clienteSalvo = salvar(novoCliente);
+            clienteCache.remover(null, cliente.email());
+            indexar(clienteSalvo);
+            return clienteSalvo.toDto();
+        });
+    }
+
+    public ClienteLoteDtoResponse cadastrarClientesEmLote(InputStream ndjson) throws BusinessException {
+        return clienteMetricas.medir("cadastrarClientesEmLote", () -> {
+            List<ClienteDtoRequest> clientes = new ArrayList<>();
+            try (MappingIterator<ClienteDtoRequest> linhas = loteReader.readValues(ndjson)) {
+                while (linhas.hasNextValue()) {
+                    clientes.add(linhas.nextValue());
+                }
+            } catch (IOException e) {
+                throw new BusinessException("NDJSON inválido na linha " + (clientes.size() + 1) + ".");
+            }
+            return cadastrarLote(clientes);
+        });
+    }
+
+    public ClienteLoteDtoResponse cadastrarClientesEmLote(List<ClienteDtoRequest> clientes) throws BusinessException {
+        return clienteMetricas.medir("cadastrarClientesEmLote", () -> cadastrarLote(clientes));
     }
 
-    public ClienteDtoResponse atualizarCliente(ClienteDtoRequest clienteDto, ClienteEntity clienteExistente) throws BusinessException {
-        validarClienteDto(clienteDto, clienteExistente);
+    private ClienteLoteDtoResponse cadastrarLote(List<ClienteDtoRequest> clientes) throws BusinessException {
+        if (clientes == null || clientes.isEmpty()) throw new BusinessException("Nenhum cliente informado.");
+        if (clientes.size() > TAMANHO_LOTE_CADASTRO_MAXIMO)
+            throw new BusinessException("O lote pode ter no máximo " + TAMANHO_LOTE_CADASTRO_MAXIMO + " clientes.");
 
-        // Atualizar diretamente o clienteExistente em vez de criar um novo.
-        clienteExistente.setNome(clienteDto.nome());
-        clienteExistente.setCpf(clienteDto.cpf());
-        clienteExistente.setEmail(clienteDto.email());
-        clienteExistente.setCep(clienteDto.cep());
-        clienteExistente.setLogradouro(clienteDto.logradouro());
-        clienteExistente.setNumero(clienteDto.numero());
-        clienteExistente.setComplemento(clienteDto.complemento());
-        clienteExistente.setBairro(clienteDto.bairro());
-        clienteExistente.setCidade(clienteDto.cidade());
-        clienteExistente.setEstado(clienteDto.estado());
-        clienteExistente.setTelefone(clienteDto.telefone());
+        ClienteLoteItemDtoResponse[] resultados = new ClienteLoteItemDtoResponse[clientes.size()];
+        Map<Integer, ClienteDtoRequest> candidatos = validarLote(clientes, resultados);
+        descartarJaCadastrados(candidatos, resultados);
+        inserirLote(candidatos, resultados);
 
-        clienteRepository.save(clienteExistente);
-        return clienteExistente.toDto();
+        int cadastrados = (int) Arrays.stream(resultados).filter(ClienteLoteItemDtoResponse::cadastrado).count();
+        return new ClienteLoteDtoResponse(clientes.size(), cadastrados, clientes.size() - cadastrados, Arrays.asList(resultados));
     }
 
-    public ClienteDtoResponse atualizarClientePorCodigo(Long codigoCliente, ClienteDtoRequest clienteDto) throws BusinessException {
-        ClienteEntity clienteExistente = findByCodigoCliente(codigoCliente);
-        return atualizarCliente(clienteDto, clienteExistente);
+    private Map<Integer, ClienteDtoRequest> validarLote(List<ClienteDtoRequest> clientes, ClienteLoteItemDtoResponse[] resultados) {
+        Map<Integer, ClienteDtoRequest> candidatos = new LinkedHashMap<>();
+        // CPFs e emails comparados na forma canônica: 123.456.789-09 e 12345678909 são o mesmo cliente,
+        // assim como Ana@Email.com e ana@email.com.
+        Set<Long> cpfsDoLote = new HashSet<>();
+        Set<String> emailsDoLote = new HashSet<>();
+        for (int i = 0; i < clientes.size(); i++) {
+            ClienteDtoRequest dto = clientes.get(i);
+            try {
+                if (dto == null) throw new BusinessException("Registro vazio.");
+                ClienteValidador.validar(dto);
+                long cpf = Cpf.paraNumero(dto.cpf());
+                if (cpfsDoLote.contains(cpf)) throw new BusinessException("CPF repetido no lote.");
+                String email = Email.normalizar(dto.email());
+                if (emailsDoLote.contains(email)) throw new BusinessException("Email repetido no lote.");
+                cpfsDoLote.add(cpf);
+                emailsDoLote.add(email);
+                candidatos.put(i, dto);
+            } catch (BusinessException e) {
+                resultados[i] = ClienteLoteItemDtoResponse.rejeitado(i + 1, dto, e.getMessage());
+            }
+        }
+        return candidatos;
+    }
+
+    private void descartarJaCadastrados(Map<Integer, ClienteDtoRequest> candidatos, ClienteLoteItemDtoResponse[] resultados) {
+        List<Map.Entry<Integer, ClienteDtoRequest>> pendentes = new ArrayList<>(candidatos.entrySet());
+        for (int inicio = 0; inicio < pendentes.size(); inicio += LOTE_CONSULTA_DUPLICIDADE) {
+            List<Map.Entry<Integer, ClienteDtoRequest>> bloco = pendentes.subList(inicio, Math.min(inicio + LOTE_CONSULTA_DUPLICIDADE, pendentes.size()));
+            Set<Long> cpfsCadastrados = new HashSet<>();
+            Set<String> emailsCadastrados = new HashSet<>();
+            clienteRepository.findCpfEmailByCpfInOrEmailNormalizadoIn(
+                    bloco.stream().map(e -> Cpf.paraNumero(e.getValue().cpf())).toList(),
+                    bloco.stream().map(e -> Email.normalizar(e.getValue().email())).toList()
+            ).forEach(existente -> {
+                cpfsCadastrados.add(existente.getCpf());
+                emailsCadastrados.add(existente.getEmail());
+            });
+
+            for (Map.Entry<Integer, ClienteDtoRequest> entrada : bloco) {
+                ClienteDtoRequest dto = entrada.getValue();
+                String erro = cpfsCadastrados.contains(Cpf.paraNumero(dto.cpf())) ? "CPF já cadastrado."
+                        : emailsCadastrados.contains(Email.normalizar(dto.email())) ? "Email já cadastrado." : null;
+                if (erro != null) {
+                    resultados[entrada.getKey()] = ClienteLoteItemDtoResponse.rejeitado(entrada.getKey() + 1, dto, erro);
+                    candidatos.remove(entrada.getKey());
+                }
+            }
+        }
+    }
+
+    private void inserirLote(Map<Integer, ClienteDtoRequest> candidatos, ClienteLoteItemDtoResponse[] resultados) {
+        List<Map.Entry<Integer, ClienteDtoRequest>> pendentes = new ArrayList<>(candidatos.entrySet());
+        for (int inicio = 0; inicio < pendentes.size(); inicio += LOTE_INSERCAO) {
+            List<Map.Entry<Integer, ClienteDtoRequest>> bloco = pendentes.subList(inicio, Math.min(inicio + LOTE_INSERCAO, pendentes.size()));
+            List<ClienteEntity> entidades = bloco.stream().map(e -> e.getValue().toEntity()).toList();
+
+            // Cada bloco é um saveAll transacional: os ids vêm do pool da sequence e os inserts seguem em batch JDBC.
+            try {
+                clienteRepository.saveAll(entidades);
+                entityManager.clear();
+                clienteCache.removerContagens();
+                entidades.forEach(this::indexar);
+                for (int i = 0; i < bloco.size(); i++) {
+                    int indice = bloco.get(i).getKey();
+                    resultados[indice] = ClienteLoteItemDtoResponse.cadastrado(indice + 1, entidades.get(i).getCodigoCliente(), bloco.get(i).getValue());
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Outro cadastro concorrente ocupou um CPF/email do bloco: refaz um a um para apontar quais registros falharam.
+                entityManager.clear();
+                inserirIndividualmente(bloco, resultados);
+            }
+        }
     }
 
-    public ClienteDtoResponse atualizarClientePorEmail(String email, ClienteDtoRequest clienteDto) throws BusinessException {
-        ClienteEntity clienteExistente = findByEmail(email);
-        return atualizarCliente(clienteDto, clienteExistente);
+    private void inserirIndividualmente(List<Map.Entry<Integer, ClienteDtoRequest>> bloco, ClienteLoteItemDtoResponse[] resultados) {
+        for (Map.Entry<Integer, ClienteDtoRequest> entrada : bloco) {
+            int indice = entrada.getKey();
+            try {
+                ClienteEntity salvo = salvar(entrada.getValue().toEntity());
+                clienteCache.removerContagens();
+                indexar(salvo);
+                resultados[indice] = ClienteLoteItemDtoResponse.cadastrado(indice + 1, salvo.getCodigoCliente(), entrada.getValue());
+            } catch (BusinessException e) {
+                resultados[indice] = ClienteLoteItemDtoResponse.rejeitado(indice + 1, entrada.getValue(), e.getMessage());
+            }
+        }
     }
 
+    // Um único UPDATE, com o If-Match no WHERE; só quando nenhuma linha muda é que se consulta o motivo.
+    // A resposta é lida depois, já pelo cache, que fica aquecido com a versão nova.
+    public ClienteDtoResponse atualizarClientePorCodigo(Long codigoCliente, ClienteDtoRequest clienteDto, String seCorresponder) throws BusinessException {
+        return clienteMetricas.medir("atualizarClientePorCodigo", () -> {
+            validarExistente(codigoCliente, () -> ClienteValidador.validar(clienteDto));
+            ClienteEntity dados = clienteDto.toEntity();
+            List<String> etags = etagsExigidas(seCorresponder);
+            int atualizados = atualizar(() -> etags == null
+                    ? clienteRepository.atualizarPorCodigo(codigoCliente, dados)
+                    : clienteRepository.atualizarPorCodigo(codigoCliente, dados, etags));
+            if (atualizados == 0) {
+                if (etags != null && clienteRepository.existsById(codigoCliente)) throw new VersaoDesatualizada();
+                throw naoEncontrado(codigoCliente);
+            }
+            clienteCache.remover(codigoCliente, dados.getEmail());
+            buscaClientes.indexar(codigoCliente, dados.getNome(), dados.getCidade(), dados.getEstado());
+            return carregarPorCodigo(codigoCliente);
+        });
+    }
+
+    public ClienteDtoResponse atualizarClientePorEmail(String email, ClienteDtoRequest clienteDto, String seCorresponder) throws BusinessException {
+        return clienteMetricas.medir("atualizarClientePorEmail", () -> {
+            validarExistente(email, () -> ClienteValidador.validar(clienteDto));
+            String emailNormalizado = Email.normalizar(email);
+            ClienteEntity dados = clienteDto.toEntity();
+            List<String> etags = etagsExigidas(seCorresponder);
+            int atualizados = atualizar(() -> etags == null
+                    ? clienteRepository.atualizarPorEmail(emailNormalizado, dados)
+                    : clienteRepository.atualizarPorEmail(emailNormalizado, dados, etags));
+            if (atualizados == 0) {
+                if (etags != null && clienteRepository.existsByEmailNormalizado(emailNormalizado)) throw new VersaoDesatualizada();
+                throw naoEncontrado(email);
+            }
+            ClienteDtoResponse atualizado = findByEmail(dados.getEmail()).toDto();
+            clienteCache.remover(atualizado.codigoCliente(), email, dados.getEmail());
+            buscaClientes.indexar(atualizado.codigoCliente(), atualizado.nome(), atualizado.cidade(), atualizado.estado());
+            return atualizado;
+        });
+    }
+
+    private void indexar(ClienteEntity cliente) {
+        buscaClientes.indexar(cliente.getCodigoCliente(), cliente.getNome(), cliente.getCidade(), cliente.getEstado());
+    }
+
+    private int atualizar(IntSupplier comando) throws BusinessException {
+        try {
+            return comando.getAsInt();
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicidadeClienteTradutor.traduzir(e);
+        }
+    }
+
+    // Dentro da transação a entidade fica gerenciada: o flush grava só as colunas que mudaram (ver @DynamicUpdate)
+    // e os índices de CPF/email só são conferidos pelo banco quando um deles de fato muda.
+    @Transactional(rollbackFor = BusinessException.class)
+    public ClienteDtoResponse atualizarParcialmentePorCodigo(Long codigoCliente, Map<String, String> campos, String seCorresponder) throws BusinessException {
+        return clienteMetricas.medir("atualizarParcialmentePorCodigo", () -> atualizarParcialmente(findByCodigoCliente(codigoCliente), campos, seCorresponder));
+    }
+
+    @Transactional(rollbackFor = BusinessException.class)
+    public ClienteDtoResponse atualizarParcialmentePorEmail(String email, Map<String, String> campos, String seCorresponder) throws BusinessException {
+        return clienteMetricas.medir("atualizarParcialmentePorEmail", () -> atualizarParcialmente(findByEmail(email), campos, seCorresponder));
+    }
+
+    private ClienteDtoResponse atualizarParcialmente(ClienteEntity cliente, Map<String, String> campos, String seCorresponder) throws BusinessException {
+        if (campos == null || campos.isEmpty()) throw new BusinessException("Nenhum campo informado.");
+        ClienteValidador.validarCampos(campos);
+        conferirVersao(cliente, seCorresponder);
+        String emailAnterior = cliente.getEmail();
+
+        campos.forEach((campo, valor) -> {
+            switch (campo) {
+                case "nome" -> cliente.setNome(valor);
+                case "cpf" -> cliente.setCpf(Cpf.paraNumero(valor));
+                case "email" -> cliente.setEmail(valor);
+                case "cep" -> cliente.setCep(valor);
+                case "logradouro" -> cliente.setLogradouro(valor);
+                case "numero" -> cliente.setNumero(valor);
+                case "complemento" -> cliente.setComplemento(valor);
+                case "bairro" -> cliente.setBairro(valor);
+                case "cidade" -> cliente.setCidade(valor);
+                case "estado" -> cliente.setEstado(valor);
+                case "telefone" -> cliente.setTelefone(valor);
+                default -> throw new IllegalArgumentException(campo);
+            }
+        });
+
+        try {
+            clienteRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw DuplicidadeClienteTradutor.traduzir(e);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersaoDesatualizada();
+        }
+        // Só depois do commit: invalidado antes, um GET no meio carregaria a linha antiga de volta para o cache.
+        Long codigoCliente = cliente.getCodigoCliente();
+        String emailAtual = cliente.getEmail();
+        String nome = cliente.getNome(), cidade = cliente.getCidade(), estado = cliente.getEstado();
+        depoisDoCommit(() -> {
+            clienteCache.remover(codigoCliente, emailAnterior, emailAtual);
+            buscaClientes.indexar(codigoCliente, nome, cidade, estado);
+        });
+        return cliente.toDto();
+    }
+
+    private static void depoisDoCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    // Sem carregar o cliente: o DELETE devolve quantas linhas removeu e zero significa que ele não existe.
+    // O cache por email confere o email do DTO guardado pelo código, então basta invalidar o código.
     public void excluirClientePorCodigo(Long codigoCliente) throws BusinessException {
-        ClienteEntity cliente = findByCodigoCliente(codigoCliente);
-        
-        validarSeClientePossuiPedidos(codigoCliente);
-        
-        clienteRepository.delete(cliente);
+        clienteMetricas.medir("excluirClientePorCodigo", () -> {
+            validarExistente(codigoCliente, () -> validarSeClientePossuiPedidos(codigoCliente));
+
+            if (clienteRepository.excluirPorCodigo(codigoCliente) == 0) {
+                throw naoEncontrado(codigoCliente);
+            }
+            clienteCache.remover(codigoCliente);
+            buscaClientes.remover(codigoCliente);
+            return null;
+        });
     }
 
 	private void validarSeClientePossuiPedidos(Long codigoCliente) throws BusinessException {
-		if(pedidoConsumerFeignClient.clientePossuiPedidos(codigoCliente).get("possui-pedidos")) {
-        	throw new BusinessException("O Cliente não pode ser excluido pois possui pedidos realizados");
+		if(pedidoConsumer.clientePossuiPedidos(codigoCliente)) {
+        	throw new BusinessException(POSSUI_PEDIDOS);
         }
 	}
 
+    // O serviço de pedidos é consultado pelo código, então o email é resolvido antes, lendo só essa coluna.
     public void excluirClientePorEmail(String email) throws BusinessException {
-        ClienteEntity cliente = findByEmail(email);
-        
-        validarSeClientePossuiPedidos(cliente.getCodigoCliente());
-        
-        clienteRepository.delete(cliente);
+        clienteMetricas.medir("excluirClientePorEmail", () -> {
+            Long codigoCliente = clienteRepository.findCodigoClienteByEmailNormalizado(Email.normalizar(email));
+            if (codigoCliente == null) {
+                throw naoEncontrado(email);
+            }
+
+            validarSeClientePossuiPedidos(codigoCliente);
+
+            if (clienteRepository.excluirPorCodigo(codigoCliente) == 0) {
+                throw naoEncontrado(email);
+            }
+            clienteCache.remover(codigoCliente, email);
+            buscaClientes.remover(codigoCliente);
+            return null;
+        });
+    }
+
+    public ClienteExclusaoLoteDtoResponse excluirClientesEmLote(List<Long> codigosClientes) throws BusinessException {
+        return clienteMetricas.medir("excluirClientesEmLote", () -> {
+            if (codigosClientes == null || codigosClientes.isEmpty()) throw new BusinessException("Nenhum cliente informado.");
+            if (codigosClientes.size() > TAMANHO_LOTE_EXCLUSAO_MAXIMO)
+                throw new BusinessException("O lote pode ter no máximo " + TAMANHO_LOTE_EXCLUSAO_MAXIMO + " clientes.");
+
+            List<Long> codigos = codigosClientes.stream().filter(Objects::nonNull).distinct().toList();
+            List<ClienteExclusaoLoteItemDtoResponse> resultados = new ArrayList<>(codigos.size());
+            for (int inicio = 0; inicio < codigos.size(); inicio += LOTE_EXCLUSAO) {
+                excluirBloco(codigos.subList(inicio, Math.min(inicio + LOTE_EXCLUSAO, codigos.size())), resultados);
+            }
+
+            int excluidos = (int) resultados.stream().filter(ClienteExclusaoLoteItemDtoResponse::excluido).count();
+            return new ClienteExclusaoLoteDtoResponse(resultados.size(), excluidos, resultados.size() - excluidos, resultados);
+        });
+    }
+
+    // Por bloco: uma consulta à base, uma chamada ao serviço de pedidos e um único DELETE ... WHERE id IN (...).
+    private void excluirBloco(List<Long> bloco, List<ClienteExclusaoLoteItemDtoResponse> resultados) {
+        Map<Long, String> emails = new HashMap<>();
+        clienteRepository.findCodigoEmailByCodigoClienteIn(bloco)
+                .forEach(cliente -> emails.put(cliente.getCodigoCliente(), cliente.getEmail()));
+
+        Map<Long, Boolean> pedidos = Map.of();
+        String falhaPedidos = null;
+        if (!emails.isEmpty()) {
+            try {
+                pedidos = pedidoConsumer.clientesPossuemPedidos(emails.keySet());
+            } catch (BusinessException e) {
+                falhaPedidos = e.getMessage();
+            }
+        }
+
+        List<Long> semPedidos = new ArrayList<>();
+        for (Long codigo : bloco) {
+            Boolean possuiPedidos = pedidos.get(codigo);
+            if (!emails.containsKey(codigo)) {
+                resultados.add(ClienteExclusaoLoteItemDtoResponse.mantido(codigo, "Cliente não encontrado."));
+            } else if (falhaPedidos != null) {
+                resultados.add(ClienteExclusaoLoteItemDtoResponse.mantido(codigo, falhaPedidos));
+            } else if (possuiPedidos == null) {
+                resultados.add(ClienteExclusaoLoteItemDtoResponse.mantido(codigo, "Serviço de pedidos não informou se o cliente possui pedidos."));
+            } else if (possuiPedidos) {
+                resultados.add(ClienteExclusaoLoteItemDtoResponse.mantido(codigo, POSSUI_PEDIDOS));
+            } else {
+                semPedidos.add(codigo);
+                resultados.add(ClienteExclusaoLoteItemDtoResponse.excluido(codigo));
+            }
+        }
+
+        if (!semPedidos.isEmpty()) {
+            clienteRepository.deleteAllByIdInBatch(semPedidos);
+            semPedidos.forEach(codigo -> {
+                clienteCache.remover(codigo, emails.get(codigo));
+                buscaClientes.remover(codigo);
+            });
+        }
     }
 }
@@ -0,0 +1,128 @@
+package com.fiap.techchallenger4.mscliente.domain.services;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import br.com.fiap.estrutura.exception.EntidadeNaoEncontrada;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumerReativo;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepositoryReativo;
+import com.fiap.techchallenger4.mscliente.domain.validation.ClienteValidador;
+import com.fiap.techchallenger4.mscliente.infra.busca.BuscaClientes;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Contraparte reativa do {@link ClienteService}, com as mesmas regras e mensagens: validação pelo
+ * {@link ClienteValidador}, mapeamento por {@link ClienteDtoRequest#toEntity()} e {@link ClienteEntity#toDto()}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ClienteServiceReativo {
+
+    private final ClienteRepositoryReativo clienteRepository;
+    private final PedidoConsumerReativo pedidoConsumer;
+    private final BuscaClientes buscaClientes;
+
+    public ClienteServiceReativo(ClienteRepositoryReativo clienteRepository, PedidoConsumerReativo pedidoConsumer,
+                                 BuscaClientes buscaClientes) {
+        this.clienteRepository = clienteRepository;
+        this.pedidoConsumer = pedidoConsumer;
+        this.buscaClientes = buscaClientes;
+    }
+
+    private Mono<ClienteEntity> findByCodigoCliente(Long codigoCliente) {
+        return clienteRepository.buscarPorCodigo(codigoCliente)
+                .switchIfEmpty(Mono.error(() -> new EntidadeNaoEncontrada("Cliente com código " + codigoCliente + " não encontrado")));
+    }
+
+    private Mono<ClienteEntity> findByEmail(String email) {
+        return clienteRepository.buscarPorEmail(email)
+                .switchIfEmpty(Mono.error(() -> new EntidadeNaoEncontrada("Cliente com Email " + email + " não encontrado")));
+    }
+
+    private static Mono<ClienteEntity> validar(ClienteDtoRequest clienteDto) {
+        return Mono.fromCallable(() -> {
+            ClienteValidador.validar(clienteDto);
+            return clienteDto.toEntity();
+        });
+    }
+
+    private void indexar(ClienteEntity cliente) {
+        buscaClientes.indexar(cliente.getCodigoCliente(), cliente.getNome(), cliente.getCidade(), cliente.getEstado());
+    }
+
+    private static Mono<ClienteEntity> traduzirDuplicidade(Mono<ClienteEntity> operacao) {
+        return operacao.onErrorMap(DataIntegrityViolationException.class, DuplicidadeClienteTradutor::traduzir);
+    }
+
+    public Flux<ClienteDtoResponse> listarClientes() {
+        return clienteRepository.listar().map(ClienteEntity::toDto);
+    }
+
+    public Mono<ClienteDtoResponse> buscarClientePorCodigo(Long codigoCliente) {
+        return findByCodigoCliente(codigoCliente).map(ClienteEntity::toDto);
+    }
+
+    public Mono<ClienteDtoResponse> buscarClientePorEmail(String email) {
+        return findByEmail(email).map(ClienteEntity::toDto);
+    }
+
+    public Mono<ClienteDtoResponse> cadastrarCliente(ClienteDtoRequest cliente) {
+        return validar(cliente)
+                .flatMap(novoCliente -> traduzirDuplicidade(clienteRepository.inserir(novoCliente)))
+                .doOnNext(this::indexar)
+                .map(ClienteEntity::toDto);
+    }
+
+    public Mono<ClienteDtoResponse> atualizarClientePorCodigo(Long codigoCliente, ClienteDtoRequest clienteDto, String seCorresponder) {
+        return atualizar(findByCodigoCliente(codigoCliente), clienteDto, seCorresponder,
+                () -> new EntidadeNaoEncontrada("Cliente com código " + codigoCliente + " não encontrado"));
+    }
+
+    public Mono<ClienteDtoResponse> atualizarClientePorEmail(String email, ClienteDtoRequest clienteDto, String seCorresponder) {
+        return atualizar(findByEmail(email), clienteDto, seCorresponder,
+                () -> new EntidadeNaoEncontrada("Cliente com Email " + email + " não encontrado"));
+    }
+
+    // O UPDATE é sempre pelo código do cliente lido; a versão só é conferida no banco quando veio If-Match.
+    private Mono<ClienteDtoResponse> atualizar(Mono<ClienteEntity> cliente, ClienteDtoRequest clienteDto, String seCorresponder,
+                                               Supplier<EntidadeNaoEncontrada> naoEncontrado) {
+        return cliente
+                .flatMap(existente -> Mono.fromCallable(() -> {
+                    ClienteService.conferirVersao(existente, seCorresponder);
+                    return existente;
+                }))
+                .zipWhen(existente -> validar(clienteDto), (existente, atualizado) -> {
+                    atualizado.setCodigoCliente(existente.getCodigoCliente());
+                    atualizado.setDataCriacao(existente.getDataCriacao());
+                    atualizado.setVersao(existente.getVersao());
+                    return atualizado;
+                })
+                .flatMap(atualizado -> traduzirDuplicidade(clienteRepository.atualizar(atualizado, ClienteService.exigeVersao(seCorresponder))))
+                .switchIfEmpty(Mono.error(naoEncontrado))
+                .doOnNext(this::indexar)
+                .map(ClienteEntity::toDto);
+    }
+
+    public Mono<Void> excluirClientePorCodigo(Long codigoCliente) {
+        return findByCodigoCliente(codigoCliente).flatMap(this::excluir);
+    }
+
+    public Mono<Void> excluirClientePorEmail(String email) {
+        return findByEmail(email).flatMap(this::excluir);
+    }
+
+    private Mono<Void> excluir(ClienteEntity cliente) {
+        return pedidoConsumer.clientePossuiPedidos(cliente.getCodigoCliente())
+                .flatMap(possuiPedidos -> possuiPedidos
+                        ? Mono.<Void>error(new BusinessException(ClienteService.POSSUI_PEDIDOS))
+                        : clienteRepository.excluir(cliente.getCodigoCliente())
+                                .then(Mono.fromRunnable(() -> buscaClientes.remover(cliente.getCodigoCliente()))));
+    }
+}
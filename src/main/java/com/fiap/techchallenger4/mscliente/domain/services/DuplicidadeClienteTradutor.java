@@ -0,0 +1,39 @@
+package com.fiap.techchallenger4.mscliente.domain.services;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Converte a violação dos índices únicos de {@code clientes} nas mesmas mensagens de negócio
+ * que a verificação prévia de duplicidade devolvia.
+ */
+final class DuplicidadeClienteTradutor {
+
+    private DuplicidadeClienteTradutor() {
+    }
+
+    static BusinessException traduzir(DataIntegrityViolationException e) {
+        String restricao = nomeDaRestricao(e);
+        if (restricao.contains(ClienteEntity.UK_CPF)) return new BusinessException("CPF já cadastrado.");
+        if (restricao.contains(ClienteEntity.UK_EMAIL) || restricao.contains(ClienteEntity.UK_EMAIL_ANTIGO)) {
+            return new BusinessException("Email já cadastrado.");
+        }
+        throw e;
+    }
+
+    private static String nomeDaRestricao(DataIntegrityViolationException e) {
+        // O nome vem do Hibernate quando o dialeto consegue extraí-lo; a mensagem do driver fica como reserva.
+        String nome = "";
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+                nome = violacao.getConstraintName();
+                break;
+            }
+        }
+        return (nome + " " + e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,170 @@
+package com.fiap.techchallenger4.mscliente.domain.validation;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validação única de {@link ClienteDtoRequest}. Os formatos fixos (CPF, email, CEP e telefone) são conferidos
+ * caractere a caractere, sem {@code Pattern}, e todas as violações são reunidas numa só passada.
+ * O CPF também tem os dígitos verificadores conferidos (ver {@link Cpf}).
+ */
+public final class ClienteValidador {
+
+    private ClienteValidador() {
+    }
+
+    public static final List<String> CAMPOS = List.of("nome", "cpf", "email", "cep", "logradouro", "numero",
+            "complemento", "bairro", "cidade", "estado", "telefone");
+
+    public static void validar(ClienteDtoRequest dto) throws BusinessException {
+        lancar(violacoes(dto));
+    }
+
+    /**
+     * Atualização parcial: confere só os campos presentes no mapa, com as mesmas regras e mensagens do cadastro.
+     */
+    public static void validarCampos(Map<String, String> campos) throws BusinessException {
+        List<String> violacoes = List.of();
+        for (String campo : campos.keySet()) {
+            if (!CAMPOS.contains(campo)) violacoes = adicionar(violacoes, "Campo " + campo + " não pode ser alterado.");
+        }
+        for (String campo : CAMPOS) {
+            if (!campos.containsKey(campo)) continue;
+            String violacao = violacao(campo, campos.get(campo));
+            if (violacao != null) violacoes = adicionar(violacoes, violacao);
+        }
+        lancar(violacoes);
+    }
+
+    /**
+     * Devolve as mensagens na ordem dos campos do DTO; lista vazia (sem alocação) quando o cliente é válido.
+     */
+    public static List<String> violacoes(ClienteDtoRequest dto) {
+        List<String> violacoes = List.of();
+        violacoes = verificar(violacoes, "nome", dto.nome());
+        violacoes = verificar(violacoes, "cpf", dto.cpf());
+        violacoes = verificar(violacoes, "email", dto.email());
+        violacoes = verificar(violacoes, "cep", dto.cep());
+        violacoes = verificar(violacoes, "logradouro", dto.logradouro());
+        violacoes = verificar(violacoes, "numero", dto.numero());
+        violacoes = verificar(violacoes, "bairro", dto.bairro());
+        violacoes = verificar(violacoes, "cidade", dto.cidade());
+        violacoes = verificar(violacoes, "estado", dto.estado());
+        return verificar(violacoes, "telefone", dto.telefone());
+    }
+
+    private static List<String> verificar(List<String> violacoes, String campo, String valor) {
+        String violacao = violacao(campo, valor);
+        return violacao == null ? violacoes : adicionar(violacoes, violacao);
+    }
+
+    private static String violacao(String campo, String valor) {
+        return switch (campo) {
+            case "nome" -> vazio(valor) ? "Nome não pode ser vazio." : null;
+            case "cpf" -> Cpf.valido(valor) ? null : "CPF inválido ou vazio. Deve estar no formato XXX.XXX.XXX-XX.";
+            case "email" -> emailValido(valor) ? null : "Email inválido ou vazio. Formato esperado: exemplo@dominio.com";
+            case "cep" -> cepValido(valor) ? null : "CEP inválido ou vazio. Deve estar no formato XXXXX-XXX.";
+            case "logradouro" -> vazio(valor) ? "Logradouro não pode ser vazio." : null;
+            case "numero" -> vazio(valor) ? "Número não pode ser vazio." : null;
+            case "bairro" -> vazio(valor) ? "Bairro não pode ser vazio." : null;
+            case "cidade" -> vazio(valor) ? "Cidade não pode ser vazia." : null;
+            case "estado" -> vazio(valor) ? "Estado não pode ser vazio." : null;
+            case "telefone" -> telefoneValido(valor) ? null : "Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX.";
+            default -> null;
+        };
+    }
+
+    private static void lancar(List<String> violacoes) throws BusinessException {
+        if (!violacoes.isEmpty()) throw new BusinessException(String.join(" ", violacoes));
+    }
+
+    private static List<String> adicionar(List<String> violacoes, String mensagem) {
+        List<String> lista = violacoes.isEmpty() ? new ArrayList<>(4) : violacoes;
+        lista.add(mensagem);
+        return lista;
+    }
+
+    static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    /** XXXXX-XXX */
+    static boolean cepValido(String cep) {
+        if (cep == null || cep.length() != 9) return false;
+        for (int i = 0; i < 9; i++) {
+            char c = cep.charAt(i);
+            if (i == 5 ? c != '-' : !digito(c)) return false;
+        }
+        return true;
+    }
+
+    /** (XX) XXXX-XXXX ou (XX) 9XXXX-XXXX */
+    static boolean telefoneValido(String telefone) {
+        if (telefone == null) return false;
+        int tamanho = telefone.length();
+        if (tamanho != 14 && tamanho != 15) return false;
+        if (telefone.charAt(0) != '(' || !digito(telefone.charAt(1)) || !digito(telefone.charAt(2))
+                || telefone.charAt(3) != ')' || telefone.charAt(4) != ' ') return false;
+
+        int i = 5;
+        if (tamanho == 15 && telefone.charAt(i++) != '9') return false;
+        for (int fim = i + 4; i < fim; i++) {
+            if (!digito(telefone.charAt(i))) return false;
+        }
+        if (telefone.charAt(i++) != '-') return false;
+        for (; i < tamanho; i++) {
+            if (!digito(telefone.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Mesmo contrato da expressão usada antes: {@code [a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,6}}.
+     * O sufixo só tem letras, então o separador é sempre o último ponto do domínio.
+     */
+    static boolean emailValido(String email) {
+        if (email == null) return false;
+        int tamanho = email.length();
+        int arroba = -1;
+        int ultimoPonto = -1;
+        for (int i = 0; i < tamanho; i++) {
+            char c = email.charAt(i);
+            if (arroba < 0) {
+                if (c == '@') {
+                    if (i == 0) return false;
+                    arroba = i;
+                } else if (!alfanumerico(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                    return false;
+                }
+            } else if (c == '.') {
+                ultimoPonto = i;
+            } else if (!alfanumerico(c) && c != '-') {
+                return false;
+            }
+        }
+        if (arroba < 0 || ultimoPonto <= arroba + 1) return false;
+
+        int sufixo = tamanho - ultimoPonto - 1;
+        if (sufixo < 2 || sufixo > 6) return false;
+        for (int i = ultimoPonto + 1; i < tamanho; i++) {
+            if (!letra(email.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean digito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean letra(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean alfanumerico(char c) {
+        return letra(c) || digito(c);
+    }
+}
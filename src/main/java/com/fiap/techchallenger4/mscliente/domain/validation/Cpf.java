@@ -0,0 +1,89 @@
+package com.fiap.techchallenger4.mscliente.domain.validation;
+
+/**
+ * Forma canônica do CPF: os 11 dígitos como {@code long}, que é o que vai para a coluna indexada.
+ * A entrada pode vir pontuada (XXX.XXX.XXX-XX) ou só com dígitos; a saída da API continua pontuada.
+ */
+public final class Cpf {
+
+    private static final long MAXIMO = 99_999_999_999L;
+
+    private Cpf() {
+    }
+
+    public static boolean valido(String cpf) {
+        return paraNumeroOuNegativo(cpf) >= 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException se o CPF não tiver formato ou dígitos verificadores válidos;
+     *                                  chamar depois do {@link ClienteValidador}.
+     */
+    public static long paraNumero(String cpf) {
+        long numero = paraNumeroOuNegativo(cpf);
+        if (numero < 0) throw new IllegalArgumentException("CPF inválido: " + cpf);
+        return numero;
+    }
+
+    public static String formatar(Long cpf) {
+        if (cpf == null) return null;
+        if (cpf < 0 || cpf > MAXIMO) throw new IllegalArgumentException("CPF fora da faixa: " + cpf);
+
+        char[] texto = new char[14];
+        long resto = cpf;
+        for (int i = 13; i >= 0; i--) {
+            if (i == 11) {
+                texto[i] = '-';
+            } else if (i == 3 || i == 7) {
+                texto[i] = '.';
+            } else {
+                texto[i] = (char) ('0' + resto % 10);
+                resto /= 10;
+            }
+        }
+        return new String(texto);
+    }
+
+    private static long paraNumeroOuNegativo(String cpf) {
+        if (cpf == null) return -1;
+        boolean pontuado = cpf.length() == 14;
+        if (!pontuado && cpf.length() != 11) return -1;
+
+        // Acumula o número e as duas somas ponderadas dos dígitos verificadores na mesma passada.
+        long numero = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int digitos = 0;
+        boolean repetido = true;
+        char primeiro = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (pontuado && (i == 3 || i == 7)) {
+                if (c != '.') return -1;
+                continue;
+            }
+            if (pontuado && i == 11) {
+                if (c != '-') return -1;
+                continue;
+            }
+            if (c < '0' || c > '9') return -1;
+
+            int d = c - '0';
+            if (digitos == 0) primeiro = c;
+            else if (c != primeiro) repetido = false;
+            if (digitos < 9) soma1 += d * (10 - digitos);
+            if (digitos < 10) soma2 += d * (11 - digitos);
+            if (digitos == 9 && d != digitoVerificador(soma1)) return -1;
+            if (digitos == 10 && d != digitoVerificador(soma2)) return -1;
+            numero = numero * 10 + d;
+            digitos++;
+        }
+        // Sequências como 111.111.111-11 passam na conta, mas não são CPFs emitidos.
+        return repetido ? -1 : numero;
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+}
@@ -0,0 +1,17 @@
+package com.fiap.techchallenger4.mscliente.domain.validation;
+
+import java.util.Locale;
+
+/**
+ * Forma canônica do email: sem espaços nas pontas e em minúsculas, que é o que vai para a coluna indexada.
+ * A coluna {@code email} continua com o valor como foi informado, que é o devolvido pela API.
+ */
+public final class Email {
+
+    private Email() {
+    }
+
+    public static String normalizar(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
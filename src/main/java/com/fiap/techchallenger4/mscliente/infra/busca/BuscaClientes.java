@@ -0,0 +1,34 @@
+package com.fiap.techchallenger4.mscliente.infra.busca;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Busca de clientes por parte do nome (por prefixo de palavra ou aproximada, tolerando erros de digitação),
+ * início da cidade e UF. Devolve os códigos já ordenados por relevância e depois pelo código; quem chama
+ * carrega os clientes. Os filtros nulos são ignorados, mas ao menos um vem preenchido.
+ * <p>
+ * No Postgres a busca é feita pelos índices GIN e GiST do pg_trgm ({@link BuscaClientesPostgres}); no H2 do profile
+ * local, por um índice em memória ({@link BuscaClientesMemoria}), que o {@code ClienteService} mantém a cada
+ * cadastro, alteração e exclusão, da mesma forma que o cache.
+ */
+public interface BuscaClientes {
+
+    // Teto de clientes ordenados por relevância numa busca por nome no índice em memória, já com cidade e UF
+    // aplicadas: um termo muito comum não faz a busca ordenar a base inteira.
+    int CANDIDATOS_MAXIMOS = 10_000;
+
+    List<Long> buscar(String nome, String cidade, String estado, int inicio, int quantidade);
+
+    default void indexar(Long codigoCliente, String nome, String cidade, String estado) {
+    }
+
+    default void remover(Long codigoCliente) {
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) return null;
+        String normalizado = texto.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalizado.isEmpty() ? null : normalizado;
+    }
+}
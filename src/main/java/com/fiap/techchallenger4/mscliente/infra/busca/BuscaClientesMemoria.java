@@ -0,0 +1,196 @@
+package com.fiap.techchallenger4.mscliente.infra.busca;
+
+import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória para o H2 do profile local, que não tem pg_trgm. As palavras do nome ficam em um mapa
+ * ordenado (prefixo de palavra vira um intervalo do mapa) e cada trigrama aponta para as palavras distintas
+ * que o contêm, o que permite achar palavras parecidas sem percorrer os clientes. Carregado da base na subida
+ * e mantido pelo {@code ClienteService}.
+ */
+@Component
+@Profile("local")
+public class BuscaClientesMemoria implements BuscaClientes, ApplicationRunner {
+
+    // Mesmo corte padrão de similaridade do pg_trgm.
+    private static final double SIMILARIDADE_MINIMA = 0.3;
+    private static final double PESO_PALAVRA_INTEIRA = 1.0;
+    private static final double PESO_PREFIXO = 0.9;
+    private static final double PESO_APROXIMADA = 0.8;
+
+    private final ClienteRepository clienteRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Em ordem de código: as buscas sem nome param assim que juntam a página pedida.
+    private final ConcurrentSkipListMap<Long, Registro> registros = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> clientesPorPalavra = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Set<String>> palavrasPorTrigrama = new ConcurrentHashMap<>();
+
+    private record Registro(String[] palavras, String cidade, String estado) {
+    }
+
+    public BuscaClientesMemoria(ClienteRepository clienteRepository, TransactionTemplate transactionTemplate) {
+        this.clienteRepository = clienteRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        recarregar();
+    }
+
+    public void recarregar() {
+        registros.keySet().forEach(this::remover);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ClienteRepository.ClienteBuscavel> clientes = clienteRepository.streamParaBusca()) {
+                clientes.forEach(cliente -> indexar(cliente.getCodigoCliente(), cliente.getNome(), cliente.getCidade(), cliente.getEstado()));
+            }
+        });
+    }
+
+    @Override
+    public synchronized void indexar(Long codigoCliente, String nome, String cidade, String estado) {
+        remover(codigoCliente);
+        String nomeNormalizado = BuscaClientes.normalizar(nome);
+        String[] palavras = nomeNormalizado == null ? new String[0] : nomeNormalizado.split(" ");
+        for (int i = 0; i < palavras.length; i++) {
+            String palavra = palavras[i].intern();
+            palavras[i] = palavra;
+            clientesPorPalavra.computeIfAbsent(palavra, p -> {
+                for (String trigrama : trigramas(p)) {
+                    palavrasPorTrigrama.computeIfAbsent(trigrama, t -> ConcurrentHashMap.newKeySet()).add(p);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(codigoCliente);
+        }
+        String cidadeNormalizada = BuscaClientes.normalizar(cidade);
+        registros.put(codigoCliente, new Registro(palavras, cidadeNormalizada == null ? null : cidadeNormalizada.intern(),
+                estado == null ? null : estado.trim().toUpperCase(Locale.ROOT).intern()));
+    }
+
+    // Palavras que ficam sem clientes continuam no mapa: não atrapalham a busca e costumam voltar a ser usadas.
+    @Override
+    public synchronized void remover(Long codigoCliente) {
+        Registro registro = registros.remove(codigoCliente);
+        if (registro == null) return;
+        for (String palavra : registro.palavras()) {
+            Set<Long> clientes = clientesPorPalavra.get(palavra);
+            if (clientes != null) clientes.remove(codigoCliente);
+        }
+    }
+
+    @Override
+    public List<Long> buscar(String nome, String cidade, String estado, int inicio, int quantidade) {
+        String cidadeBuscada = BuscaClientes.normalizar(cidade);
+        String estadoBuscado = estado == null ? null : estado.trim().toUpperCase(Locale.ROOT);
+        Predicate<Registro> filtro = registro -> registro != null
+                && (cidadeBuscada == null || registro.cidade() != null && registro.cidade().startsWith(cidadeBuscada))
+                && (estadoBuscado == null || estadoBuscado.equals(registro.estado()));
+
+        String nomeBuscado = BuscaClientes.normalizar(nome);
+        if (nomeBuscado == null) {
+            return registros.entrySet().stream()
+                    .filter(entrada -> filtro.test(entrada.getValue()))
+                    .skip(inicio).limit(quantidade)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        // Cada termo precisa casar com alguma palavra do nome; a relevância é a soma das notas dos termos. Cidade e UF
+        // entram antes do teto de candidatos, e a partir do segundo termo só contam os clientes que casaram com os
+        // anteriores, começando pelo termo mais raro: o teto só corta quando o próprio termo mais raro é comum.
+        Map<Long, Double> pontuacoes = null;
+        List<String> termos = Stream.of(nomeBuscado.split(" ")).sorted(Comparator.comparingInt(this::estimarCandidatos)).toList();
+        for (String termo : termos) {
+            Map<Long, Double> anteriores = pontuacoes;
+            Predicate<Long> candidato = anteriores == null ? codigo -> filtro.test(registros.get(codigo)) : anteriores::containsKey;
+            Map<Long, Double> doTermo = pontuar(termo, candidato);
+            if (anteriores != null) {
+                doTermo.replaceAll((codigo, pontuacao) -> pontuacao + anteriores.get(codigo));
+            }
+            pontuacoes = doTermo;
+            if (pontuacoes.isEmpty()) return List.of();
+        }
+        return pontuacoes.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .skip(inicio).limit(quantidade)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // Clientes com alguma palavra começando pelo termo, contados até o teto; a parte aproximada não entra na conta.
+    private int estimarCandidatos(String termo) {
+        int clientes = 0;
+        for (Set<Long> daPalavra : clientesPorPalavra.subMap(termo, termo + Character.MAX_VALUE).values()) {
+            clientes += daPalavra.size();
+            if (clientes >= CANDIDATOS_MAXIMOS) break;
+        }
+        return clientes;
+    }
+
+    private Map<Long, Double> pontuar(String termo, Predicate<Long> candidato) {
+        Map<Long, Double> pontuacoes = new HashMap<>();
+        // Prefixo de palavra: "silv" acha "silva" e "silveira", e a palavra inteira vale mais.
+        for (Map.Entry<String, Set<Long>> entrada : clientesPorPalavra.subMap(termo, termo + Character.MAX_VALUE).entrySet()) {
+            double pontuacao = entrada.getKey().length() == termo.length() ? PESO_PALAVRA_INTEIRA : PESO_PREFIXO;
+            if (acumular(pontuacoes, entrada.getValue(), candidato, pontuacao)) return pontuacoes;
+        }
+
+        // Aproximada: palavras com trigramas suficientes em comum, para erros de digitação ("olivera" acha "oliveira").
+        Set<String> trigramasTermo = trigramas(termo);
+        Map<String, Integer> emComum = new HashMap<>();
+        for (String trigrama : trigramasTermo) {
+            for (String palavra : palavrasPorTrigrama.getOrDefault(trigrama, Set.of())) {
+                emComum.merge(palavra, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<String, Integer> entrada : emComum.entrySet()) {
+            String palavra = entrada.getKey();
+            if (palavra.startsWith(termo)) continue;
+            int comuns = entrada.getValue();
+            double similaridade = comuns / (double) (trigramasTermo.size() + trigramas(palavra).size() - comuns);
+            if (similaridade >= SIMILARIDADE_MINIMA
+                    && acumular(pontuacoes, clientesPorPalavra.getOrDefault(palavra, Set.of()), candidato, PESO_APROXIMADA * similaridade)) {
+                return pontuacoes;
+            }
+        }
+        return pontuacoes;
+    }
+
+    // true quando o teto de candidatos foi atingido.
+    private static boolean acumular(Map<Long, Double> pontuacoes, Set<Long> clientes, Predicate<Long> candidato, double pontuacao) {
+        for (Long codigo : clientes) {
+            if (!candidato.test(codigo)) continue;
+            pontuacoes.merge(codigo, pontuacao, Math::max);
+            if (pontuacoes.size() >= CANDIDATOS_MAXIMOS) return true;
+        }
+        return false;
+    }
+
+    // Como o pg_trgm: dois espaços antes e um depois da palavra, então o início dela pesa mais que o fim.
+    private static Set<String> trigramas(String palavra) {
+        String texto = "  " + palavra + " ";
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+}
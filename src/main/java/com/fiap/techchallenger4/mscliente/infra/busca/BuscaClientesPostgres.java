@@ -0,0 +1,97 @@
+package com.fiap.techchallenger4.mscliente.infra.busca;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Busca pelo pg_trgm: os índices GIN de trigramas atendem tanto o ILIKE '%parte%' quanto o operador {@code <%}
+ * (similaridade por palavra, que tolera erros de digitação), e a ordenação usa a mesma similaridade, lida já em
+ * ordem do índice GiST pela distância {@code <<->}.
+ * O SQL é montado só com os filtros informados, para que cada combinação tenha o próprio plano com índice
+ * em vez de um plano genérico com {@code :filtro IS NULL OR ...}.
+ */
+@Slf4j
+@Component
+@Profile("!local")
+public class BuscaClientesPostgres implements BuscaClientes, ApplicationRunner {
+
+    // CREATE INDEX sem CONCURRENTLY para rodar dentro da transação; só constrói o índice na primeira subida.
+    private static final String[] INDICES = {
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS ix_clientes_nome_trgm ON clientes USING gin (nome gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS ix_clientes_nome_trgm_gist ON clientes USING gist (nome gist_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS ix_clientes_cidade_trgm ON clientes USING gin (cidade gin_trgm_ops)"
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BuscaClientesPostgres(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String ddl : INDICES) jdbcTemplate.getJdbcTemplate().execute(ddl);
+            });
+        } catch (DataAccessException e) {
+            log.warn("Índices de busca por trigramas não criados; a busca de clientes vai ler a tabela inteira", e);
+        }
+    }
+
+    @Override
+    public List<Long> buscar(String nome, String cidade, String estado, int inicio, int quantidade) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("inicio", inicio)
+                .addValue("quantidade", quantidade);
+        List<String> filtros = new ArrayList<>();
+        nome = BuscaClientes.normalizar(nome);
+        cidade = BuscaClientes.normalizar(cidade);
+        if (nome != null) {
+            filtros.add("(nome ILIKE :nomeContem OR :nome <% nome)");
+            parametros.addValue("nome", nome).addValue("nomeContem", "%" + escaparLike(nome) + "%");
+        }
+        if (cidade != null) {
+            filtros.add("cidade ILIKE :cidade");
+            parametros.addValue("cidade", escaparLike(cidade) + "%");
+        }
+        if (estado != null) {
+            filtros.add("estado = :estado");
+            parametros.addValue("estado", estado.trim().toUpperCase(Locale.ROOT));
+        }
+
+        String sql;
+        if (nome != null) {
+            // O índice GiST entrega as linhas já da mais para a menos parecida (KNN pela distância <<->, que é
+            // 1 - word_similarity), então a subconsulta para nas posições até o fim da página pedida, sem ler e
+            // ordenar todos os clientes que casam com um termo comum. O WITH TIES traz junto os empatados com a
+            // última dessas linhas: a ordem por código entre eles não depende de onde o índice parou.
+            sql = "SELECT codigo_cliente FROM (SELECT codigo_cliente, :nome <<-> nome AS distancia FROM clientes WHERE "
+                    + String.join(" AND ", filtros) + " ORDER BY :nome <<-> nome FETCH FIRST :posicoes ROWS WITH TIES) candidatos"
+                    + " ORDER BY distancia, codigo_cliente OFFSET :inicio LIMIT :quantidade";
+            parametros.addValue("posicoes", inicio + quantidade);
+        } else {
+            sql = "SELECT codigo_cliente FROM clientes WHERE " + String.join(" AND ", filtros)
+                    + " ORDER BY codigo_cliente OFFSET :inicio LIMIT :quantidade";
+        }
+        return jdbcTemplate.queryForList(sql, parametros, Long.class);
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
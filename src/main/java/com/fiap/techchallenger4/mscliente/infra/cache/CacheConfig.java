@@ -0,0 +1,12 @@
+package com.fiap.techchallenger4.mscliente.infra.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String CLIENTES_POR_CODIGO = "clientesPorCodigo";
+    public static final String CLIENTES_POR_EMAIL = "clientesPorEmail";
+    public static final String CONTAGENS_CLIENTES = "contagensClientes";
+}
@@ -0,0 +1,124 @@
+package com.fiap.techchallenger4.mscliente.infra.cache;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import br.com.fiap.estrutura.utils.GerarResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagensDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.validation.Email;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache de leitura dos clientes. O DTO fica guardado uma única vez, pelo código;
+ * o cache por email guarda só o código correspondente, então uma alteração invalidada
+ * pelo código nunca deixa uma cópia antiga do cliente esquecida na chave de email.
+ * A chave por email é a forma normalizada, a mesma das buscas no banco.
+ * <p>
+ * Uma leitura do banco iniciada antes de uma alteração não deixa a versão antiga no cache: cada invalidação soma um
+ * contador da faixa da chave, e a carga que viu o contador mudar enquanto lia o banco descarta o que gravou.
+ * A leitura do banco roda fora de qualquer lock do cache, então não prende a thread de plataforma de uma virtual
+ * thread nem faz esperar as cargas de outras chaves.
+ * <p>
+ * As contagens dos painéis ficam em uma única entrada, descartada a cada cadastro, alteração ou exclusão:
+ * entre uma mudança e outra, cada atualização do painel é uma leitura do cache.
+ */
+@Component
+public class ClienteCache {
+
+    private static final String CONTAGENS = "todos";
+    private static final int FAIXAS = 1024;
+
+    private final Cache porCodigo;
+    private final Cache porEmail;
+    private final Cache contagens;
+    private final AtomicLongArray invalidacoes = new AtomicLongArray(FAIXAS);
+
+    public ClienteCache(CacheManager cacheManager) {
+        this.porCodigo = cacheManager.getCache(CacheConfig.CLIENTES_POR_CODIGO);
+        this.porEmail = cacheManager.getCache(CacheConfig.CLIENTES_POR_EMAIL);
+        this.contagens = cacheManager.getCache(CacheConfig.CONTAGENS_CLIENTES);
+    }
+
+    public ClienteDtoResponse buscarPorCodigo(Long codigoCliente, GerarResponse<ClienteDtoResponse> carregar) throws BusinessException {
+        return carregar(porCodigo, codigoCliente, ClienteDtoResponse.class, () -> {
+            ClienteDtoResponse cliente = carregar.get();
+            // Um código antigo nesta chave é descartado na leitura (o email tem que bater), então gravá-lo nunca é arriscado.
+            if (cliente.email() != null) porEmail.put(Email.normalizar(cliente.email()), codigoCliente);
+            return cliente;
+        });
+    }
+
+    public ClienteDtoResponse buscarPorEmail(String email, GerarResponse<ClienteDtoResponse> carregar) throws BusinessException {
+        String chave = Email.normalizar(email);
+        Long codigoCliente = porEmail.get(chave, Long.class);
+        if (codigoCliente != null) {
+            try {
+                ClienteDtoResponse cliente = carregar(porCodigo, codigoCliente, ClienteDtoResponse.class, () -> {
+                    ClienteDtoResponse carregado = carregar.get();
+                    if (!codigoCliente.equals(carregado.codigoCliente())) throw new EmailDeOutroCliente();
+                    return carregado;
+                });
+                // O código guardado pode ser de um cliente que trocou de email: só vale se o email ainda bate.
+                if (chave.equals(Email.normalizar(cliente.email()))) return cliente;
+            } catch (EmailDeOutroCliente e) {
+                // O email passou a ser de outro cliente; segue para a leitura sem o código guardado.
+            }
+            porEmail.evict(chave);
+        }
+        // Aqui só o código é guardado; a próxima busca por este email carrega o DTO pela chave do código, acima.
+        ClienteDtoResponse cliente = carregar.get();
+        if (cliente.codigoCliente() != null) porEmail.put(chave, cliente.codigoCliente());
+        return cliente;
+    }
+
+    public ClienteContagensDtoResponse buscarContagens(GerarResponse<ClienteContagensDtoResponse> carregar) throws BusinessException {
+        return carregar(contagens, CONTAGENS, ClienteContagensDtoResponse.class, carregar);
+    }
+
+    public void removerContagens() {
+        invalidar(contagens, CONTAGENS);
+    }
+
+    public void remover(Long codigoCliente, String... emails) {
+        removerContagens();
+        if (codigoCliente != null) {
+            invalidar(porCodigo, codigoCliente);
+        }
+        for (String email : emails) {
+            if (email != null) {
+                porEmail.evict(Email.normalizar(email));
+            }
+        }
+    }
+
+    // O contador é lido antes do banco e conferido depois do put. Se a invalidação somou antes da conferência, a carga
+    // desfaz o próprio put; se somou depois, o evict dela vem depois do put e remove o valor antigo.
+    private <T> T carregar(Cache cache, Object chave, Class<T> tipo, GerarResponse<T> carregar) throws BusinessException {
+        T guardado = cache.get(chave, tipo);
+        if (guardado != null) return guardado;
+        int faixa = faixa(cache, chave);
+        long invalidacao = invalidacoes.get(faixa);
+        T carregado = carregar.get();
+        cache.put(chave, carregado);
+        if (invalidacoes.get(faixa) != invalidacao) cache.evict(chave);
+        return carregado;
+    }
+
+    private void invalidar(Cache cache, Object chave) {
+        invalidacoes.incrementAndGet(faixa(cache, chave));
+        cache.evict(chave);
+    }
+
+    private static int faixa(Cache cache, Object chave) {
+        return (31 * cache.getName().hashCode() + chave.hashCode()) & (FAIXAS - 1);
+    }
+
+    private static final class EmailDeOutroCliente extends RuntimeException {
+        EmailDeOutroCliente() {
+            super(null, null, false, false);
+        }
+    }
+}
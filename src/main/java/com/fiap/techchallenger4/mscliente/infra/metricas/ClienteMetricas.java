@@ -0,0 +1,84 @@
+package com.fiap.techchallenger4.mscliente.infra.metricas;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import br.com.fiap.estrutura.utils.GerarResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo e quantidade de cada operação do ClienteService, no timer {@value #OPERACOES} com as tags
+ * {@code operacao} (nome do método) e {@code resultado}: {@value #SUCESSO}, o nome da exceção de negócio
+ * (EntidadeNaoEncontrada, VersaoDesatualizada, BusinessException) ou {@value #ERRO} para falhas inesperadas.
+ * <p>
+ * Os timers ficam guardados por operação e resultado, então medir uma chamada não cria tags nem procura
+ * o meter no registry. Os buckets de histograma para os percentis são ligados no application.properties
+ * (percentis calculados no Prometheus, não na aplicação).
+ */
+@Component
+public class ClienteMetricas {
+
+    public static final String OPERACOES = "clientes.operacoes";
+    static final String SUCESSO = "sucesso";
+    static final String ERRO = "erro";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    public ClienteMetricas(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T medir(String operacao, GerarResponse<T> execucao) throws BusinessException {
+        long inicio = System.nanoTime();
+        String resultado = ERRO;
+        try {
+            T retorno = execucao.get();
+            resultado = SUCESSO;
+            return retorno;
+        } catch (BusinessException e) {
+            resultado = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(operacao, resultado).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Para as operações que escrevem direto na resposta: a falha de escrita (cliente que desconectou) conta como erro.
+    public void medirEscrita(String operacao, Escrita escrita) throws IOException {
+        long inicio = System.nanoTime();
+        String resultado = ERRO;
+        try {
+            escrita.escrever();
+            resultado = SUCESSO;
+        } finally {
+            timer(operacao, resultado).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Escrita {
+        void escrever() throws IOException;
+    }
+
+    private Timer timer(String operacao, String resultado) {
+        Map<String, Timer> porResultado = timers.get(operacao);
+        if (porResultado == null) {
+            porResultado = timers.computeIfAbsent(operacao, chave -> new ConcurrentHashMap<>());
+        }
+        Timer timer = porResultado.get(resultado);
+        if (timer == null) {
+            timer = porResultado.computeIfAbsent(resultado, chave -> Timer.builder(OPERACOES)
+                    .description("Operações do cadastro de clientes, por resultado")
+                    .tag("operacao", operacao)
+                    .tag("resultado", resultado)
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,59 @@
+package com.fiap.techchallenger4.mscliente.infra.migracao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converte a coluna {@code cpf} das bases criadas quando ela era texto pontuado (XXX.XXX.XXX-XX) para o bigint da
+ * entidade: o ddl-auto=update não altera o tipo de uma coluna existente, e com ela em texto toda leitura e escrita
+ * de cliente falha. Depois da primeira subida só resta a consulta do tipo da coluna.
+ * <p>
+ * A conversão roda numa transação só (o DDL do Postgres é transacional) e o índice único é recriado pelo próprio
+ * ALTER. CPFs que ficariam repetidos sem a pontuação, ou que não viram número, impedem a conversão: a subida é
+ * interrompida com os clientes listados, já que sem a conversão o serviço não consegue ler nenhum cliente.
+ */
+@Slf4j
+@Component
+@Profile("!local")
+public class CpfNumericoMigracao implements ApplicationRunner {
+
+    private static final String DIGITOS = "regexp_replace(cpf, '\\D', '', 'g')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CpfNumericoMigracao(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String tipo = jdbcTemplate.queryForList("SELECT data_type FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'clientes' AND column_name = 'cpf'", String.class)
+                .stream().findFirst().orElse(null);
+        if (tipo == null || "bigint".equals(tipo)) return;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> conflitos = new ArrayList<>(jdbcTemplate.queryForList("SELECT string_agg(codigo_cliente || '=' || cpf, ', ' ORDER BY codigo_cliente) "
+                    + "FROM clientes WHERE cpf IS NOT NULL GROUP BY " + DIGITOS + " HAVING count(*) > 1", String.class));
+            conflitos.addAll(jdbcTemplate.queryForList("SELECT codigo_cliente || '=' || cpf FROM clientes "
+                    + "WHERE cpf IS NOT NULL AND " + DIGITOS + " !~ '^[0-9]{1,11}$' ORDER BY codigo_cliente", String.class));
+            if (!conflitos.isEmpty()) {
+                throw new IllegalStateException("Coluna cpf não convertida para bigint: " + conflitos.size()
+                        + " CPFs repetidos sem a pontuação ou que não viram número; corrija os clientes e suba novamente: "
+                        + String.join("; ", conflitos));
+            }
+            jdbcTemplate.execute("ALTER TABLE clientes ALTER COLUMN cpf TYPE bigint USING " + DIGITOS + "::bigint");
+        });
+        log.info("Coluna cpf convertida de {} para bigint", tipo);
+    }
+}
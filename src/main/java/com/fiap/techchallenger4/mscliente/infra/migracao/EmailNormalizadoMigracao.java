@@ -0,0 +1,51 @@
+package com.fiap.techchallenger4.mscliente.infra.migracao;
+
+import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Preenche {@code email_normalizado} nas bases criadas antes da coluna: o ddl-auto=update adiciona a coluna vazia
+ * e, sem ela, esses clientes não seriam achados por email. Depois da primeira subida só resta a consulta de existência.
+ * <p>
+ * Clientes cujos emails diferem só por maiúsculas/espaços teriam o mesmo email normalizado: não são preenchidos e
+ * ficam listados no log até alguém decidir qual email fica. A subida segue normalmente.
+ */
+@Slf4j
+@Component
+public class EmailNormalizadoMigracao implements ApplicationRunner {
+
+    private final ClienteRepository clienteRepository;
+
+    public EmailNormalizadoMigracao(ClienteRepository clienteRepository) {
+        this.clienteRepository = clienteRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!clienteRepository.existsByEmailNormalizadoIsNullAndEmailIsNotNull()) return;
+
+        try {
+            int preenchidos = clienteRepository.preencherEmailNormalizado();
+            if (preenchidos > 0) {
+                log.info("Email normalizado preenchido em {} clientes", preenchidos);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro concorrente com o mesmo email entre a consulta e o update: fica para a próxima subida.
+            log.warn("Email normalizado não preenchido: {}", e.getMostSpecificCause().getMessage());
+        }
+
+        List<ClienteRepository.CodigoEmail> conflitos = clienteRepository.findEmailsNaoNormalizados();
+        if (!conflitos.isEmpty()) {
+            log.error("{} clientes com email repetido quando ignoradas maiúsculas e espaços; sem email normalizado, "
+                            + "não são achados por email até o conflito ser resolvido: {}", conflitos.size(),
+                    conflitos.stream().map(c -> c.getCodigoCliente() + "=" + c.getEmail()).collect(Collectors.joining(", ")));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.fiap.techchallenger4.mscliente.infra.migracao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Acerta a {@code clientes_seq} nas bases criadas quando o código vinha de uma coluna IDENTITY: o ddl-auto=update
+ * cria a sequence começando em 1 e os primeiros cadastros colidiriam com os códigos já existentes.
+ * <p>
+ * O otimizador pooled do Hibernate usa o valor do nextval como topo do bloco (ids de valor - 49 até valor), então
+ * deixar a sequence no maior código faz o próximo bloco começar logo depois dele. Só avança: com a sequence
+ * à frente da tabela (outra instância já reservou blocos) não faz nada.
+ */
+@Slf4j
+@Component
+@Profile("!local")
+public class SequenciaClientesMigracao implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenciaClientesMigracao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> avancada = jdbcTemplate.queryForList("SELECT setval('clientes_seq', maior) FROM "
+                + "(SELECT max(codigo_cliente) AS maior FROM clientes) tabela, clientes_seq sequencia "
+                + "WHERE maior >= sequencia.last_value", Long.class);
+        if (!avancada.isEmpty()) {
+            log.info("Sequence clientes_seq avançada até o maior código de cliente ({})", avancada.get(0));
+        }
+    }
+}
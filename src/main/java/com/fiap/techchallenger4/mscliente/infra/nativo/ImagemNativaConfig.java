@@ -0,0 +1,79 @@
+package com.fiap.techchallenger4.mscliente.infra.nativo;
+
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerCreate;
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerNoContent;
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerOk;
+import br.com.fiap.estrutura.swagger.annotations.responses.ApiResponseBadRequestJson;
+import br.com.fiap.estrutura.swagger.annotations.responses.ApiResponseCreateJson;
+import br.com.fiap.estrutura.swagger.annotations.responses.ApiResponseNoContentJson;
+import br.com.fiap.estrutura.swagger.annotations.responses.ApiResponseNotFoundJson;
+import br.com.fiap.estrutura.swagger.annotations.responses.ApiResponseOkJson;
+import br.com.fiap.estrutura.utils.MessageErrorHandler;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumerFeignClient;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoEvento;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoSnapshotEvento;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemEstadoDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagensDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteExclusaoLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteExclusaoLoteItemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteItemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClientePaginaCamposDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClientePaginaDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflexão e proxies que a imagem nativa (profile native do pom) não descobre sozinha. O process-aot já registra os
+ * tipos dos parâmetros e retornos dos controllers, mas eles devolvem {@code ResponseEntity<?>} montado pelo
+ * SpringControllerUtils, então os DTOs serializados pelo Jackson (e o MessageErrorHandler dos erros) vão aqui.
+ * Também a entidade, o proxy JDK do Feign e as anotações de Swagger da lib estrutura, lidas pelo springdoc.
+ * <p>
+ * Na JVM esta classe não tem efeito; os hints só são lidos no build AOT.
+ */
+@Configuration
+@ImportRuntimeHints(ImagemNativaConfig.Hints.class)
+public class ImagemNativaConfig {
+
+    static final List<Class<?>> SERIALIZADOS = List.of(
+            ClienteDtoRequest.class, ClienteDtoResponse.class, ClientePaginaDtoResponse.class,
+            ClientePaginaCamposDtoResponse.class, ClienteLoteDtoResponse.class, ClienteLoteItemDtoResponse.class,
+            ClienteExclusaoLoteDtoResponse.class, ClienteExclusaoLoteItemDtoResponse.class,
+            ClienteContagensDtoResponse.class, ClienteContagemDtoResponse.class, ClienteContagemEstadoDtoResponse.class,
+            PedidoEvento.class, PedidoSnapshotEvento.class, MessageErrorHandler.class);
+
+    static final List<Class<?>> ANOTACOES_ESTRUTURA = List.of(
+            ApiResponseSwaggerOk.class, ApiResponseSwaggerCreate.class, ApiResponseSwaggerNoContent.class,
+            ApiResponseOkJson.class, ApiResponseCreateJson.class, ApiResponseNoContentJson.class,
+            ApiResponseBadRequestJson.class, ApiResponseNotFoundJson.class);
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+            binding.registerReflectionHints(hints.reflection(), SERIALIZADOS.toArray(Class<?>[]::new));
+
+            // Hibernate instancia a entidade e acessa os campos por reflexão (acesso por campo, @Id nos atributos).
+            hints.reflection().registerType(ClienteEntity.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_METHODS);
+
+            // O Feign cria o cliente como proxy JDK e lê as anotações do Spring MVC dos métodos da interface.
+            hints.proxies().registerJdkProxy(PedidoConsumerFeignClient.class);
+            hints.reflection().registerType(PedidoConsumerFeignClient.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Anotações compostas: o springdoc lê os atributos das @ApiResponse meta-anotadas por reflexão.
+            ANOTACOES_ESTRUTURA.forEach(anotacao -> hints.reflection().registerType(anotacao, MemberCategory.INVOKE_PUBLIC_METHODS));
+        }
+    }
+}
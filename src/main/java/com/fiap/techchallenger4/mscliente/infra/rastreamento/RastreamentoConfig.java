@@ -0,0 +1,78 @@
+package com.fiap.techchallenger4.mscliente.infra.rastreamento;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+/**
+ * Rastreamento de uma requisição de ponta a ponta: o Spring MVC abre o span de cada requisição ao ClienteController,
+ * o feign-micrometer abre o da chamada ao serviço de pedidos e propaga o contexto no header traceparent, e aqui
+ * cada método dos repositórios JPA ganha o seu span ({@value #REPOSITORIO}). Assim o tempo de uma exclusão lenta
+ * aparece dividido entre banco e serviço de pedidos.
+ * <p>
+ * Os spans vão para o coletor OTLP de management.otlp.tracing.endpoint (dev e prod) e, com rastreamento.log=true
+ * (profile local), também para o log.
+ */
+@Configuration
+public class RastreamentoConfig {
+
+    public static final String REPOSITORIO = "clientes.repositorio";
+
+    @Bean
+    @ConditionalOnProperty(name = "rastreamento.log", havingValue = "true")
+    SpanExporter spansNoLog() {
+        return LoggingSpanExporter.create();
+    }
+
+    // Estático e com o registry buscado só na primeira chamada: um BeanPostProcessor é criado antes dos demais beans.
+    @Bean
+    static BeanPostProcessor observarRepositoriosJpa(ObjectProvider<ObservationRegistry> observationRegistry) {
+        Supplier<ObservationRegistry> registry = SingletonSupplier.of(() -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaRepositoryFactoryBean<?, ?, ?> repositorio) {
+                    repositorio.addRepositoryFactoryCustomizer(fabrica -> fabrica.addRepositoryProxyPostProcessor((proxy, informacoes) ->
+                            proxy.addAdvice(new ObservacaoRepositorio(registry, informacoes.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private record ObservacaoRepositorio(Supplier<ObservationRegistry> registry, String repositorio) implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocacao) throws Throwable {
+            ObservationRegistry observationRegistry = registry.get();
+            if (observationRegistry.isNoop()) return invocacao.proceed();
+
+            String metodo = invocacao.getMethod().getName();
+            Observation observacao = Observation.createNotStarted(REPOSITORIO, observationRegistry)
+                    .contextualName(repositorio + "." + metodo)
+                    .lowCardinalityKeyValue("repositorio", repositorio)
+                    .lowCardinalityKeyValue("metodo", metodo)
+                    .start();
+            try (Observation.Scope escopo = observacao.openScope()) {
+                return invocacao.proceed();
+            } catch (Throwable e) {
+                observacao.error(e);
+                throw e;
+            } finally {
+                observacao.stop();
+            }
+        }
+    }
+}
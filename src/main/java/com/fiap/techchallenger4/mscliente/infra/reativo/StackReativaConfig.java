@@ -0,0 +1,56 @@
+package com.fiap.techchallenger4.mscliente.infra.reativo;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Infra da stack reativa, ativa com {@code spring.main.web-application-type=reactive}.
+ * <p>
+ * O Tomcat continua no classpath por causa da stack servlet e seria o servidor escolhido pelo Spring Boot;
+ * o Netty é declarado aqui para a stack reativa rodar no event loop.
+ * <p>
+ * O ConnectionFactory do R2DBC não é exposto como bean de propósito: o auto-configure passaria a executar o
+ * massaDeDados.sql por R2DBC, antes do DDL do Hibernate, e registraria um segundo transaction manager ao lado do JPA.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class StackReativaConfig implements DisposableBean {
+
+    private final ConnectionPool pool;
+
+    public StackReativaConfig(@Value("${spring.r2dbc.url}") String url,
+                              @Value("${spring.r2dbc.username:}") String usuario,
+                              @Value("${spring.r2dbc.password:}") String senha,
+                              @Value("${spring.r2dbc.pool.max-size:10}") int tamanhoMaximo) {
+        ConnectionFactoryOptions.Builder opcoes = ConnectionFactoryOptions.parse(url).mutate();
+        if (!usuario.isEmpty()) opcoes.option(ConnectionFactoryOptions.USER, usuario);
+        if (!senha.isEmpty()) opcoes.option(ConnectionFactoryOptions.PASSWORD, senha);
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes.build()))
+                .maxSize(tamanhoMaximo)
+                .build());
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,140 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import com.fiap.techchallenger4.mscliente.domain.services.ClienteService;
+import com.fiap.techchallenger4.mscliente.infra.busca.BuscaClientesMemoria;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latência da busca de clientes (GET /clientes/busca, medida no ClienteService) sobre um milhão de clientes,
+ * com a meta de p95 conferida por tipo de busca. Rodar com: mvn test -Pbenchmark -Dtest=ClienteBuscaBenchmarkTest
+ * Sem profile usa o índice em memória do H2; para os índices pg_trgm do Postgres acrescente
+ * -Dspring.profiles.active=dev -Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/mscliente_benchmark
+ * Tamanho da base e meta: -Dbenchmark.clientes=1000000 -Dbenchmark.busca.p95.ms=100
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:h2:mem:cliente-busca;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;}",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+class ClienteBuscaBenchmarkTest {
+
+    private static final int TOTAL_CLIENTES = Integer.getInteger("benchmark.clientes", 1_000_000);
+    private static final double META_P95_MS = Double.parseDouble(System.getProperty("benchmark.busca.p95.ms", "100"));
+    private static final long PRIMEIRO_CODIGO = 10_000_000L;
+    private static final int AQUECIMENTO = 200;
+    private static final int MEDICOES = 500;
+
+    private static final String NOMES = "'Ana','João','Maria','José','Antônio','Francisca','Carlos','Paulo','Pedro','Lucas',"
+            + "'Luiz','Marcos','Luís','Gabriel','Rafael','Daniel','Marcelo','Bruno','Eduardo','Felipe','Raimundo','Rodrigo',"
+            + "'Adriana','Juliana','Márcia','Fernanda','Patrícia','Aline','Sandra','Camila','Amanda','Bruna','Jéssica',"
+            + "'Letícia','Júlia','Luciana','Vanessa','Mariana','Gabriela','Vera'";
+    private static final String SOBRENOMES = "'Silva','Santos','Oliveira','Souza','Rodrigues','Ferreira','Alves','Pereira',"
+            + "'Lima','Gomes','Costa','Ribeiro','Martins','Carvalho','Almeida','Lopes','Soares','Fernandes','Vieira',"
+            + "'Barbosa','Rocha','Dias','Nascimento','Andrade','Moreira','Nunes','Marques','Machado','Mendes','Freitas',"
+            + "'Cardoso','Ramos','Gonçalves','Santana','Teixeira','Albuquerque','Cavalcanti','Monteiro','Moura','Correia'";
+    private static final String CIDADES = "'São Paulo','Rio de Janeiro','Belo Horizonte','Salvador','Fortaleza','Curitiba',"
+            + "'Recife','Porto Alegre','Manaus','Belém','Goiânia','São Luís','Maceió','Natal','Campinas','São José dos Campos',"
+            + "'Santos','Niterói','Londrina','Joinville'";
+    private static final String ESTADOS = "'SP','RJ','MG','BA','CE','PR','PE','RS','AM','PA','GO','MA','AL','RN','SP','SP','SP','RJ','PR','SC'";
+
+    // Termos por tipo de busca, sorteados em rodízio: prefixo de sobrenome, nome completo, erro de digitação,
+    // só cidade e estado, e nome restrito a uma UF.
+    private static final Map<String, String[][]> BUSCAS = new LinkedHashMap<>();
+
+    static {
+        BUSCAS.put("prefixo", new String[][]{{"silv", null, null}, {"oliv", null, null}, {"cavalc", null, null}, {"albuq", null, null}});
+        BUSCAS.put("nome_completo", new String[][]{{"maria souza", null, null}, {"pedro albuquerque", null, null}, {"vera lima", null, null}});
+        BUSCAS.put("erro_digitacao", new String[][]{{"olivera", null, null}, {"perera", null, null}, {"albuqerque", null, null}});
+        BUSCAS.put("cidade_estado", new String[][]{{null, "são p", "SP"}, {null, "curi", "PR"}, {null, "reci", "PE"}});
+        BUSCAS.put("nome_estado", new String[][]{{"sant", null, "RJ"}, {"mendes", null, "BA"}, {"juliana", null, "SC"}});
+    }
+
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectProvider<BuscaClientesMemoria> buscaClientesMemoria;
+
+    private boolean postgres;
+
+    @BeforeAll
+    void popularBase() {
+        postgres = jdbcTemplate.execute((Connection conexao) -> conexao.getMetaData().getDatabaseProductName()).equals("PostgreSQL");
+        String sequencia = postgres ? "generate_series(1, " + TOTAL_CLIENTES + ") AS s(x)" : "SYSTEM_RANGE(1, " + TOTAL_CLIENTES + ") AS s(x)";
+        String cidade = "MOD(x / 7, 20) + 1";
+        jdbcTemplate.update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, email_normalizado, cep, logradouro, numero, complemento, "
+                + "bairro, cidade, estado, telefone, data_criacao, versao) "
+                + "SELECT " + PRIMEIRO_CODIGO + " + x, "
+                + "(ARRAY[" + NOMES + "])[MOD(x, 40) + 1] || ' ' || (ARRAY[" + SOBRENOMES + "])[MOD(x / 40, 40) + 1] || ' ' "
+                + "|| (ARRAY[" + SOBRENOMES + "])[MOD(x / 1600, 40) + 1], "
+                + "10000000000 + x, 'busca' || x || '@email.com', 'busca' || x || '@email.com', '12345-678', 'Rua A', '1', '', 'Centro', "
+                + "(ARRAY[" + CIDADES + "])[" + cidade + "], (ARRAY[" + ESTADOS + "])[" + cidade + "], '(11) 91234-5678', CURRENT_TIMESTAMP, 0 "
+                + "FROM " + sequencia);
+        if (postgres) {
+            jdbcTemplate.execute("ANALYZE clientes");
+        }
+        buscaClientesMemoria.ifAvailable(BuscaClientesMemoria::recarregar);
+    }
+
+    @AfterAll
+    void limparBase() {
+        jdbcTemplate.update("DELETE FROM clientes WHERE codigo_cliente > ?", PRIMEIRO_CODIGO);
+    }
+
+    @Test
+    void medirLatenciaPorTipoDeBusca() throws Exception {
+        for (String[][] termos : BUSCAS.values()) {
+            for (int i = 0; i < AQUECIMENTO; i++) buscar(termos[i % termos.length]);
+        }
+
+        System.out.printf("%nbase=%s clientes=%d meta_p95_ms=%.0f%n", postgres ? "postgres/pg_trgm" : "h2/memoria", TOTAL_CLIENTES, META_P95_MS);
+        System.out.printf("%-16s %-10s %-10s %-10s %-10s%n", "busca", "p50_ms", "p95_ms", "p99_ms", "resultados");
+        Map<String, Double> p95s = new LinkedHashMap<>();
+        for (Map.Entry<String, String[][]> busca : BUSCAS.entrySet()) {
+            String[][] termos = busca.getValue();
+            long[] tempos = new long[MEDICOES];
+            long resultados = 0;
+            for (int i = 0; i < MEDICOES; i++) {
+                long inicio = System.nanoTime();
+                resultados += buscar(termos[i % termos.length]);
+                tempos[i] = System.nanoTime() - inicio;
+            }
+            Arrays.sort(tempos);
+            double p95 = percentil(tempos, 0.95);
+            p95s.put(busca.getKey(), p95);
+            System.out.printf("%-16s %-10.2f %-10.2f %-10.2f %-10d%n", busca.getKey(), percentil(tempos, 0.50), p95,
+                    percentil(tempos, 0.99), resultados / MEDICOES);
+        }
+
+        List<String> acimaDaMeta = p95s.entrySet().stream().filter(e -> e.getValue() > META_P95_MS).map(Map.Entry::getKey).toList();
+        assertTrue(acimaDaMeta.isEmpty(), "p95 acima da meta em " + acimaDaMeta);
+    }
+
+    private int buscar(String[] termos) throws Exception {
+        return clienteService.buscarClientes(termos[0], termos[1], termos[2], null, 20).clientes().size();
+    }
+
+    private static double percentil(long[] tempos, double p) {
+        return tempos[(int) Math.min(tempos.length - 1, Math.floor(p * tempos.length))] / 1_000_000.0;
+    }
+}
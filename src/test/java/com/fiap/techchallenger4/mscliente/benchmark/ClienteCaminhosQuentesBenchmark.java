@@ -0,0 +1,215 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenger4.mscliente.MsclienteApplication;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepository;
+import com.fiap.techchallenger4.mscliente.domain.validation.ClienteValidador;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vazão e alocação por operação (gc.alloc.rate.norm, do GCProfiler) dos caminhos por onde passa toda requisição:
+ * validação, conversões DTO/entidade, serialização de listas e as consultas do repositório no H2 embutido.
+ * Rodar com: mvn test -Pbenchmark -Dtest=ClienteCaminhosQuentesBenchmark
+ * O resultado vai em JSON para -Dbenchmark.jmh.resultado (padrão target/jmh/caminhos-quentes.json). Passando o JSON
+ * de uma execução anterior em -Dbenchmark.jmh.referencia, o teste falha se algum benchmark perder vazão ou passar
+ * a alocar mais que -Dbenchmark.jmh.tolerancia (padrão 0.10, ou seja 10%).
+ */
+@Tag("benchmark")
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClienteCaminhosQuentesBenchmark {
+
+    private static final String ALOCACAO = "gc.alloc.rate.norm";
+    // Abaixo disso a diferença de alocação é ruído do próprio JMH (objetos de controle, arredondamento do TLAB).
+    private static final double ALOCACAO_DESPREZIVEL = 16;
+
+    @State(Scope.Benchmark)
+    public static class Objetos {
+        final ClienteDtoRequest request = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria.silva@example.com",
+                "12345-678", "Rua Sol", "100", "Apto 2", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        final ClienteEntity entidade = request.toEntity();
+        final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        final List<ClienteDtoResponse> pagina = IntStream.rangeClosed(1, 50)
+                .mapToObj(i -> new ClienteDtoResponse((long) i, "Cliente " + i, "123.456.789-09", "cliente" + i + "@example.com",
+                        "12345-678", "Rua Sol", "100", "Apto 2", "Centro", "São Paulo", "SP", "(11) 98765-4321",
+                        LocalDateTime.of(2024, 3, 10, 14, 30), 0L))
+                .toList();
+
+        @Setup
+        public void preencher() {
+            entidade.setCodigoCliente(1L);
+            entidade.setVersao(0L);
+        }
+    }
+
+    // Aplicação inteira no H2 (profile local, massa de dados + clientes gerados), sem servidor web.
+    @State(Scope.Benchmark)
+    public static class Repositorio {
+        static final int CLIENTES = 10_000;
+        static final long PRIMEIRO_CODIGO = 10_000_000L;
+
+        ConfigurableApplicationContext contexto;
+        ClienteRepository clienteRepository;
+        List<String> campos = List.of("codigoCliente", "nome", "email");
+        int proximo;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            contexto = new SpringApplicationBuilder(MsclienteApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("spring.datasource.url=jdbc:h2:mem:cliente-jmh;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;",
+                            "spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.show_sql=false",
+                            "logging.level.root=WARN")
+                    .run();
+            contexto.getBean(JdbcTemplate.class).update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, email_normalizado, cep, "
+                    + "logradouro, numero, complemento, bairro, cidade, estado, telefone, data_criacao, versao) "
+                    + "SELECT " + PRIMEIRO_CODIGO + " + x, 'Cliente ' || x, 10000000000 + x, 'cliente' || x || '@email.com', "
+                    + "'cliente' || x || '@email.com', '12345-678', 'Rua Sol', '100', '', 'Centro', 'São Paulo', 'SP', "
+                    + "'(11) 91234-5678', CURRENT_TIMESTAMP, 0 FROM SYSTEM_RANGE(1, " + CLIENTES + ") AS s(x)");
+            clienteRepository = contexto.getBean(ClienteRepository.class);
+        }
+
+        // Percorre a base em rodízio, para não medir sempre a mesma página do índice.
+        long proximoCodigo() {
+            proximo = (proximo + 7_919) % CLIENTES;
+            return PRIMEIRO_CODIGO + 1 + proximo;
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            contexto.close();
+        }
+    }
+
+    @Benchmark
+    public ClienteDtoRequest validar(Objetos objetos) throws BusinessException {
+        ClienteValidador.validar(objetos.request);
+        return objetos.request;
+    }
+
+    @Benchmark
+    public ClienteEntity toEntity(Objetos objetos) {
+        return objetos.request.toEntity();
+    }
+
+    @Benchmark
+    public ClienteDtoResponse toDto(Objetos objetos) {
+        return objetos.entidade.toDto();
+    }
+
+    @Benchmark
+    public byte[] serializarPagina(Objetos objetos) throws Exception {
+        return objetos.objectMapper.writeValueAsBytes(objetos.pagina);
+    }
+
+    @Benchmark
+    public ClienteEntity repositorioPorCodigo(Repositorio repositorio) {
+        return repositorio.clienteRepository.findByCodigoCliente(repositorio.proximoCodigo());
+    }
+
+    @Benchmark
+    public ClienteEntity repositorioPorEmail(Repositorio repositorio) {
+        return repositorio.clienteRepository.findByEmailNormalizado("cliente" + (repositorio.proximoCodigo() - Repositorio.PRIMEIRO_CODIGO) + "@email.com");
+    }
+
+    @Benchmark
+    public List<ClienteEntity> repositorioPagina(Repositorio repositorio) {
+        return repositorio.clienteRepository.findByCodigoClienteGreaterThanOrderByCodigoClienteAsc(repositorio.proximoCodigo(), Limit.of(50));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> repositorioPaginaComCampos(Repositorio repositorio) {
+        return repositorio.clienteRepository.findCamposByCodigoClienteGreaterThan(repositorio.campos, repositorio.proximoCodigo(), 50);
+    }
+
+    @Test
+    void executar() throws Exception {
+        File resultado = new File(System.getProperty("benchmark.jmh.resultado", "target/jmh/caminhos-quentes.json"));
+        resultado.getAbsoluteFile().getParentFile().mkdirs();
+        Collection<RunResult> execucao = new Runner(new OptionsBuilder()
+                .include(ClienteCaminhosQuentesBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.getPath())
+                .build()).run();
+
+        String referencia = System.getProperty("benchmark.jmh.referencia");
+        if (referencia != null) {
+            List<String> regressoes = compararComReferencia(execucao, new File(referencia),
+                    Double.parseDouble(System.getProperty("benchmark.jmh.tolerancia", "0.10")));
+            assertTrue(regressoes.isEmpty(), "Regressões em relação a " + referencia + ":\n" + String.join("\n", regressoes));
+        }
+    }
+
+    private static List<String> compararComReferencia(Collection<RunResult> execucao, File referencia, double tolerancia) throws Exception {
+        Map<String, JsonNode> anteriores = new HashMap<>();
+        for (JsonNode benchmark : new ObjectMapper().readTree(referencia)) {
+            anteriores.put(benchmark.get("benchmark").asText(), benchmark);
+        }
+
+        List<String> regressoes = new ArrayList<>();
+        for (RunResult atual : execucao) {
+            String nome = atual.getParams().getBenchmark();
+            JsonNode anterior = anteriores.get(nome);
+            if (anterior == null) continue;
+
+            double vazaoAnterior = anterior.path("primaryMetric").path("score").asDouble();
+            double vazao = atual.getPrimaryResult().getScore();
+            if (vazao < vazaoAnterior * (1 - tolerancia)) {
+                regressoes.add(String.format("%s: vazão %.1f -> %.1f ops/ms", nome, vazaoAnterior, vazao));
+            }
+
+            JsonNode alocacaoAnterior = anterior.path("secondaryMetrics").path(ALOCACAO).path("score");
+            if (!alocacaoAnterior.isMissingNode() && atual.getSecondaryResults().containsKey(ALOCACAO)) {
+                double alocacao = atual.getSecondaryResults().get(ALOCACAO).getScore();
+                if (alocacao > alocacaoAnterior.asDouble() * (1 + tolerancia) + ALOCACAO_DESPREZIVEL) {
+                    regressoes.add(String.format("%s: alocação %.0f -> %.0f B/op", nome, alocacaoAnterior.asDouble(), alocacao));
+                }
+            }
+        }
+        return regressoes;
+    }
+}
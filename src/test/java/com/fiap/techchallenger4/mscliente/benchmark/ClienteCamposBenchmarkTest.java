@@ -0,0 +1,121 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Bytes na resposta e memória alocada por requisição com e sem fields=, na listagem (página, lista completa)
+ * e na busca por código. A alocação é a da thread que atende a requisição: o MockMvc roda o controller na
+ * própria thread do teste, então o número inclui consulta, hidratação e serialização do JSON.
+ * Rodar com: mvn test -Pbenchmark -Dtest=ClienteCamposBenchmarkTest
+ * Para o Postgres: -Dspring.profiles.active=dev -Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/mscliente_benchmark
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Sem print: o MockMvc do Spring Boot guarda a saída de todas as requisições para imprimir caso o teste falhe.
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@SpringBootTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:h2:mem:cliente-campos;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;}",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+class ClienteCamposBenchmarkTest {
+
+    private static final int TOTAL_CLIENTES = Integer.getInteger("benchmark.clientes", 20_000);
+    private static final long PRIMEIRO_CODIGO = 10_000_000L;
+    private static final int AQUECIMENTO = 200;
+    private static final int MEDICOES = 200;
+    private static final String CAMPOS = "nome,email";
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void popularBase() {
+        boolean postgres = jdbcTemplate.execute((Connection conexao) -> conexao.getMetaData().getDatabaseProductName()).equals("PostgreSQL");
+        String sequencia = postgres ? "generate_series(1, " + TOTAL_CLIENTES + ") AS s(x)" : "SYSTEM_RANGE(1, " + TOTAL_CLIENTES + ") AS s(x)";
+        jdbcTemplate.update("DELETE FROM clientes WHERE codigo_cliente > ?", PRIMEIRO_CODIGO);
+        jdbcTemplate.update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, email_normalizado, cep, logradouro, numero, complemento, "
+                + "bairro, cidade, estado, telefone, data_criacao, versao) "
+                + "SELECT " + PRIMEIRO_CODIGO + " + x, 'Cliente ' || x, 10000000000 + x, 'cliente' || x || '@email.com', "
+                + "'cliente' || x || '@email.com', '12345-678', 'Rua das Palmeiras', '100', 'Apto 12', 'Centro', 'São Paulo', 'SP', "
+                + "'(11) 91234-5678', CURRENT_TIMESTAMP, 0 FROM " + sequencia);
+    }
+
+    @Test
+    void medirBytesEAlocacaoPorRequisicao() throws Exception {
+        String codigo = String.valueOf(PRIMEIRO_CODIGO + 1);
+        Object[][] requisicoes = {
+                {"pagina_500", false, get("/clientes").param("tamanho", "500")},
+                {"pagina_500", true, get("/clientes").param("tamanho", "500").param("fields", CAMPOS)},
+                {"lista_completa", false, get("/clientes")},
+                {"lista_completa", true, get("/clientes").param("fields", CAMPOS)},
+                {"por_codigo", false, get("/clientes/{codigo}", codigo)},
+                {"por_codigo", true, get("/clientes/{codigo}", codigo).param("fields", CAMPOS)},
+        };
+
+        System.out.printf("%nclientes=%d fields=%s%n", TOTAL_CLIENTES, CAMPOS);
+        System.out.printf("%-16s %-10s %14s %16s %12s%n", "requisicao", "campos", "bytes_resposta", "alocado_kb(p50)", "tempo_us(p50)");
+        long bytesSemCampos = 0;
+        long alocadoSemCampos = 0;
+        for (Object[] requisicao : requisicoes) {
+            boolean comCampos = (boolean) requisicao[1];
+            MockHttpServletRequestBuilder builder = (MockHttpServletRequestBuilder) requisicao[2];
+            for (int i = 0; i < AQUECIMENTO; i++) executar(builder);
+
+            long[] alocados = new long[MEDICOES];
+            long[] tempos = new long[MEDICOES];
+            long bytes = 0;
+            for (int i = 0; i < MEDICOES; i++) {
+                long alocadoAntes = THREADS.getCurrentThreadAllocatedBytes();
+                long inicio = System.nanoTime();
+                bytes = executar(builder).getResponse().getContentAsByteArray().length;
+                tempos[i] = (System.nanoTime() - inicio) / 1_000;
+                alocados[i] = THREADS.getCurrentThreadAllocatedBytes() - alocadoAntes;
+            }
+            Arrays.sort(alocados);
+            Arrays.sort(tempos);
+            long alocado = alocados[MEDICOES / 2];
+            System.out.printf("%-16s %-10s %14d %16d %12d%n", requisicao[0], comCampos ? CAMPOS : "todos", bytes, alocado / 1024, tempos[MEDICOES / 2]);
+
+            // Cada par é a mesma requisição sem e com fields=. Na busca por código o cliente vem do cache, então
+            // só o JSON diminui; nas listagens, consulta e hidratação também.
+            if (comCampos) {
+                assertTrue(bytes < bytesSemCampos, requisicao[0] + ": resposta com fields não diminuiu");
+                assertTrue(requisicao[0].equals("por_codigo") || alocado < alocadoSemCampos, requisicao[0] + ": alocação com fields não diminuiu");
+            } else {
+                bytesSemCampos = bytes;
+                alocadoSemCampos = alocado;
+            }
+        }
+    }
+
+    private MvcResult executar(MockHttpServletRequestBuilder requisicao) throws Exception {
+        MvcResult resultado = mockMvc.perform(requisicao).andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+        return resultado;
+    }
+}
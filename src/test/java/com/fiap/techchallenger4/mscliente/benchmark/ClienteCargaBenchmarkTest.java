@@ -0,0 +1,130 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.cloud.contract.wiremock.WireMockConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga de exclusões com o serviço de pedidos respondendo em 100 ms: cada requisição bloqueia numa consulta JDBC
+ * e numa chamada Feign, o cenário em que o pool de threads do Tomcat limita a concorrência.
+ * Rodar em cada modo e comparar req/s por core e p99, os dois no mesmo JDK 21 (profile jdk21, ver pom.xml):
+ * mvn test -Pbenchmark,jdk21 -Dtest=ClienteCargaBenchmarkTest -Dspring.threads.virtual.enabled=false
+ * mvn test -Pbenchmark,jdk21 -Dtest=ClienteCargaBenchmarkTest -Dspring.threads.virtual.enabled=true
+ * mvn test -Pbenchmark -Dtest=ClienteCargaBenchmarkTest -Dspring.main.web-application-type=reactive
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "url.pedido.consumer.feign.client=http://localhost:${wiremock.server.port}",
+        "spring.cloud.openfeign.client.config.PedidoConsumerFeignClient.read-timeout=10000",
+        "resilience4j.bulkhead.instances.pedidos.max-concurrent-calls=100000",
+        "resilience4j.circuitbreaker.instances.pedidos.slow-call-duration-threshold=10s",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.com.fiap.techchallenger4.mscliente=ERROR"
+})
+@AutoConfigureWireMock(port = 0)
+class ClienteCargaBenchmarkTest {
+
+    private static final int CONCORRENCIA = Integer.getInteger("benchmark.concorrencia", 400);
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(5);
+    private static final Duration MEDICAO = Duration.ofSeconds(20);
+    private static final int LATENCIA_PEDIDOS_MS = 100;
+
+    @LocalServerPort
+    private int porta;
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+    @Value("${server.tomcat.threads.max:200}")
+    private int threadsTomcat;
+    @Value("${spring.main.web-application-type:servlet}")
+    private String stackWeb;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void medirExclusaoComServicoDePedidosLento() throws InterruptedException {
+        // Abaixo do Java 21 o Spring ignora a propriedade: a medição sairia com threads de plataforma.
+        assertTrue(!virtualThreads || Runtime.version().feature() >= 21,
+                "spring.threads.virtual.enabled=true exige JRE 21+ (profile jdk21); rodando em " + Runtime.version());
+        // Cliente com pedidos: a exclusão é sempre recusada e a carga pode se repetir sem alterar a base.
+        stubFor(post(urlPathEqualTo("/cliente/possui-pedidos"))
+                .willReturn(okJson("{\"possui-pedidos\": true}").withFixedDelay(LATENCIA_PEDIDOS_MS)));
+        HttpRequest exclusao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/clientes/1")).DELETE().build();
+
+        executar(exclusao, AQUECIMENTO);
+        Resultado resultado = executar(exclusao, MEDICAO);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%nstack=%s virtual_threads=%s tomcat_threads=%d concorrencia=%d cores=%d%n",
+                stackWeb, virtualThreads, threadsTomcat, CONCORRENCIA, cores);
+        System.out.printf("%-12s %-12s %-14s %-10s %-10s %-22s%n", "req/s", "req/s/core", "p50_ms", "p99_ms", "erros", "concorrencia_sustentada");
+        System.out.printf("%-12.0f %-12.0f %-14.1f %-10.1f %-10d %-22.0f%n", resultado.porSegundo(), resultado.porSegundo() / cores,
+                resultado.percentil(0.50), resultado.percentil(0.99), resultado.erros(), resultado.concorrenciaSustentada());
+        assertEquals(0, resultado.erros());
+    }
+
+    private Resultado executar(HttpRequest requisicao, Duration duracao) throws InterruptedException {
+        Semaphore vagas = new Semaphore(CONCORRENCIA);
+        ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        AtomicInteger erros = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        while (System.nanoTime() < fim) {
+            vagas.acquire();
+            long envio = System.nanoTime();
+            http.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding()).whenComplete((resposta, erro) -> {
+                if (erro == null && resposta.statusCode() == 400) latencias.add(System.nanoTime() - envio);
+                else erros.incrementAndGet();
+                vagas.release();
+            });
+        }
+        vagas.acquire(CONCORRENCIA);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        return new Resultado(latencias.stream().mapToLong(Long::longValue).sorted().toArray(), segundos, erros.get());
+    }
+
+    private record Resultado(long[] latenciasNanos, double segundos, int erros) {
+        double porSegundo() {
+            return latenciasNanos.length / segundos;
+        }
+
+        double percentil(double p) {
+            return latenciasNanos.length == 0 ? 0 : latenciasNanos[(int) Math.ceil(p * latenciasNanos.length) - 1] / 1e6;
+        }
+
+        // Lei de Little: requisições em andamento no servidor = vazão x latência média.
+        double concorrenciaSustentada() {
+            return porSegundo() * Arrays.stream(latenciasNanos).average().orElse(0) / 1e9;
+        }
+    }
+
+    @TestConfiguration
+    static class WireMockAssincrono {
+        // O atraso do stub não pode ocupar threads do Jetty do WireMock, senão ele vira o gargalo da medição.
+        @Bean
+        WireMockConfigurationCustomizer respostasAssincronas() {
+            return opcoes -> opcoes.asynchronousResponseEnabled(true).asynchronousResponseThreads(50).containerThreads(200);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.cloud.contract.wiremock.WireMockConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga mista de leituras, escritas e exclusões em todas as rotas do ClienteController, com a aplicação no H2
+ * e o serviço de pedidos simulado pelo WireMock (nenhum cliente tem pedidos, então as exclusões acontecem).
+ * <p>
+ * Modelo aberto: as requisições partem numa taxa fixa, independente das respostas, e a latência conta a partir
+ * do horário em que a requisição deveria ter saído. Assim um servidor travado aparece no p99 em vez de só
+ * reduzir o ritmo do gerador (coordinated omission).
+ * <p>
+ * Rodar com: mvn test -Pbenchmark -Dtest=ClienteCargaMistaBenchmarkTest
+ * Ajustes: -Dbenchmark.taxa=50 (req/s) -Dbenchmark.segundos=30 -Dbenchmark.aquecimento=10
+ * Saída em target/carga/: carga-mista.json (p50/p99/p999 e vazão por rota) e carga-mista.hlog (histogramas
+ * completos do HdrHistogram, para o HistogramLogAnalyzer). Com -Dbenchmark.carga.referencia=<json anterior> o teste
+ * falha se o p99 de alguma rota piorar mais que -Dbenchmark.carga.tolerancia (padrão 0.20, ou seja 20%).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "url.pedido.consumer.feign.client=http://localhost:${wiremock.server.port}",
+        "spring.cloud.openfeign.client.config.PedidoConsumerFeignClient.read-timeout=10000",
+        "resilience4j.bulkhead.instances.pedidos.max-concurrent-calls=100000",
+        "resilience4j.circuitbreaker.instances.pedidos.slow-call-duration-threshold=10s",
+        "spring.datasource.url=jdbc:h2:mem:cliente-carga-mista;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.com.fiap.techchallenger4.mscliente=ERROR",
+        "logging.level.org.hibernate=ERROR"
+})
+@AutoConfigureWireMock(port = 0)
+class ClienteCargaMistaBenchmarkTest {
+
+    private static final int TAXA = Integer.getInteger("benchmark.taxa", 50);
+    private static final Duration MEDICAO = Duration.ofSeconds(Integer.getInteger("benchmark.segundos", 30));
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(Integer.getInteger("benchmark.aquecimento", 10));
+    private static final int CLIENTES_INICIAIS = 2_000;
+    private static final int EM_VOO_MAXIMO = 2_000;
+    private static final int TAMANHO_LOTE = 10;
+    private static final int TAMANHO_LOTE_EXCLUSAO = 5;
+    // Latência simulada do serviço de pedidos: mediana de 5 ms com cauda log-normal.
+    private static final int PEDIDOS_MEDIANA_MS = 5;
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela", "Heitor"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Albuquerque", "Cavalcanti", "Ribeiro"};
+
+    @LocalServerPort
+    private int porta;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private final Clientes clientes = new Clientes();
+
+    // Uma rota com o peso dela na mistura e os status aceitos; 404 só aparece quando uma exclusão concorrente
+    // removeu o cliente sorteado entre o sorteio e a requisição.
+    private record Cenario(String nome, int peso, Set<Integer> aceitos, Supplier<Operacao> operacao) {
+    }
+
+    private record Operacao(HttpRequest requisicao, Consumer<String> aoConcluir) {
+    }
+
+    private record Cliente(long codigo, int numero) {
+    }
+
+    private static final class Medicao {
+        final Histogram latencias = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final AtomicLong erros = new AtomicLong();
+        final Map<Integer, AtomicLong> inesperados = new ConcurrentHashMap<>();
+    }
+
+    @Test
+    void medirCargaMista() throws Exception {
+        stubFor(post(urlPathEqualTo("/cliente/possui-pedidos"))
+                .willReturn(okJson("{\"possui-pedidos\": false}").withLogNormalRandomDelay(PEDIDOS_MEDIANA_MS, 0.4)));
+        stubFor(post(urlPathEqualTo("/cliente/possui-pedidos/lote"))
+                .willReturn(aResponse().withTransformers(SemPedidosNoLote.NOME).withLogNormalRandomDelay(PEDIDOS_MEDIANA_MS, 0.4)));
+        cadastrarIniciais();
+
+        List<Cenario> cenarios = cenarios();
+        executar(cenarios, AQUECIMENTO, null);
+        Map<String, Medicao> medicoes = new LinkedHashMap<>();
+        cenarios.forEach(cenario -> medicoes.put(cenario.nome(), new Medicao()));
+        long inicio = System.currentTimeMillis();
+        long descartadas = executar(cenarios, MEDICAO, medicoes);
+        long fim = System.currentTimeMillis();
+        medicoes.values().forEach(medicao -> {
+            medicao.latencias.setStartTimeStamp(inicio);
+            medicao.latencias.setEndTimeStamp(fim);
+        });
+
+        ObjectNode resultado = relatorio(medicoes, descartadas);
+        File pasta = new File("target/carga");
+        pasta.mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(pasta, "carga-mista.json"), resultado);
+        try (PrintStream log = new PrintStream(new File(pasta, "carga-mista.hlog"))) {
+            HistogramLogWriter escritor = new HistogramLogWriter(log);
+            escritor.outputLogFormatVersion();
+            escritor.outputLegend();
+            medicoes.forEach((nome, medicao) -> {
+                medicao.latencias.setTag(nome);
+                escritor.outputIntervalHistogram(medicao.latencias);
+            });
+        }
+
+        assertEquals(0, descartadas, "Gerador sem vagas: o servidor não acompanhou a taxa de " + TAXA + " req/s");
+        assertEquals(0, medicoes.values().stream().mapToLong(medicao -> medicao.erros.get()).sum(), "Respostas com status inesperado");
+        String referencia = System.getProperty("benchmark.carga.referencia");
+        if (referencia != null) {
+            List<String> regressoes = compararComReferencia(resultado, objectMapper.readTree(new File(referencia)),
+                    Double.parseDouble(System.getProperty("benchmark.carga.tolerancia", "0.20")));
+            assertTrue(regressoes.isEmpty(), "Regressões em relação a " + referencia + ":\n" + String.join("\n", regressoes));
+        }
+    }
+
+    private List<Cenario> cenarios() {
+        Set<Integer> ok = Set.of(200);
+        Set<Integer> okOuExcluido = Set.of(200, 404);
+        Set<Integer> semConteudoOuExcluido = Set.of(204, 404);
+        List<Cenario> cenarios = new ArrayList<>();
+        cenarios.add(new Cenario("GET /{codigo}", 22, okOuExcluido, () -> {
+            Cliente cliente = clientes.sortear();
+            return new Operacao(get("/clientes/" + cliente.codigo()), null);
+        }));
+        cenarios.add(new Cenario("GET /email/{email}", 10, okOuExcluido, () -> new Operacao(get("/clientes/email/" + email(clientes.sortear().numero())), null)));
+        cenarios.add(new Cenario("GET ?cursor", 8, ok, () -> new Operacao(get("/clientes?tamanho=50&cursor=" + cursor(clientes.sortear().codigo())), null)));
+        cenarios.add(new Cenario("GET ?fields", 6, ok, () -> new Operacao(get("/clientes?tamanho=50&fields=nome,email&cursor=" + cursor(clientes.sortear().codigo())), null)));
+        cenarios.add(new Cenario("GET /busca", 8, ok, () -> new Operacao(get("/clientes/busca?nome="
+                + URLEncoder.encode(SOBRENOMES[ThreadLocalRandom.current().nextInt(SOBRENOMES.length)].substring(0, 4), StandardCharsets.UTF_8) + "&estado=SP"), null)));
+        cenarios.add(new Cenario("GET /contagens", 4, ok, () -> new Operacao(get("/clientes/contagens"), null)));
+        cenarios.add(new Cenario("GET /clientes", 1, ok, () -> new Operacao(get("/clientes"), null)));
+        cenarios.add(new Cenario("GET /exportar", 1, ok, () -> new Operacao(get("/clientes/exportar"), null)));
+        cenarios.add(new Cenario("POST /clientes", 10, Set.of(201), () -> {
+            int numero = sequencia.incrementAndGet();
+            return new Operacao(enviar("POST", "/clientes", "application/json", json(cliente(numero))),
+                    corpo -> clientes.adicionar(new Cliente(lerCodigo(corpo), numero)));
+        }));
+        cenarios.add(new Cenario("POST /lote", 2, ok, () -> new Operacao(enviar("POST", "/clientes/lote", "application/json",
+                json(novosClientes().stream().map(this::cliente).toList())), this::adicionarLote)));
+        cenarios.add(new Cenario("POST /lote ndjson", 2, ok, () -> new Operacao(enviar("POST", "/clientes/lote", "application/x-ndjson",
+                novosClientes().stream().map(numero -> json(cliente(numero))).collect(Collectors.joining("\n"))), this::adicionarLote)));
+        cenarios.add(new Cenario("PUT /{codigo}", 6, okOuExcluido, () -> {
+            Cliente cliente = clientes.sortear();
+            return new Operacao(enviar("PUT", "/clientes/" + cliente.codigo(), "application/json", json(cliente(cliente.numero()))), null);
+        }));
+        cenarios.add(new Cenario("PUT /email/{email}", 3, okOuExcluido, () -> {
+            Cliente cliente = clientes.sortear();
+            return new Operacao(enviar("PUT", "/clientes/email/" + email(cliente.numero()), "application/json", json(cliente(cliente.numero()))), null);
+        }));
+        cenarios.add(new Cenario("PATCH /{codigo}", 6, okOuExcluido, () -> new Operacao(enviar("PATCH", "/clientes/" + clientes.sortear().codigo(),
+                "application/merge-patch+json", json(Map.of("telefone", telefone()))), null)));
+        cenarios.add(new Cenario("PATCH /email/{email}", 3, okOuExcluido, () -> new Operacao(enviar("PATCH", "/clientes/email/" + email(clientes.sortear().numero()),
+                "application/merge-patch+json", json(Map.of("telefone", telefone()))), null)));
+        cenarios.add(new Cenario("DELETE /{codigo}", 4, semConteudoOuExcluido, () -> new Operacao(enviar("DELETE", "/clientes/" + clientes.retirar().codigo(), null, null), null)));
+        cenarios.add(new Cenario("DELETE /email/{email}", 2, semConteudoOuExcluido, () -> new Operacao(enviar("DELETE", "/clientes/email/" + email(clientes.retirar().numero()), null, null), null)));
+        cenarios.add(new Cenario("POST /lote/exclusao", 2, ok, () -> new Operacao(enviar("POST", "/clientes/lote/exclusao", "application/json",
+                json(IntStream.range(0, TAMANHO_LOTE_EXCLUSAO).mapToObj(i -> clientes.retirar().codigo()).toList())), null)));
+        return cenarios;
+    }
+
+    // Dispara na taxa configurada até o fim da duração e espera as requisições em andamento. Sem medições é aquecimento.
+    private long executar(List<Cenario> cenarios, Duration duracao, Map<String, Medicao> medicoes) throws InterruptedException {
+        int pesoTotal = cenarios.stream().mapToInt(Cenario::peso).sum();
+        Semaphore vagas = new Semaphore(EM_VOO_MAXIMO);
+        long descartadas = 0;
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / TAXA;
+        long fim = System.nanoTime() + duracao.toNanos();
+        for (long previsto = System.nanoTime(); previsto < fim; previsto += intervalo) {
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) LockSupport.parkNanos(espera);
+
+            Cenario cenario = sortear(cenarios, pesoTotal);
+            if (!vagas.tryAcquire()) {
+                descartadas++;
+                continue;
+            }
+            Operacao operacao = cenario.operacao().get();
+            Medicao medicao = medicoes == null ? null : medicoes.get(cenario.nome());
+            long saida = previsto;
+            http.sendAsync(operacao.requisicao(), HttpResponse.BodyHandlers.ofString()).whenComplete((resposta, erro) -> {
+                try {
+                    boolean aceito = erro == null && cenario.aceitos().contains(resposta.statusCode());
+                    if (aceito && operacao.aoConcluir() != null && resposta.statusCode() < 300) operacao.aoConcluir().accept(resposta.body());
+                    if (medicao != null) {
+                        medicao.latencias.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - saida));
+                        if (!aceito) {
+                            medicao.erros.incrementAndGet();
+                            medicao.inesperados.computeIfAbsent(erro == null ? resposta.statusCode() : -1, status -> new AtomicLong()).incrementAndGet();
+                        }
+                    }
+                } finally {
+                    vagas.release();
+                }
+            });
+        }
+        vagas.acquire(EM_VOO_MAXIMO);
+        return descartadas;
+    }
+
+    private static Cenario sortear(List<Cenario> cenarios, int pesoTotal) {
+        int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Cenario cenario : cenarios) {
+            sorteio -= cenario.peso();
+            if (sorteio < 0) return cenario;
+        }
+        throw new IllegalStateException();
+    }
+
+    private ObjectNode relatorio(Map<String, Medicao> medicoes, long descartadas) {
+        double segundos = MEDICAO.toMillis() / 1000.0;
+        ObjectNode resultado = objectMapper.createObjectNode()
+                .put("taxa", TAXA)
+                .put("segundos", segundos)
+                .put("descartadas", descartadas);
+        ArrayNode rotas = resultado.putArray("rotas");
+        Histogram total = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+
+        System.out.printf("%ntaxa=%d req/s segundos=%.0f descartadas=%d%n", TAXA, segundos, descartadas);
+        System.out.printf("%-22s %10s %10s %10s %10s %10s %10s %8s%n", "rota", "requisicoes", "req/s", "p50_ms", "p99_ms", "p999_ms", "max_ms", "erros");
+        medicoes.forEach((nome, medicao) -> {
+            total.add(medicao.latencias);
+            rotas.add(linha(nome, medicao.latencias, medicao.erros.get(), segundos));
+            if (!medicao.inesperados.isEmpty()) System.out.printf("%-22s status inesperados (-1 = falha de conexão): %s%n", "", medicao.inesperados);
+        });
+        rotas.add(linha("total", total, medicoes.values().stream().mapToLong(medicao -> medicao.erros.get()).sum(), segundos));
+        return resultado;
+    }
+
+    private ObjectNode linha(String nome, Histogram latencias, long erros, double segundos) {
+        ObjectNode linha = objectMapper.createObjectNode()
+                .put("rota", nome)
+                .put("requisicoes", latencias.getTotalCount())
+                .put("porSegundo", latencias.getTotalCount() / segundos)
+                .put("p50Ms", latencias.getValueAtPercentile(50) / 1000.0)
+                .put("p99Ms", latencias.getValueAtPercentile(99) / 1000.0)
+                .put("p999Ms", latencias.getValueAtPercentile(99.9) / 1000.0)
+                .put("maxMs", latencias.getMaxValue() / 1000.0)
+                .put("erros", erros);
+        System.out.printf("%-22s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n", nome, latencias.getTotalCount(),
+                linha.get("porSegundo").asDouble(), linha.get("p50Ms").asDouble(), linha.get("p99Ms").asDouble(),
+                linha.get("p999Ms").asDouble(), linha.get("maxMs").asDouble(), erros);
+        return linha;
+    }
+
+    private static List<String> compararComReferencia(JsonNode atual, JsonNode referencia, double tolerancia) {
+        Map<String, Double> p99Anteriores = new LinkedHashMap<>();
+        referencia.path("rotas").forEach(rota -> p99Anteriores.put(rota.get("rota").asText(), rota.get("p99Ms").asDouble()));
+        List<String> regressoes = new ArrayList<>();
+        atual.path("rotas").forEach(rota -> {
+            Double anterior = p99Anteriores.get(rota.get("rota").asText());
+            double p99 = rota.get("p99Ms").asDouble();
+            if (anterior != null && p99 > anterior * (1 + tolerancia)) {
+                regressoes.add(String.format("%s: p99 %.2f -> %.2f ms", rota.get("rota").asText(), anterior, p99));
+            }
+        });
+        return regressoes;
+    }
+
+    private void cadastrarIniciais() throws Exception {
+        List<Integer> numeros = IntStream.rangeClosed(1, CLIENTES_INICIAIS).map(i -> sequencia.incrementAndGet()).boxed().toList();
+        HttpResponse<String> resposta = http.send(enviar("POST", "/clientes/lote", "application/json",
+                json(numeros.stream().map(this::cliente).toList())), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resposta.statusCode());
+        adicionarLote(resposta.body());
+        assertEquals(CLIENTES_INICIAIS, clientes.quantidade());
+    }
+
+    private List<Integer> novosClientes() {
+        return IntStream.range(0, TAMANHO_LOTE).mapToObj(i -> sequencia.incrementAndGet()).toList();
+    }
+
+    private void adicionarLote(String corpo) {
+        try {
+            for (JsonNode item : objectMapper.readTree(corpo).path("resultados")) {
+                if (item.path("cadastrado").asBoolean()) {
+                    String email = item.get("email").asText();
+                    int numero = Integer.parseInt(email.substring("carga".length(), email.indexOf('@')));
+                    clientes.adicionar(new Cliente(item.get("codigoCliente").asLong(), numero));
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ClienteDtoRequest cliente(int numero) {
+        String nome = NOMES[numero % NOMES.length] + " " + SOBRENOMES[numero / NOMES.length % SOBRENOMES.length];
+        return new ClienteDtoRequest(nome, cpf(numero), email(numero), "01310-100", "Avenida Paulista", String.valueOf(numero % 2000),
+                "", "Bela Vista", "São Paulo", "SP", telefone());
+    }
+
+    private static String email(int numero) {
+        return "carga" + numero + "@email.com";
+    }
+
+    // Nove dígitos a partir do número do cliente e os dois verificadores calculados.
+    private static String cpf(int numero) {
+        int[] digitos = new int[11];
+        String base = String.format("%09d", 100_000_000 + numero);
+        for (int i = 0; i < 9; i++) digitos[i] = base.charAt(i) - '0';
+        for (int verificador = 9; verificador < 11; verificador++) {
+            int soma = 0;
+            for (int i = 0; i < verificador; i++) soma += digitos[i] * (verificador + 1 - i);
+            int resto = soma % 11;
+            digitos[verificador] = resto < 2 ? 0 : 11 - resto;
+        }
+        String cpf = IntStream.of(digitos).mapToObj(String::valueOf).collect(Collectors.joining());
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+    }
+
+    private static String telefone() {
+        return String.format("(11) 9%04d-%04d", ThreadLocalRandom.current().nextInt(10_000), ThreadLocalRandom.current().nextInt(10_000));
+    }
+
+    private static String cursor(long codigo) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(codigo).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long lerCodigo(String corpo) {
+        try {
+            return objectMapper.readTree(corpo).get("codigoCliente").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String json(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho)).GET().build();
+    }
+
+    private HttpRequest enviar(String metodo, String caminho, String tipo, String corpo) {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho));
+        if (tipo != null) requisicao.header("Content-Type", tipo);
+        return requisicao.method(metodo, corpo == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(corpo)).build();
+    }
+
+    // Clientes vivos da carga. As exclusões retiram o cliente daqui antes de enviar o DELETE, então dois DELETEs
+    // nunca disputam o mesmo cliente; leituras e alterações ainda podem pegar um que está sendo excluído (404).
+    private static final class Clientes {
+        private final List<Cliente> vivos = new ArrayList<>();
+
+        synchronized void adicionar(Cliente cliente) {
+            vivos.add(cliente);
+        }
+
+        synchronized Cliente sortear() {
+            return vivos.get(ThreadLocalRandom.current().nextInt(vivos.size()));
+        }
+
+        synchronized Cliente retirar() {
+            int indice = ThreadLocalRandom.current().nextInt(vivos.size());
+            Cliente cliente = vivos.get(indice);
+            vivos.set(indice, vivos.get(vivos.size() - 1));
+            vivos.remove(vivos.size() - 1);
+            return cliente;
+        }
+
+        synchronized int quantidade() {
+            return vivos.size();
+        }
+    }
+
+    // Responde ao /possui-pedidos/lote com false para cada código recebido, no formato do PedidoConsumerFeignClient.
+    public static class SemPedidosNoLote extends ResponseDefinitionTransformer {
+        static final String NOME = "sem-pedidos-no-lote";
+
+        @Override
+        public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+            String codigos = request.getBodyAsString().replaceAll("[\\[\\]\\s]", "");
+            String corpo = codigos.isEmpty() ? "{}" : Arrays.stream(codigos.split(","))
+                    .map(codigo -> "\"" + codigo + "\": false")
+                    .collect(Collectors.joining(", ", "{", "}"));
+            return new ResponseDefinition(200, corpo);
+        }
+
+        @Override
+        public String getName() {
+            return NOME;
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+    }
+
+    @TestConfiguration
+    static class WireMockDaCarga {
+        @Bean
+        WireMockConfigurationCustomizer extensoesDaCarga() {
+            return opcoes -> opcoes.extensions(new SemPedidosNoLote()).notifier(new ConsoleNotifier(false))
+                    .asynchronousResponseEnabled(true).asynchronousResponseThreads(20).containerThreads(100);
+        }
+    }
+}
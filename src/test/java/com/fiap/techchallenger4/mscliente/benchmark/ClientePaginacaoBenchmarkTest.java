@@ -0,0 +1,114 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara paginação por OFFSET com paginação por keyset (cursor em codigoCliente) em profundidades crescentes.
+ * Rodar com: mvn test -Pbenchmark -Dtest=ClientePaginacaoBenchmarkTest
+ * O H2 pula OFFSET sobre a PK usando a contagem dos nós da B-tree, então a diferença real aparece no Postgres:
+ * acrescente -Dspring.profiles.active=dev -Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/mscliente_benchmark
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:h2:mem:cliente-paginacao;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;}",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+class ClientePaginacaoBenchmarkTest {
+
+    private static final int TOTAL_CLIENTES = 200_000;
+    private static final int TAMANHO_PAGINA = 50;
+    private static final int[] PAGINAS = {0, 100, 1_000, 3_999};
+    private static final int AQUECIMENTO = 300;
+    private static final int MEDICOES = 200;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long primeiroCodigo;
+
+    @BeforeAll
+    void popularBase() {
+        List<Object[]> linhas = new ArrayList<>(TOTAL_CLIENTES);
+        for (int i = 0; i < TOTAL_CLIENTES; i++) {
+            linhas.add(new Object[]{i + 1, "Cliente " + i, (long) i, "cliente" + i + "@email.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO clientes (codigo_cliente, nome, cpf, email, cep, logradouro, numero, complemento, bairro, cidade, estado, telefone, data_criacao) " +
+                "VALUES (?, ?, ?, ?, '12345-678', 'Rua A', '1', '', 'Centro', 'São Paulo', 'SP', '(11) 91234-5678', CURRENT_TIMESTAMP)", linhas);
+        primeiroCodigo = jdbcTemplate.queryForObject("SELECT MIN(codigo_cliente) FROM clientes", Long.class);
+    }
+
+    @Test
+    void compararOffsetComKeyset() {
+        for (int pagina : PAGINAS) {
+            long ultimoCodigoAnterior = primeiroCodigo + (long) pagina * TAMANHO_PAGINA - 1;
+            IntStream.range(0, AQUECIMENTO).forEach(i -> {
+                transactionTemplate.execute(s -> paginarPorOffset(pagina));
+                transactionTemplate.execute(s -> paginarPorKeyset(ultimoCodigoAnterior));
+            });
+        }
+
+        System.out.printf("%n%-10s %-12s %15s %15s%n", "pagina", "linhas_puladas", "offset_us(p50)", "keyset_us(p50)");
+        for (int pagina : PAGINAS) {
+            long ultimoCodigoAnterior = primeiroCodigo + (long) pagina * TAMANHO_PAGINA - 1;
+
+            List<ClienteEntity> porOffset = transactionTemplate.execute(s -> paginarPorOffset(pagina));
+            List<ClienteEntity> porKeyset = transactionTemplate.execute(s -> paginarPorKeyset(ultimoCodigoAnterior));
+            assertEquals(porOffset.get(0).getCodigoCliente(), porKeyset.get(0).getCodigoCliente());
+
+            long offset = medianaEmMicros(() -> transactionTemplate.execute(s -> paginarPorOffset(pagina)));
+            long keyset = medianaEmMicros(() -> transactionTemplate.execute(s -> paginarPorKeyset(ultimoCodigoAnterior)));
+            System.out.printf("%-10d %-12d %15d %15d%n", pagina, pagina * TAMANHO_PAGINA, offset, keyset);
+        }
+    }
+
+    private List<ClienteEntity> paginarPorOffset(int pagina) {
+        return entityManager.createQuery("select c from ClienteEntity c order by c.codigoCliente", ClienteEntity.class)
+                .setFirstResult(pagina * TAMANHO_PAGINA)
+                .setMaxResults(TAMANHO_PAGINA)
+                .getResultList();
+    }
+
+    private List<ClienteEntity> paginarPorKeyset(long ultimoCodigo) {
+        return clienteRepository.findByCodigoClienteGreaterThanOrderByCodigoClienteAsc(ultimoCodigo, Limit.of(TAMANHO_PAGINA));
+    }
+
+    private long medianaEmMicros(Supplier<?> consulta) {
+        long[] tempos = new long[MEDICOES];
+        for (int i = 0; i < MEDICOES; i++) {
+            long inicio = System.nanoTime();
+            consulta.get();
+            tempos[i] = (System.nanoTime() - inicio) / 1_000;
+        }
+        Arrays.sort(tempos);
+        return tempos[MEDICOES / 2];
+    }
+}
@@ -0,0 +1,232 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteItemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
+import com.fiap.techchallenger4.mscliente.domain.services.ClienteService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão do {@link ClienteService} com várias threads disputando o pool de conexões, sem HTTP nem cache no caminho:
+ * cadastro em lote (batch de INSERTs), atualização parcial (UPDATE por flush), atualização completa (UPDATE em
+ * massa) e leitura paginada. Rodar o mesmo cenário no Postgres do docker-compose (porta 5432 exposta) com o profile
+ * dev e com o prod, e comparar ops/s e p99 por operação:
+ * mvn test -Pbenchmark -Dtest=ClienteServiceCargaBenchmarkTest -Dspring.profiles.active=dev
+ * mvn test -Pbenchmark -Dtest=ClienteServiceCargaBenchmarkTest -Dspring.profiles.active=prod
+ * Sem profile roda no H2 do local, o que só confere o harness: as configurações do PgJDBC não se aplicam.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "logging.level.com.fiap.techchallenger4.mscliente=ERROR",
+        "logging.level.org.hibernate.engine.jdbc=OFF"
+})
+class ClienteServiceCargaBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(5);
+    private static final Duration MEDICAO = Duration.ofSeconds(Long.getLong("benchmark.segundos", 20));
+    private static final int CLIENTES_INICIAIS = 2_000;
+    private static final int TAMANHO_LOTE = 100;
+    private static final int TAMANHO_PAGINA = 50;
+    private static final String[] OPERACOES = {"cadastro_lote", "patch", "put", "pagina"};
+    // Mistura por ciclo de 10 operações: 1 lote, 4 patch, 2 put, 3 páginas.
+    private static final int[] MISTURA = {0, 1, 1, 1, 1, 2, 2, 3, 3, 3};
+
+    @Autowired
+    private ClienteService clienteService;
+    @Autowired
+    private HikariDataSource dataSource;
+    @Autowired
+    private Environment environment;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:1}")
+    private int batchSize;
+    @Value("${spring.jpa.properties.hibernate.order_updates:false}")
+    private boolean orderUpdates;
+
+    // Prefixo de CPF/email por execução, para repetir o cenário na mesma base sem colidir com execuções anteriores.
+    private final long execucao = ThreadLocalRandom.current().nextLong(100, 1_000);
+    private final AtomicLong sequencia = new AtomicLong();
+    // Maior fila de threads esperando conexão do Hikari durante a medição: pool pequeno demais aparece aqui.
+    private final AtomicInteger maiorEsperaPorConexao = new AtomicInteger();
+
+    @Test
+    void medirVazaoPorOperacao() throws Exception {
+        List<Map.Entry<Long, ClienteDtoRequest>> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES_INICIAIS / TAMANHO_LOTE; i++) {
+            clientes.addAll(cadastrarLote());
+        }
+
+        executar(clientes, AQUECIMENTO);
+        maiorEsperaPorConexao.set(0);
+        Resultado[] resultados = executar(clientes, MEDICAO);
+
+        System.out.printf("%nperfil=%s pool=%d batch_size=%d order_updates=%s prepareThreshold=%s threads=%d cores=%d%n",
+                String.join(",", environment.getActiveProfiles()), dataSource.getMaximumPoolSize(), batchSize, orderUpdates,
+                dataSource.getDataSourceProperties().getProperty("prepareThreshold", "-"), THREADS,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-14s %-10s %-10s %-10s %-8s%n", "operacao", "ops/s", "p50_ms", "p99_ms", "erros");
+        int erros = 0;
+        for (int i = 0; i < OPERACOES.length; i++) {
+            Resultado resultado = resultados[i];
+            System.out.printf("%-14s %-10.0f %-10.2f %-10.2f %-8d%n", OPERACOES[i], resultado.quantidade() / (double) MEDICAO.toSeconds(),
+                    resultado.percentil(0.50), resultado.percentil(0.99), resultado.erros());
+            erros += resultado.erros();
+        }
+        System.out.printf("maior fila por conexao: %d threads%n", maiorEsperaPorConexao.get());
+        assertEquals(0, erros);
+    }
+
+    private Resultado[] executar(List<Map.Entry<Long, ClienteDtoRequest>> clientes, Duration duracao) throws InterruptedException {
+        long fim = System.nanoTime() + duracao.toNanos();
+        List<long[]>[] tempos = new List[OPERACOES.length];
+        AtomicInteger[] erros = new AtomicInteger[OPERACOES.length];
+        for (int i = 0; i < OPERACOES.length; i++) {
+            tempos[i] = new ArrayList<>();
+            erros[i] = new AtomicInteger();
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int deslocamento = t;
+            Thread thread = new Thread(() -> {
+                long[][] locais = new long[OPERACOES.length][1_024];
+                int[] quantidades = new int[OPERACOES.length];
+                for (int ciclo = deslocamento; System.nanoTime() < fim; ciclo++) {
+                    int operacao = MISTURA[ciclo % MISTURA.length];
+                    long inicio = System.nanoTime();
+                    try {
+                        executar(operacao, clientes);
+                    } catch (VersaoDesatualizada e) {
+                        // Duas threads alterando o mesmo cliente: conflito esperado do controle otimista, não erro.
+                    } catch (Exception e) {
+                        erros[operacao].incrementAndGet();
+                        continue;
+                    }
+                    if (quantidades[operacao] == locais[operacao].length) {
+                        locais[operacao] = Arrays.copyOf(locais[operacao], locais[operacao].length * 2);
+                    }
+                    locais[operacao][quantidades[operacao]++] = System.nanoTime() - inicio;
+                }
+                for (int i = 0; i < OPERACOES.length; i++) {
+                    synchronized (tempos[i]) {
+                        tempos[i].add(Arrays.copyOf(locais[i], quantidades[i]));
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        Thread amostragem = new Thread(() -> {
+            while (System.nanoTime() < fim) {
+                maiorEsperaPorConexao.accumulateAndGet(dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        amostragem.setDaemon(true);
+        amostragem.start();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        amostragem.interrupt();
+
+        Resultado[] resultados = new Resultado[OPERACOES.length];
+        for (int i = 0; i < OPERACOES.length; i++) {
+            long[] todos = tempos[i].stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            resultados[i] = new Resultado(todos, erros[i].get());
+        }
+        return resultados;
+    }
+
+    private void executar(int operacao, List<Map.Entry<Long, ClienteDtoRequest>> clientes) throws Exception {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        Map.Entry<Long, ClienteDtoRequest> cliente = clientes.get(aleatorio.nextInt(clientes.size()));
+        switch (operacao) {
+            case 0 -> cadastrarLote();
+            case 1 -> clienteService.atualizarParcialmentePorCodigo(cliente.getKey(), Map.of("telefone", telefone(aleatorio)), null);
+            case 2 -> {
+                ClienteDtoRequest dados = cliente.getValue();
+                clienteService.atualizarClientePorCodigo(cliente.getKey(), new ClienteDtoRequest(dados.nome(), dados.cpf(), dados.email(),
+                        dados.cep(), dados.logradouro(), String.valueOf(aleatorio.nextInt(1, 9_999)), dados.complemento(),
+                        dados.bairro(), dados.cidade(), dados.estado(), dados.telefone()), null);
+            }
+            default -> clienteService.listarClientesPaginados(cursor(cliente.getKey()), TAMANHO_PAGINA);
+        }
+    }
+
+    private List<Map.Entry<Long, ClienteDtoRequest>> cadastrarLote() throws Exception {
+        List<ClienteDtoRequest> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 0; i < TAMANHO_LOTE; i++) {
+            long numero = sequencia.incrementAndGet();
+            lote.add(new ClienteDtoRequest("Cliente Carga " + numero, cpf(execucao * 1_000_000 + numero),
+                    "carga" + execucao + "." + numero + "@email.com", "12345-678", "Rua A", "1", "", "Centro", "São Paulo", "SP",
+                    "(11) 91234-5678"));
+        }
+        ClienteLoteDtoResponse resposta = clienteService.cadastrarClientesEmLote(lote);
+        if (resposta.rejeitados() > 0) {
+            throw new IllegalStateException(resposta.resultados().stream().filter(item -> !item.cadastrado())
+                    .findFirst().map(ClienteLoteItemDtoResponse::mensagem).orElse(""));
+        }
+        List<Map.Entry<Long, ClienteDtoRequest>> cadastrados = new ArrayList<>(TAMANHO_LOTE);
+        for (ClienteLoteItemDtoResponse item : resposta.resultados()) {
+            cadastrados.add(Map.entry(item.codigoCliente(), lote.get(item.linha() - 1)));
+        }
+        return cadastrados;
+    }
+
+    private static String cursor(long codigoCliente) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(codigoCliente).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String telefone(ThreadLocalRandom aleatorio) {
+        return String.format("(11) 9%04d-%04d", aleatorio.nextInt(10_000), aleatorio.nextInt(10_000));
+    }
+
+    private static String cpf(long base) {
+        String digitos = String.format("%09d", base);
+        int[] d = new int[11];
+        for (int i = 0; i < 9; i++) d[i] = digitos.charAt(i) - '0';
+        for (int posicao = 9; posicao < 11; posicao++) {
+            int soma = 0;
+            for (int i = 0; i < posicao; i++) soma += d[i] * (posicao + 1 - i);
+            int resto = soma % 11;
+            d[posicao] = resto < 2 ? 0 : 11 - resto;
+        }
+        return String.format("%d%d%d.%d%d%d.%d%d%d-%d%d", d[0], d[1], d[2], d[3], d[4], d[5], d[6], d[7], d[8], d[9], d[10]);
+    }
+
+    private record Resultado(long[] tempos, int erros) {
+
+        int quantidade() {
+            return tempos.length;
+        }
+
+        double percentil(double p) {
+            if (tempos.length == 0) return 0;
+            return tempos[(int) Math.min(tempos.length - 1, Math.floor(p * tempos.length))] / 1_000_000.0;
+        }
+    }
+}
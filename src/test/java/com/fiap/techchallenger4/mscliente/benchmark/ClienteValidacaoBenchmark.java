@@ -0,0 +1,88 @@
+package com.fiap.techchallenger4.mscliente.benchmark;
+
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.validation.ClienteValidador;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a validação antiga (String.matches, que compila o Pattern a cada chamada) com o {@link ClienteValidador}.
+ * Rodar com: mvn test -Pbenchmark -Dtest=ClienteValidacaoBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClienteValidacaoBenchmark {
+
+    private final ClienteDtoRequest valido = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria.silva@example.com",
+            "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+    private final ClienteDtoRequest invalido = new ClienteDtoRequest("", "123.456.789", "maria@example", "1234-567",
+            "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-432");
+
+    @Benchmark
+    public List<String> regexValido() {
+        return validarComRegex(valido);
+    }
+
+    @Benchmark
+    public List<String> validadorValido() {
+        return ClienteValidador.violacoes(valido);
+    }
+
+    @Benchmark
+    public List<String> regexInvalido() {
+        return validarComRegex(invalido);
+    }
+
+    @Benchmark
+    public List<String> validadorInvalido() {
+        return ClienteValidador.violacoes(invalido);
+    }
+
+    // Reproduz o caminho anterior, reunindo todas as violações para comparar o mesmo trabalho.
+    private static List<String> validarComRegex(ClienteDtoRequest dto) {
+        List<String> violacoes = new ArrayList<>();
+        if (dto.nome().isBlank()) violacoes.add("Nome não pode ser vazio.");
+        if (dto.cpf().isBlank() || !dto.cpf().matches("\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}"))
+            violacoes.add("CPF inválido ou vazio. Deve estar no formato XXX.XXX.XXX-XX.");
+        if (dto.email().isBlank() || !dto.email().matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}$"))
+            violacoes.add("Email inválido ou vazio. Formato esperado: exemplo@dominio.com");
+        if (dto.cep().isBlank() || !dto.cep().matches("\\d{5}-\\d{3}"))
+            violacoes.add("CEP inválido ou vazio. Deve estar no formato XXXXX-XXX.");
+        if (dto.logradouro().isBlank()) violacoes.add("Logradouro não pode ser vazio.");
+        if (dto.numero().isBlank()) violacoes.add("Número não pode ser vazio.");
+        if (dto.bairro().isBlank()) violacoes.add("Bairro não pode ser vazio.");
+        if (dto.cidade().isBlank()) violacoes.add("Cidade não pode ser vazia.");
+        if (dto.estado().isBlank()) violacoes.add("Estado não pode ser vazio.");
+        if (dto.telefone().isBlank() || !dto.telefone().matches("\\(\\d{2}\\) 9?\\d{4}-\\d{4}"))
+            violacoes.add("Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX.");
+        return violacoes;
+    }
+
+    @Test
+    void executar() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ClienteValidacaoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
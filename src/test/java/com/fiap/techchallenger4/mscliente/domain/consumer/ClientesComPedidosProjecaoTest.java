@@ -0,0 +1,112 @@
+package com.fiap.techchallenger4.mscliente.domain.consumer;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClientesComPedidosProjecaoTest {
+
+    private ClientesComPedidosProjecao projecao;
+    private PedidoConsumerFeignClient feignClient;
+    private PedidoConsumer pedidoConsumer;
+
+    @BeforeEach
+    void setUp() {
+        projecao = new ClientesComPedidosProjecao(true);
+        feignClient = mock(PedidoConsumerFeignClient.class);
+        pedidoConsumer = new PedidoConsumer(feignClient, projecao, BulkheadRegistry.ofDefaults(),
+                CircuitBreakerRegistry.ofDefaults(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void deveResponderSomenteQuemTemPedidosEnquantoFria() {
+        projecao.aplicar(new PedidoEvento(1L, true));
+
+        assertFalse(projecao.isAquecida());
+        assertEquals(Boolean.TRUE, projecao.possuiPedidos(1L));
+        assertNull(projecao.possuiPedidos(2L));
+    }
+
+    @Test
+    void deveResponderTodosOsClientesDepoisDoSnapshot() {
+        projecao.aplicar(new PedidoEvento(1L, true));
+        projecao.carregar(new PedidoSnapshotEvento(List.of(3L)));
+
+        assertTrue(projecao.isAquecida());
+        assertEquals(Boolean.TRUE, projecao.possuiPedidos(1L));
+        assertEquals(Boolean.FALSE, projecao.possuiPedidos(2L));
+        assertEquals(Boolean.TRUE, projecao.possuiPedidos(3L));
+
+        projecao.aplicar(new PedidoEvento(3L, false));
+        assertEquals(Boolean.FALSE, projecao.possuiPedidos(3L));
+    }
+
+    @Test
+    void naoDeveAquecerComSnapshotVazioNemAplicarEventoSemPossuiPedidos() {
+        projecao.aplicar(new PedidoEvento(1L, true));
+        projecao.carregar(new PedidoSnapshotEvento(List.of()));
+        projecao.aplicar(new PedidoEvento(1L, null));
+
+        assertFalse(projecao.isAquecida());
+        assertEquals(Boolean.TRUE, projecao.possuiPedidos(1L));
+        assertNull(projecao.possuiPedidos(2L));
+    }
+
+    @Test
+    void naoDeveResponderNemGuardarEventosSemInstanciaUnica() throws BusinessException {
+        ClientesComPedidosProjecao desativada = new ClientesComPedidosProjecao(false);
+        PedidoConsumer consumer = new PedidoConsumer(feignClient, desativada, BulkheadRegistry.ofDefaults(),
+                CircuitBreakerRegistry.ofDefaults(), new SimpleMeterRegistry());
+        desativada.aplicar(new PedidoEvento(1L, true));
+        desativada.carregar(new PedidoSnapshotEvento(List.of(1L)));
+        when(feignClient.clientePossuiPedidos(2L)).thenReturn(Map.of("possui-pedidos", true));
+
+        assertFalse(desativada.isAquecida());
+        assertNull(desativada.possuiPedidos(1L));
+        assertTrue(consumer.clientePossuiPedidos(2L));
+        verify(feignClient).clientePossuiPedidos(2L);
+    }
+
+    @Test
+    void naoDeveResponderCodigosForaDoBitmap() {
+        projecao.carregar(new PedidoSnapshotEvento(List.of(1L)));
+
+        assertNull(projecao.possuiPedidos(Integer.MAX_VALUE + 1L));
+        assertNull(projecao.possuiPedidos(null));
+    }
+
+    @Test
+    void deveConsultarServicoDePedidosSomenteComProjecaoFria() throws BusinessException {
+        when(feignClient.clientePossuiPedidos(2L)).thenReturn(Map.of("possui-pedidos", false));
+
+        assertFalse(pedidoConsumer.clientePossuiPedidos(2L));
+        verify(feignClient, times(1)).clientePossuiPedidos(2L);
+
+        projecao.carregar(new PedidoSnapshotEvento(List.of(1L)));
+
+        assertTrue(pedidoConsumer.clientePossuiPedidos(1L));
+        assertFalse(pedidoConsumer.clientePossuiPedidos(2L));
+        verify(feignClient, times(1)).clientePossuiPedidos(any());
+    }
+
+    @Test
+    void deveEnviarAoServicoDePedidosSomenteCodigosQueAProjecaoNaoConhece() throws BusinessException {
+        projecao.aplicar(new PedidoEvento(1L, true));
+        when(feignClient.clientesPossuemPedidos(List.of(2L, 3L))).thenReturn(Map.of(2L, false));
+
+        Map<Long, Boolean> pedidos = pedidoConsumer.clientesPossuemPedidos(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, true, 2L, false), pedidos);
+        verify(feignClient).clientesPossuemPedidos(List.of(2L, 3L));
+    }
+}
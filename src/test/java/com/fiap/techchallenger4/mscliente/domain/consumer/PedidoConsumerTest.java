@@ -0,0 +1,138 @@
+package com.fiap.techchallenger4.mscliente.domain.consumer;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "url.pedido.consumer.feign.client=http://localhost:${wiremock.server.port}",
+        "spring.cloud.openfeign.client.config.PedidoConsumerFeignClient.read-timeout=500",
+        "resilience4j.bulkhead.instances.pedidos.max-concurrent-calls=2",
+        "resilience4j.circuitbreaker.instances.pedidos.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.pedidos.minimum-number-of-calls=4",
+        "resilience4j.circuitbreaker.instances.pedidos.wait-duration-in-open-state=60s"
+})
+@AutoConfigureWireMock(port = 0)
+class PedidoConsumerTest {
+
+    private static final String POSSUI_PEDIDOS = "/cliente/possui-pedidos";
+
+    @Autowired
+    private PedidoConsumer pedidoConsumer;
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker(PedidoConsumer.PEDIDOS).reset();
+        resetAllRequests();
+    }
+
+    @Test
+    void deveInformarSeClientePossuiPedidos() throws BusinessException {
+        stubFor(post(urlPathEqualTo(POSSUI_PEDIDOS)).withQueryParam("codigoCliente", equalTo("1"))
+                .willReturn(okJson("{\"possui-pedidos\": true}")));
+        stubFor(post(urlPathEqualTo(POSSUI_PEDIDOS)).withQueryParam("codigoCliente", equalTo("2"))
+                .willReturn(okJson("{\"possui-pedidos\": false}")));
+
+        assertTrue(pedidoConsumer.clientePossuiPedidos(1L));
+        assertFalse(pedidoConsumer.clientePossuiPedidos(2L));
+    }
+
+    @Test
+    void deveConsultarPedidosDeVariosClientesEmUmaChamada() throws BusinessException {
+        stubFor(post(urlPathEqualTo(POSSUI_PEDIDOS + "/lote")).withRequestBody(equalToJson("[1, 2, 3]"))
+                .willReturn(okJson("{\"1\": true, \"2\": false}")));
+
+        Map<Long, Boolean> pedidos = pedidoConsumer.clientesPossuemPedidos(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, true, 2L, false), pedidos);
+        verify(1, postRequestedFor(urlPathEqualTo(POSSUI_PEDIDOS + "/lote")));
+    }
+
+    @Test
+    void deveRecusarQuandoRespostaNaoInformaSePossuiPedidos() {
+        stubFor(post(urlPathEqualTo(POSSUI_PEDIDOS)).willReturn(okJson("{\"possui-pedidos\": null}")));
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> pedidoConsumer.clientePossuiPedidos(1L));
+        assertEquals(PedidoConsumer.INDISPONIVEL, exception.getMessage());
+    }
+
+    @Test
+    void deveRecusarSemEsperarQuandoServicoDePedidosDemora() {
+        stubFor(post(urlPathEqualTo(POSSUI_PEDIDOS)).willReturn(okJson("{\"possui-pedidos\": false}").withFixedDelay(3_000)));
+
+        long inicio = System.nanoTime();
+        assertThrows(BusinessException.class, () -> pedidoConsumer.clientePossuiPedidos(1L));
+        assertTrue((System.nanoTime() - inicio) / 1_000_000 < 2_000, "deveria respeitar o read-timeout");
+    }
+
+    @Test
+    void deveAbrirCircuitoAposFalhasSeguidasSemChamarOServico() {
+        stubFor(post(urlPathEqualTo(POSSUI_PEDIDOS)).willReturn(serverError()));
+        double transicoesAntes = transicoesParaAberto();
+
+        IntStream.range(0, 4).forEach(i -> assertThrows(BusinessException.class, () -> pedidoConsumer.clientePossuiPedidos(1L)));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker(PedidoConsumer.PEDIDOS).getState());
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> pedidoConsumer.clientePossuiPedidos(1L));
+        assertEquals(PedidoConsumer.INDISPONIVEL, exception.getMessage());
+        verify(4, postRequestedFor(urlPathEqualTo(POSSUI_PEDIDOS)));
+
+        assertEquals(transicoesAntes + 1, transicoesParaAberto());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", PedidoConsumer.PEDIDOS).tag("state", "open").gauge().value());
+        assertTrue(meterRegistry.get("resilience4j.circuitbreaker.calls")
+                .tag("name", PedidoConsumer.PEDIDOS).tag("kind", "failed").timer().count() >= 4);
+    }
+
+    @Test
+    void deveLimitarChamadasSimultaneasAoServicoDePedidos() throws Exception {
+        stubFor(post(urlPathEqualTo(POSSUI_PEDIDOS)).willReturn(okJson("{\"possui-pedidos\": false}").withFixedDelay(300)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Callable<Boolean>> chamadas = IntStream.range(0, 5)
+                    .<Callable<Boolean>>mapToObj(i -> () -> pedidoConsumer.clientePossuiPedidos(1L))
+                    .toList();
+            long recusadas = 0;
+            for (Future<Boolean> chamada : executor.invokeAll(chamadas)) {
+                try {
+                    chamada.get();
+                } catch (Exception e) {
+                    recusadas++;
+                }
+            }
+
+            assertTrue(recusadas >= 3, "bulkhead deveria recusar as chamadas além do limite");
+            assertTrue(findAll(postRequestedFor(urlPathEqualTo(POSSUI_PEDIDOS))).size() <= 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double transicoesParaAberto() {
+        var contador = meterRegistry.find("resilience4j.circuitbreaker.transitions")
+                .tag("name", PedidoConsumer.PEDIDOS).tag("to", "open").counter();
+        return contador == null ? 0 : contador.count();
+    }
+}
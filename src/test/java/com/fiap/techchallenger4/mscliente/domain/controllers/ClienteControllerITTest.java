@@ -1,16 +1,39 @@
 package com.fiap.techchallenger4.mscliente.domain.controllers;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.server.LocalServerPort;
@@ -19,23 +42,54 @@ import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumerFeignCli
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
 import static io.restassured.RestAssured.given;
 
+import jakarta.persistence.EntityManagerFactory;
+
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
 
 @Profile("local")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
 class ClienteControllerITTest {
 	@LocalServerPort
     private int porta;
 
 	@MockBean
 	PedidoConsumerFeignClient feignClient;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     @BeforeEach
     void setUp() {
         RestAssured.port = porta;
         RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
     }
 
+    // Comandos JDBC preparados durante a requisição, contados pelas estatísticas do Hibernate.
+    private long contarComandosSql(Runnable requisicao) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        estatisticas.setStatisticsEnabled(true);
+        try {
+            requisicao.run();
+            return estatisticas.getPrepareStatementCount();
+        } finally {
+            estatisticas.setStatisticsEnabled(false);
+        }
+    }
+
+    private int cadastrar(ClienteDtoRequest cliente) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(cliente)
+        .when()
+                .post("/clientes")
+        .then()
+                .statusCode(HttpStatus.SC_CREATED)
+                .extract().path("codigoCliente");
+    }
+
     @Nested
     class BuscarClientes {
         @Test
@@ -48,6 +102,42 @@ class ClienteControllerITTest {
                         .statusCode(HttpStatus.SC_OK);
         }
 
+        @Test
+        void deveListarClientesSoComOsCamposPedidos() {
+            given()
+                    .queryParam("fields", "nome,cpf")
+                    .queryParam("tamanho", 2)
+            .when()
+                    .get("/clientes")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("clientes", hasSize(2))
+                    .body("clientes[0].keySet()", containsInAnyOrder("codigoCliente", "nome", "cpf"))
+                    .body("clientes[0].cpf", matchesPattern("\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}"))
+                    .body("proximoCursor", notNullValue());
+
+            given()
+                    .pathParam("codigoCliente", 5)
+                    .queryParam("fields", "email")
+            .when()
+                    .get("/clientes/{codigoCliente}")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .header("ETag", notNullValue())
+                    .body("keySet()", containsInAnyOrder("codigoCliente", "email"));
+        }
+
+        @Test
+        void deveExportarClientesEmNdjson() {
+            given()
+            .when()
+                    .get("/clientes/exportar")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .contentType("application/x-ndjson")
+                    .body(containsString("\"email\":\"pedro.santos@email.com\""));
+        }
+
         @Test
         void deveBuscarClientePorCodigoCliente() {
             int expectedId = 5;
@@ -84,6 +174,75 @@ class ClienteControllerITTest {
                     .body("email", equalTo(email));
         }
 
+        @Test
+        void deveBuscarClientePorEmailSemDiferenciarMaiusculas() {
+            given()
+                    .pathParam("email", "Pedro.Santos@EMAIL.com")
+            .when()
+                    .get("/clientes/email/{email}")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("codigoCliente", equalTo(5))
+                    .body("email", equalTo("pedro.santos@email.com"));
+        }
+
+        @Test
+        void deveBuscarClientesPorParteDoNomeInclusiveComErroDeDigitacao() {
+            int codigo = cadastrar(new ClienteDtoRequest(
+                    "Quitéria Albuquerque", "662.607.015-00", "quiteria.albuquerque@email.com", "98765-432",
+                    "Rua Três", "30", "", "Centro", "Recife", "PE", "(81) 98765-4444"));
+
+            given()
+                    .queryParam("nome", "albuquer")
+                    .queryParam("estado", "pe")
+            .when()
+                    .get("/clientes/busca")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("clientes.codigoCliente", hasItem(codigo));
+
+            given()
+                    .queryParam("nome", "albuqerque")
+            .when()
+                    .get("/clientes/busca")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("clientes[0].codigoCliente", equalTo(codigo));
+        }
+
+        @Test
+        void deveRecontarClientesDepoisDeUmCadastro() {
+            int totalAntes = given().get("/clientes/contagens").then().statusCode(HttpStatus.SC_OK).extract().path("total");
+
+            cadastrar(new ClienteDtoRequest(
+                    "Raimunda Tocantins", "268.913.460-88", "raimunda.tocantins@email.com", "77001-002",
+                    "Quadra 104 Norte", "5", "", "Plano Diretor Norte", "Palmas", "TO", "(63) 98765-1111"));
+
+            given()
+            .when()
+                    .get("/clientes/contagens")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("total", equalTo(totalAntes + 1))
+                    .body("porEstado.find { it.estado == 'TO' }.cidades.find { it.valor == 'Palmas' }.quantidade", equalTo(1))
+                    .body("porMes.valor", hasItem(YearMonth.now().toString()));
+        }
+
+        @Test
+        void deveExporMetricasDoCacheDeClientes() {
+            given().pathParam("codigoCliente", 3).get("/clientes/{codigoCliente}");
+            given().pathParam("codigoCliente", 3).get("/clientes/{codigoCliente}");
+
+            given()
+                    .queryParam("tag", "cache:clientesPorCodigo")
+                    .queryParam("tag", "result:hit")
+            .when()
+                    .get("/actuator/metrics/cache.gets")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("measurements[0].value", greaterThanOrEqualTo(1.0f));
+        }
+
         @Test
         void naoDeveBuscarClientePorEmailInexistente() {
             String emailInexistente = "inexistente@example.com";
@@ -103,7 +262,7 @@ class ClienteControllerITTest {
         void deveCadastrarClienteComDadosNovos() {
             // Prepara o corpo da requisição com dados novos e únicos
             ClienteDtoRequest novoCliente = new ClienteDtoRequest(
-                    "Roberta Campos", "999.888.777-66", "roberta.campos@email.com", "98765-432",
+                    "Roberta Campos", "999.888.777-14", "roberta.campos@email.com", "98765-432",
                     "Avenida Nova", "200", "Casa 20", "Novo Bairro", "Curitiba", "PR", "(41) 98765-4321"
             );
 
@@ -118,6 +277,79 @@ class ClienteControllerITTest {
                     .body("nome", is("Roberta Campos"));   // Verifica se o nome retornado na resposta é correto
         }
 
+        @Test
+        void deveCadastrarClientesEmLoteInformandoOsRejeitados() {
+            ClienteDtoRequest novo = new ClienteDtoRequest(
+                    "Helena Prado", "111.222.333-96", "helena.prado@email.com", "98765-432",
+                    "Rua Um", "10", "", "Centro", "Curitiba", "PR", "(41) 98765-1111");
+            ClienteDtoRequest emailExistente = new ClienteDtoRequest(
+                    "Outro Pedro", "555.666.777-20", "pedro.santos@email.com", "98765-432",
+                    "Rua Dois", "20", "", "Centro", "Curitiba", "PR", "(41) 98765-2222");
+
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(List.of(novo, emailExistente))
+            .when()
+                    .post("/clientes/lote")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("cadastrados", is(1))
+                    .body("resultados[0].codigoCliente", notNullValue())
+                    .body("resultados[1].mensagem", is("Email já cadastrado."));
+        }
+
+        @Test
+        void deveCadastrarApenasUmClienteQuandoRequisicoesConcorrentesUsamOMesmoCpf() throws Exception {
+            int requisicoes = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(requisicoes);
+            CountDownLatch largada = new CountDownLatch(1);
+            try {
+                List<Future<Response>> respostas = IntStream.range(0, requisicoes)
+                        .mapToObj(i -> executor.submit(() -> {
+                            largada.await();
+                            return given()
+                                    .contentType(ContentType.JSON)
+                                    .body(new ClienteDtoRequest(
+                                            "Cliente Concorrente " + i, "222.333.444-05", "concorrente" + i + "@email.com", "98765-432",
+                                            "Rua Três", "30", "", "Centro", "Curitiba", "PR", "(41) 98765-3333"))
+                                    .post("/clientes");
+                        }))
+                        .toList();
+                largada.countDown();
+
+                List<Integer> status = new ArrayList<>();
+                for (Future<Response> resposta : respostas) {
+                    Response response = resposta.get(30, TimeUnit.SECONDS);
+                    status.add(response.statusCode());
+                    if (response.statusCode() == HttpStatus.SC_BAD_REQUEST)
+                        assertThat(response.jsonPath().getString("message"), containsString("CPF já cadastrado"));
+                }
+
+                assertThat(Collections.frequency(status, HttpStatus.SC_CREATED), is(1));
+                assertThat(Collections.frequency(status, HttpStatus.SC_BAD_REQUEST), is(requisicoes - 1));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        void naoDeveCadastrarEmailQueSoDifereEmMaiusculas() {
+            cadastrar(new ClienteDtoRequest(
+                    "Irene Lopes", "577.215.664-01", "irene.lopes@email.com", "98765-432",
+                    "Rua Dois", "20", "", "Centro", "Curitiba", "PR", "(41) 98765-2222"));
+            ClienteDtoRequest mesmoEmail = new ClienteDtoRequest(
+                    "Outra Irene", "173.205.080-52", "Irene.LOPES@email.com", "98765-432",
+                    "Rua Dois", "22", "", "Centro", "Curitiba", "PR", "(41) 98765-3333");
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(mesmoEmail)
+            .when()
+                    .post("/clientes")
+            .then()
+                    .statusCode(HttpStatus.SC_BAD_REQUEST)
+                    .body("message", is("Email já cadastrado."));
+        }
+
         @Test
         void naoDeveCadastrarClienteComDadosInvalidos() {
             given()
@@ -137,7 +369,7 @@ class ClienteControllerITTest {
             int codigoCliente = 2; // Este deve ser o ID de Maria Oliveira que você quer atualizar
             ClienteDtoRequest clienteAtualizado = new ClienteDtoRequest(
                     "Maria Oliveira", // Nome que pode ser atualizado
-                    "987.654.321-98", // Mantém o CPF original
+                    "987.654.320-29", // Mantém o CPF original
                     "maria.updated@email.com", // Novo email para teste
                     "98765-432", "Avenida Brasil Atualizada", "200", "Casa 2", "Jardim Novo",
                     "Rio de Janeiro", "RJ", "(21) 99876-5432" // Outros campos atualizados
@@ -170,7 +402,7 @@ class ClienteControllerITTest {
         void deveAtualizarClientePorEmailComSucesso() {
             String emailOriginal = "maria.oliveira@email.com";
             ClienteDtoRequest clienteDto = new ClienteDtoRequest(
-                    "Maria Oliveira Atualizada", "987.654.321-98", "maria.new@email.com",
+                    "Maria Oliveira Atualizada", "987.654.320-29", "maria.new@email.com",
                     "98765-432", "Avenida Brasil Atualizada", "200", "Casa 2", "Jardim Novo",
                     "Rio de Janeiro", "RJ", "(21) 99876-5432"
             );
@@ -186,11 +418,119 @@ class ClienteControllerITTest {
                     .body("email", is(clienteDto.email()));
         }
 
+        @Test
+        void deveAtualizarParcialmenteSomenteOsCamposInformados() {
+            int codigoCliente = cadastrar(new ClienteDtoRequest("Paula Parcial", "246.813.579-28", "paula.parcial@email.com",
+                    "98765-432", "Rua Seis", "60", "Casa", "Centro", "Recife", "PE", "(81) 98765-6666"));
+
+            given()
+                    .contentType("application/merge-patch+json")
+                    .pathParam("codigoCliente", codigoCliente)
+                    .body("{\"telefone\": \"(81) 91234-0000\", \"complemento\": null}")
+            .when()
+                    .patch("/clientes/{codigoCliente}")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("telefone", is("(81) 91234-0000"))
+                    .body("complemento", nullValue())
+                    .body("nome", is("Paula Parcial"))
+                    .body("cpf", is("246.813.579-28"));
+
+            given().pathParam("codigoCliente", codigoCliente).when().get("/clientes/{codigoCliente}")
+                    .then().body("telefone", is("(81) 91234-0000"));
+        }
+
+        @Test
+        void naoDeveAtualizarParcialmenteParaEmailDeOutroCliente() {
+            cadastrar(new ClienteDtoRequest("Pedro Parcial", "135.792.468-28", "pedro.parcial@email.com",
+                    "98765-432", "Rua Sete", "70", "", "Centro", "Recife", "PE", "(81) 98765-7777"));
+
+            given()
+                    .contentType(ContentType.JSON)
+                    .pathParam("email", "pedro.parcial@email.com")
+                    .body("{\"email\": \"carlos.pereira@email.com\"}")
+            .when()
+                    .patch("/clientes/email/{email}")
+            .then()
+                    .statusCode(HttpStatus.SC_BAD_REQUEST)
+                    .body("message", is("Email já cadastrado."));
+
+            given().pathParam("email", "pedro.parcial@email.com").when().get("/clientes/email/{email}")
+                    .then().statusCode(HttpStatus.SC_OK);
+        }
+
+        @Test
+        void deveUsarAETagParaRevalidarEParaRecusarAtualizacaoDesatualizada() {
+            int codigoCliente = cadastrar(new ClienteDtoRequest("Vera Versao", "314.159.265-90", "vera.versao@email.com",
+                    "98765-432", "Rua Oito", "80", "", "Centro", "Natal", "RN", "(84) 98765-8888"));
+            String etag = given().pathParam("codigoCliente", codigoCliente).when().get("/clientes/{codigoCliente}")
+                    .then().statusCode(HttpStatus.SC_OK).extract().header("ETag");
+            assertThat(etag, is("\"" + codigoCliente + "-0\""));
+
+            given().header("If-None-Match", etag).pathParam("email", "vera.versao@email.com")
+            .when()
+                    .get("/clientes/email/{email}")
+            .then()
+                    .statusCode(HttpStatus.SC_NOT_MODIFIED);
+
+            String novaEtag = given()
+                    .contentType(ContentType.JSON)
+                    .header("If-Match", etag)
+                    .pathParam("codigoCliente", codigoCliente)
+                    .body("{\"numero\": \"81\"}")
+            .when()
+                    .patch("/clientes/{codigoCliente}")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("versao", is(1))
+                    .extract().header("ETag");
+            assertThat(novaEtag, is("\"" + codigoCliente + "-1\""));
+
+            given()
+                    .contentType(ContentType.JSON)
+                    .header("If-Match", etag)
+                    .pathParam("codigoCliente", codigoCliente)
+                    .body("{\"numero\": \"82\"}")
+            .when()
+                    .patch("/clientes/{codigoCliente}")
+            .then()
+                    .statusCode(HttpStatus.SC_PRECONDITION_FAILED);
+
+            given().header("If-None-Match", etag).pathParam("codigoCliente", codigoCliente)
+            .when()
+                    .get("/clientes/{codigoCliente}")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("numero", is("81"));
+        }
+
+        @Test
+        void deveAtualizarComUmUnicoComandoDeEscrita() {
+            int codigoCliente = cadastrar(new ClienteDtoRequest("Silvio Sql", "161.803.398-05", "silvio.sql@email.com",
+                    "98765-432", "Rua Nove", "90", "", "Centro", "Maceió", "AL", "(82) 98765-9999"));
+            ClienteDtoRequest atualizacao = new ClienteDtoRequest("Silvio Sql", "161.803.398-05", "silvio.sql@email.com",
+                    "98765-432", "Rua Nove", "91", "Fundos", "Centro", "Maceió", "AL", "(82) 98765-9999");
+
+            // O UPDATE, com o If-Match no WHERE, e a releitura que monta a resposta
+            long comandos = contarComandosSql(() -> given()
+                    .contentType(ContentType.JSON)
+                    .header("If-Match", "\"" + codigoCliente + "-0\"")
+                    .pathParam("codigoCliente", codigoCliente)
+                    .body(atualizacao)
+            .when()
+                    .put("/clientes/{codigoCliente}")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .header("ETag", "\"" + codigoCliente + "-1\"")
+                    .body("complemento", is("Fundos")));
+            assertThat(comandos, is(2L));
+        }
+
         @Test
         void naoDeveAtualizarClientePorEmailSeEmailJaExiste() {
             String emailOriginal = "maria.oliveira@email.com";
             ClienteDtoRequest clienteDto = new ClienteDtoRequest(
-                    "Maria Oliveira Atualizada", "987.654.321-98", "carlos.pereira@email.com",
+                    "Maria Oliveira Atualizada", "987.654.320-29", "carlos.pereira@email.com",
                     "98765-432", "Avenida Brasil Atualizada", "200", "Casa 2", "Jardim Novo",
                     "Rio de Janeiro", "RJ", "(21) 99876-5432"
             );
@@ -221,6 +561,44 @@ class ClienteControllerITTest {
                     .statusCode(HttpStatus.SC_NO_CONTENT);
         }
 
+        @Test
+        void deveExcluirEmLoteSomenteClientesSemPedidos() {
+            int semPedidos = cadastrar(new ClienteDtoRequest("Lote Sem Pedidos", "111.444.777-35", "lote.sem.pedidos@email.com",
+                    "98765-432", "Rua Quatro", "40", "", "Centro", "Curitiba", "PR", "(41) 98765-4444"));
+            int comPedidos = cadastrar(new ClienteDtoRequest("Lote Com Pedidos", "529.982.247-25", "lote.com.pedidos@email.com",
+                    "98765-432", "Rua Cinco", "50", "", "Centro", "Curitiba", "PR", "(41) 98765-5555"));
+            when(feignClient.clientesPossuemPedidos(any())).thenReturn(Map.of((long) semPedidos, false, (long) comPedidos, true));
+
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(List.of(semPedidos, comPedidos, 50000))
+            .when()
+                    .post("/clientes/lote/exclusao")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .body("excluidos", is(1))
+                    .body("resultados[1].excluido", is(false))
+                    .body("resultados[2].mensagem", is("Cliente não encontrado."));
+
+            given().pathParam("codigoCliente", semPedidos).when().get("/clientes/{codigoCliente}").then().statusCode(HttpStatus.SC_NOT_FOUND);
+            given().pathParam("codigoCliente", comPedidos).when().get("/clientes/{codigoCliente}").then().statusCode(HttpStatus.SC_OK);
+        }
+
+        @Test
+        void deveExcluirComUmUnicoComandoSql() {
+            int codigoCliente = cadastrar(new ClienteDtoRequest("Dora Delete", "141.421.356-51", "dora.delete@email.com",
+                    "98765-432", "Rua Dez", "100", "", "Centro", "Aracaju", "SE", "(79) 98765-1010"));
+            when(feignClient.clientePossuiPedidos((long) codigoCliente)).thenReturn(Map.of("possui-pedidos", false));
+
+            long comandos = contarComandosSql(() -> given()
+                    .pathParam("codigoCliente", codigoCliente)
+            .when()
+                    .delete("/clientes/{codigoCliente}")
+            .then()
+                    .statusCode(HttpStatus.SC_NO_CONTENT));
+            assertThat(comandos, is(1L));
+        }
+
         @Test
         void naoDeveExcluirClienteInexistente() {
 			when(feignClient.clientePossuiPedidos(1l)).thenReturn(Map.of("possui-pedidos", false));
@@ -258,4 +636,26 @@ class ClienteControllerITTest {
                     .body("message", is("Cliente com Email " + emailInexistente + " não encontrado"));
         }
     }
+
+    @Nested
+    class Metricas {
+        @Test
+        void deveExporOperacoesPorResultadoPoolDeConexoesEPedidosNoPrometheus() {
+            given().pathParam("codigoCliente", 1).when().get("/clientes/{codigoCliente}").then().statusCode(HttpStatus.SC_OK);
+            given().pathParam("codigoCliente", 50000).when().get("/clientes/{codigoCliente}").then().statusCode(HttpStatus.SC_NOT_FOUND);
+
+            String metricas = given()
+            .when()
+                    .get("/actuator/prometheus")
+            .then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .extract().asString();
+
+            assertThat(metricas, matchesPattern("(?s).*clientes_operacoes_seconds_count\\{[^}]*operacao=\"buscarClientePorCodigo\"[^}]*resultado=\"sucesso\"[^}]*} [1-9].*"));
+            assertThat(metricas, matchesPattern("(?s).*clientes_operacoes_seconds_count\\{[^}]*operacao=\"buscarClientePorCodigo\"[^}]*resultado=\"EntidadeNaoEncontrada\"[^}]*} [1-9].*"));
+            assertThat(metricas, containsString("clientes_operacoes_seconds_bucket{"));
+            assertThat(metricas, containsString("hikaricp_connections_active{"));
+            assertThat(metricas, containsString("http_server_requests_seconds_bucket{"));
+        }
+    }
 }
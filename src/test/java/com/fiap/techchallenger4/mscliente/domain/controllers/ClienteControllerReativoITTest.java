@@ -0,0 +1,192 @@
+package com.fiap.techchallenger4.mscliente.domain.controllers;
+
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
+import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepositoryReativo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "url.pedido.consumer.feign.client=http://localhost:${wiremock.server.port}"
+})
+@AutoConfigureWireMock(port = 0)
+class ClienteControllerReativoITTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ClienteRepositoryReativo clienteRepository;
+
+    @Test
+    void deveBuscarClientePorCodigoComCpfFormatado() {
+        webTestClient.get().uri("/clientes/1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.codigoCliente").isEqualTo(1)
+                .jsonPath("$.cpf").isEqualTo("123.456.789-09");
+    }
+
+    @Test
+    void deveRetornarNaoEncontradoComAMesmaMensagemDaStackServlet() {
+        webTestClient.get().uri("/clientes/999999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Cliente com código 999999 não encontrado");
+    }
+
+    @Test
+    void deveListarClientesEmNdjsonSobDemanda() {
+        Flux<ClienteDtoResponse> clientes = webTestClient.get().uri("/clientes")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ClienteDtoResponse.class)
+                .getResponseBody();
+
+        StepVerifier.create(clientes, 2)
+                .assertNext(cliente -> assertEquals(1L, cliente.codigoCliente()))
+                .assertNext(cliente -> assertEquals(2L, cliente.codigoCliente()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void deveCadastrarAtualizarERecusarDuplicidade() {
+        ClienteDtoRequest cliente = new ClienteDtoRequest("Ana Reativa", "529.982.247-25", "ana.reativa@example.com",
+                "12345-678", "Rua Sol", "100", null, "Centro", "São Paulo", "SP", "(11) 98765-4321");
+
+        ClienteDtoResponse cadastrado = webTestClient.post().uri("/clientes").bodyValue(cliente).exchange()
+                .expectStatus().isCreated()
+                .expectBody(ClienteDtoResponse.class)
+                .returnResult().getResponseBody();
+        assertEquals("529.982.247-25", cadastrado.cpf());
+
+        webTestClient.post().uri("/clientes").bodyValue(cliente).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("CPF já cadastrado.");
+
+        ClienteDtoRequest atualizacao = new ClienteDtoRequest("Ana Atualizada", cliente.cpf(), cliente.email(), cliente.cep(),
+                cliente.logradouro(), cliente.numero(), "Apto 1", cliente.bairro(), cliente.cidade(), cliente.estado(), cliente.telefone());
+        webTestClient.put().uri("/clientes/" + cadastrado.codigoCliente()).bodyValue(atualizacao).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nome").isEqualTo("Ana Atualizada")
+                .jsonPath("$.complemento").isEqualTo("Apto 1");
+    }
+
+    @Test
+    void deveRevalidarPorETagERecusarIfMatchDesatualizado() {
+        ClienteDtoRequest cliente = new ClienteDtoRequest("Beto Reativo", "271.828.182-05", "beto.reativo@example.com",
+                "12345-678", "Rua Lua", "200", null, "Centro", "São Paulo", "SP", "(11) 98765-1111");
+        ClienteDtoResponse cadastrado = webTestClient.post().uri("/clientes").bodyValue(cliente).exchange()
+                .expectStatus().isCreated()
+                .expectBody(ClienteDtoResponse.class)
+                .returnResult().getResponseBody();
+        assertEquals(0L, cadastrado.versao());
+        String etag = cadastrado.etag();
+
+        webTestClient.get().uri("/clientes/" + cadastrado.codigoCliente()).header("If-None-Match", etag).exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.put().uri("/clientes/" + cadastrado.codigoCliente()).header("If-Match", etag).bodyValue(cliente).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", ClienteDtoResponse.etag(cadastrado.codigoCliente(), 1L));
+
+        webTestClient.put().uri("/clientes/" + cadastrado.codigoCliente()).header("If-Match", etag).bodyValue(cliente).exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void deveAplicarUltimaEscritaQuandoNaoHaIfMatch() {
+        ClienteDtoRequest cliente = new ClienteDtoRequest("Caio Reativo", "314.159.265-90", "caio.reativo@example.com",
+                "12345-678", "Rua Mar", "300", null, "Centro", "São Paulo", "SP", "(11) 98765-2222");
+        ClienteDtoResponse cadastrado = webTestClient.post().uri("/clientes").bodyValue(cliente).exchange()
+                .expectStatus().isCreated()
+                .expectBody(ClienteDtoResponse.class)
+                .returnResult().getResponseBody();
+
+        // Outra escrita muda a versão entre a leitura e o UPDATE deste PUT.
+        ClienteEntity concorrente = cliente.toEntity();
+        concorrente.setCodigoCliente(cadastrado.codigoCliente());
+        StepVerifier.create(clienteRepository.atualizar(concorrente, false))
+                .assertNext(atualizado -> assertEquals(1L, atualizado.getVersao()))
+                .verifyComplete();
+
+        ClienteEntity desatualizado = cliente.toEntity();
+        desatualizado.setCodigoCliente(cadastrado.codigoCliente());
+        desatualizado.setVersao(0L);
+        StepVerifier.create(clienteRepository.atualizar(desatualizado, true))
+                .verifyError(VersaoDesatualizada.class);
+        StepVerifier.create(clienteRepository.atualizar(desatualizado, false))
+                .assertNext(atualizado -> assertEquals(2L, atualizado.getVersao()))
+                .verifyComplete();
+
+        webTestClient.put().uri("/clientes/" + cadastrado.codigoCliente()).bodyValue(cliente).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", ClienteDtoResponse.etag(cadastrado.codigoCliente(), 3L));
+    }
+
+    @Test
+    void deveAtualizarPorEmailComIfMatchComoAStackServlet() {
+        ClienteDtoRequest cliente = new ClienteDtoRequest("Dora Reativa", "161.803.398-05", "dora.reativa@example.com",
+                "12345-678", "Rua Rio", "400", null, "Centro", "São Paulo", "SP", "(11) 98765-3333");
+        ClienteDtoResponse cadastrado = webTestClient.post().uri("/clientes").bodyValue(cliente).exchange()
+                .expectStatus().isCreated()
+                .expectBody(ClienteDtoResponse.class)
+                .returnResult().getResponseBody();
+        ClienteDtoRequest atualizacao = new ClienteDtoRequest("Dora Atualizada", cliente.cpf(), "Dora.Nova@example.com", cliente.cep(),
+                cliente.logradouro(), cliente.numero(), null, cliente.bairro(), cliente.cidade(), cliente.estado(), cliente.telefone());
+
+        webTestClient.put().uri("/clientes/email/DORA.REATIVA@example.com").header("If-Match", cadastrado.etag())
+                .bodyValue(atualizacao).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.codigoCliente").isEqualTo(cadastrado.codigoCliente())
+                .jsonPath("$.nome").isEqualTo("Dora Atualizada");
+
+        webTestClient.put().uri("/clientes/email/dora.nova@example.com").header("If-Match", cadastrado.etag())
+                .bodyValue(atualizacao).exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.put().uri("/clientes/email/dora.reativa@example.com").bodyValue(atualizacao).exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Cliente com Email dora.reativa@example.com não encontrado");
+    }
+
+    @Test
+    void deveValidarComAsMesmasRegrasDaStackServlet() {
+        ClienteDtoRequest invalido = new ClienteDtoRequest("", "123.456.789-09", "ana@example.com",
+                "12345-678", "Rua Sol", "100", null, "Centro", "São Paulo", "SP", "(11) 98765-4321");
+
+        webTestClient.post().uri("/clientes").bodyValue(invalido).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Nome não pode ser vazio.");
+    }
+
+    @Test
+    void deveExcluirSomenteClienteSemPedidos() {
+        stubFor(post(urlPathEqualTo("/cliente/possui-pedidos")).withQueryParam("codigoCliente", equalTo("2"))
+                .willReturn(okJson("{\"possui-pedidos\": true}")));
+        stubFor(post(urlPathEqualTo("/cliente/possui-pedidos")).withQueryParam("codigoCliente", equalTo("3"))
+                .willReturn(okJson("{\"possui-pedidos\": false}")));
+
+        webTestClient.delete().uri("/clientes/2").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("O Cliente não pode ser excluido pois possui pedidos realizados");
+
+        webTestClient.delete().uri("/clientes/3").exchange().expectStatus().isNoContent();
+        webTestClient.get().uri("/clientes/3").exchange().expectStatus().isNotFound();
+    }
+}
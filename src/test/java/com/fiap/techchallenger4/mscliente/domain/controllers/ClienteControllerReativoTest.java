@@ -0,0 +1,58 @@
+package com.fiap.techchallenger4.mscliente.domain.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClienteControllerReativoTest {
+
+    // "MÉTODO /caminho" de cada rota e "MÉTODO /caminho?parametro" de cada @RequestParam.
+    private static Set<String> rotas(Class<?> controller) {
+        String base = AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class).path()[0];
+        Set<String> rotas = new TreeSet<>();
+        for (Method metodo : controller.getDeclaredMethods()) {
+            RequestMapping mapeamento = AnnotatedElementUtils.findMergedAnnotation(metodo, RequestMapping.class);
+            if (mapeamento == null) continue;
+            for (String caminho : mapeamento.path().length == 0 ? new String[]{""} : mapeamento.path()) {
+                String rota = mapeamento.method()[0] + " " + base + (caminho.isEmpty() || caminho.startsWith("/") ? caminho : "/" + caminho);
+                rotas.add(rota);
+                for (Parameter parametro : metodo.getParameters()) {
+                    RequestParam requestParam = AnnotatedElementUtils.findMergedAnnotation(parametro, RequestParam.class);
+                    if (requestParam != null) rotas.add(rota + "?" + (requestParam.name().isEmpty() ? parametro.getName() : requestParam.name()));
+                }
+            }
+        }
+        return rotas;
+    }
+
+    @Test
+    void deveAtenderAsRotasDaStackServletExcetoAsListadasComoSomenteServlet() {
+        Set<String> reativas = rotas(ClienteControllerReativo.class);
+        Set<String> esperadas = new TreeSet<>(rotas(ClienteController.class));
+        // Os parâmetros de uma rota que fica só na stack servlet saem junto com ela.
+        esperadas.removeIf(rota -> ClienteControllerReativo.SOMENTE_SERVLET.contains(rota.split("\\?")[0])
+                || ClienteControllerReativo.SOMENTE_SERVLET.contains(rota));
+
+        assertEquals(esperadas, reativas);
+        assertTrue(Collections.disjoint(reativas, ClienteControllerReativo.SOMENTE_SERVLET));
+        assertTrue(rotas(ClienteController.class).containsAll(ClienteControllerReativo.SOMENTE_SERVLET));
+    }
+
+    @Test
+    void deveManterAsRotasDeAtualizacaoDaBaseline() {
+        assertTrue(rotas(ClienteControllerReativo.class).containsAll(new HashSet<>(Arrays.asList(
+                "PUT /clientes/{codigoCliente}", "PUT /clientes/email/{email}"))));
+    }
+}
@@ -3,8 +3,17 @@ package com.fiap.techchallenger4.mscliente.domain.controllers;
 import br.com.fiap.estrutura.exception.BusinessException;
 import br.com.fiap.estrutura.exception.EntidadeNaoEncontrada;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemEstadoDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagensDtoResponse;
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteExclusaoLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteExclusaoLoteItemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteItemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClientePaginaDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
 import com.fiap.techchallenger4.mscliente.domain.services.ClienteService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,14 +25,20 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -87,8 +102,8 @@ public class ClienteControllerTest {
         @Test
         void deveRetornarStatusCreatedQuandoCadastrarClienteComSucesso() throws Exception {
             // Dado (Given)
-            ClienteDtoRequest clienteDtoRequest = new ClienteDtoRequest("Maria Silva", "987.654.321-09", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
-            ClienteDtoResponse clienteDtoResponse = new ClienteDtoResponse(null, "Maria Silva", "987.654.321-09", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", null);
+            ClienteDtoRequest clienteDtoRequest = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+            ClienteDtoResponse clienteDtoResponse = new ClienteDtoResponse(null, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", null, 0L);
 
             given(clienteService.cadastrarCliente(any(ClienteDtoRequest.class))).willReturn(clienteDtoResponse);
 
@@ -102,13 +117,63 @@ public class ClienteControllerTest {
         }
     }
 
+    @Nested
+    class CadastrarClientesEmLote {
+
+        private final ClienteDtoRequest cliente = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+        private final ClienteLoteDtoResponse resultado = new ClienteLoteDtoResponse(1, 1, 0,
+                List.of(ClienteLoteItemDtoResponse.cadastrado(1, 101L, cliente)));
+
+        @Test
+        void deveCadastrarLoteRecebidoComoArrayJson() throws Exception {
+            given(clienteService.cadastrarClientesEmLote(List.of(cliente))).willReturn(resultado);
+
+            mockMvc.perform(post("/clientes/lote")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(new ObjectMapper().writeValueAsString(List.of(cliente))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.cadastrados").value(1))
+                    .andExpect(jsonPath("$.resultados[0].codigoCliente").value(101));
+        }
+
+        @Test
+        void deveCadastrarLoteRecebidoComoNdjson() throws Exception {
+            given(clienteService.cadastrarClientesEmLote(any(InputStream.class))).willReturn(resultado);
+
+            mockMvc.perform(post("/clientes/lote")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(new ObjectMapper().writeValueAsString(cliente) + "\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.resultados[0].cadastrado").value(true));
+
+            verify(clienteService, never()).cadastrarClientesEmLote(anyList());
+        }
+    }
+
+    @Nested
+    class ExcluirClientesEmLote {
+        @Test
+        void deveExcluirLoteInformandoClientesMantidos() throws Exception {
+            given(clienteService.excluirClientesEmLote(List.of(1L, 2L))).willReturn(new ClienteExclusaoLoteDtoResponse(2, 1, 1, List.of(
+                    ClienteExclusaoLoteItemDtoResponse.excluido(1L),
+                    ClienteExclusaoLoteItemDtoResponse.mantido(2L, "O Cliente não pode ser excluido pois possui pedidos realizados"))));
+
+            mockMvc.perform(post("/clientes/lote/exclusao")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[1, 2]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.excluidos").value(1))
+                    .andExpect(jsonPath("$.resultados[1].excluido").value(false));
+        }
+    }
+
     @Nested
     class BuscarCliente {
         @Test
         void deveListarClientesComSucesso() throws Exception {
             // Dado (Given)
-            ClienteDtoResponse cliente1 = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-09", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now());
-            ClienteDtoResponse cliente2 = new ClienteDtoResponse(2L, "João Costa", "123.456.789-00", "joao@example.com", "12345-678", "Rua Velha", "200", "Apto 1", "Bairro Antigo", "Cidade Velha", "SP", "(11) 96432-1234", LocalDateTime.now());
+            ClienteDtoResponse cliente1 = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 0L);
+            ClienteDtoResponse cliente2 = new ClienteDtoResponse(2L, "João Costa", "111.444.777-35", "joao@example.com", "12345-678", "Rua Velha", "200", "Apto 1", "Bairro Antigo", "Cidade Velha", "SP", "(11) 96432-1234", LocalDateTime.now(), 0L);
             List<ClienteDtoResponse> clientes = Arrays.asList(cliente1, cliente2);
             given(clienteService.listarClientes()).willReturn(clientes);
 
@@ -121,6 +186,100 @@ public class ClienteControllerTest {
                     .andExpect(jsonPath("$[1].nome").value("João Costa"));
         }
 
+        @Test
+        void deveListarClientesPaginadosPorCursor() throws Exception {
+            ClienteDtoResponse cliente = new ClienteDtoResponse(3L, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 0L);
+            given(clienteService.listarClientesPaginados("Mg", 1)).willReturn(new ClientePaginaDtoResponse(List.of(cliente), "Mw"));
+
+            mockMvc.perform(get("/clientes")
+                            .param("cursor", "Mg")
+                            .param("tamanho", "1")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.clientes[0].codigoCliente").value(3))
+                    .andExpect(jsonPath("$.proximoCursor").value("Mw"));
+
+            verify(clienteService, never()).listarClientes();
+        }
+
+        @Test
+        void deveListarClientesSoComOsCamposPedidos() throws Exception {
+            given(clienteService.listarClientes("nome")).willReturn(List.of(Map.of("codigoCliente", 1L, "nome", "Maria Silva")));
+
+            mockMvc.perform(get("/clientes").param("fields", "nome"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].nome").value("Maria Silva"))
+                    .andExpect(jsonPath("$[0].email").doesNotExist());
+
+            verify(clienteService, never()).listarClientes();
+        }
+
+        @Test
+        void deveBuscarClientePorCodigoSoComOsCamposPedidosMantendoAETag() throws Exception {
+            ClienteDtoResponse cliente = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 4L);
+            given(clienteService.buscarClientePorCodigo(1L)).willReturn(cliente);
+            given(clienteService.selecionarCampos(cliente, "email")).willReturn(Map.of("codigoCliente", 1L, "email", "maria@example.com"));
+
+            mockMvc.perform(get("/clientes/{codigoCliente}", 1L).param("fields", "email"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                    .andExpect(jsonPath("$.email").value("maria@example.com"))
+                    .andExpect(jsonPath("$.nome").doesNotExist());
+        }
+
+        @Test
+        void deveRetornarBadRequestQuandoCursorInvalido() throws Exception {
+            given(clienteService.listarClientesPaginados("invalido", null)).willThrow(new BusinessException("Cursor inválido."));
+
+            mockMvc.perform(get("/clientes").param("cursor", "invalido"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Cursor inválido."));
+        }
+
+        @Test
+        void deveBuscarClientesPorNomeCidadeEEstado() throws Exception {
+            ClienteDtoResponse cliente = new ClienteDtoResponse(3L, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 0L);
+            given(clienteService.buscarClientes("silv", "cidade", "RJ", null, null)).willReturn(new ClientePaginaDtoResponse(List.of(cliente), null));
+
+            mockMvc.perform(get("/clientes/busca")
+                            .param("nome", "silv")
+                            .param("cidade", "cidade")
+                            .param("estado", "RJ"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.clientes[0].nome").value("Maria Silva"));
+        }
+
+        @Test
+        void deveContarClientesPorEstadoCidadeEMes() throws Exception {
+            given(clienteService.contarClientes()).willReturn(new ClienteContagensDtoResponse(3,
+                    List.of(new ClienteContagemEstadoDtoResponse("SP", 3, List.of(new ClienteContagemDtoResponse("São Paulo", 3)))),
+                    List.of(new ClienteContagemDtoResponse("2024-03", 3))));
+
+            mockMvc.perform(get("/clientes/contagens"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total").value(3))
+                    .andExpect(jsonPath("$.porEstado[0].cidades[0].valor").value("São Paulo"))
+                    .andExpect(jsonPath("$.porMes[0].valor").value("2024-03"));
+        }
+
+        @Test
+        void deveExportarClientesEmNdjson() throws Exception {
+            doAnswer(invocation -> {
+                OutputStream saida = invocation.getArgument(0);
+                saida.write("{\"codigoCliente\":1}\n{\"codigoCliente\":2}\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(clienteService).exportarClientes(any(OutputStream.class));
+
+            MvcResult resultado = mockMvc.perform(get("/clientes/exportar"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string("{\"codigoCliente\":1}\n{\"codigoCliente\":2}\n"));
+        }
+
         @Test
         void deveRetornarStatusNotFoundQuandoClienteNaoEncontrado() throws Exception {
             Long codigoCliente = 2L;
@@ -134,15 +293,33 @@ public class ClienteControllerTest {
         @Test
         void deveRetornarClienteQuandoEncontrado() throws Exception {
             Long codigoCliente = 1L;
-            ClienteDtoResponse clienteResponse = new ClienteDtoResponse(codigoCliente, "Maria Silva", "987.654.321-09", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now());
+            ClienteDtoResponse clienteResponse = new ClienteDtoResponse(codigoCliente, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 0L);
             given(clienteService.buscarClientePorCodigo(codigoCliente)).willReturn(clienteResponse);
 
             mockMvc.perform(get("/clientes/{codigoCliente}", codigoCliente)
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"1-0\""))
                     .andExpect(jsonPath("$.nome").value("Maria Silva"));
         }
 
+        @Test
+        void deveRetornarNotModifiedQuandoETagNaoMudou() throws Exception {
+            ClienteDtoResponse clienteResponse = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 3L);
+            given(clienteService.buscarClientePorEmail("maria@example.com")).willReturn(clienteResponse);
+
+            mockMvc.perform(get("/clientes/email/{email}", "maria@example.com")
+                            .header("If-None-Match", "\"1-3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"1-3\""))
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(get("/clientes/email/{email}", "maria@example.com")
+                            .header("If-None-Match", "\"1-2\""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.versao").value(3));
+        }
+
         @Test
         void deveRetornarStatusNotFoundQuandoEmailNaoEncontrado() throws Exception {
             String email = "inexistente@example.com";
@@ -156,7 +333,7 @@ public class ClienteControllerTest {
         @Test
         void deveRetornarClienteQuandoEmailEncontrado() throws Exception {
             String email = "maria@example.com";
-            ClienteDtoResponse clienteResponse = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-09", email, "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now());
+            ClienteDtoResponse clienteResponse = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-00", email, "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 0L);
             given(clienteService.buscarClientePorEmail(email)).willReturn(clienteResponse);
 
             mockMvc.perform(get("/clientes/email/{email}", email)
@@ -171,9 +348,9 @@ public class ClienteControllerTest {
         @Test
         void deveRetornarStatusNotFoundQuandoClienteNaoEncontrado() throws Exception {
             Long codigoCliente = 99L;
-            ClienteDtoRequest clienteDto = new ClienteDtoRequest("Teste", "123.456.789-01", "teste@notfound.com", "12345-678", "Rua Inexistente", "500", "Apto 5", "Bairro Fantasma", "Cidade Fictícia", "XX", "(00) 00000-0000");
+            ClienteDtoRequest clienteDto = new ClienteDtoRequest("Teste", "123.456.789-09", "teste@notfound.com", "12345-678", "Rua Inexistente", "500", "Apto 5", "Bairro Fantasma", "Cidade Fictícia", "XX", "(00) 00000-0000");
 
-            given(clienteService.atualizarClientePorCodigo(eq(codigoCliente), any(ClienteDtoRequest.class)))
+            given(clienteService.atualizarClientePorCodigo(eq(codigoCliente), any(ClienteDtoRequest.class), isNull()))
                     .willThrow(new EntidadeNaoEncontrada("Cliente com código " + codigoCliente + " não encontrado"));
 
             mockMvc.perform(put("/clientes/{codigoCliente}", codigoCliente)
@@ -185,10 +362,10 @@ public class ClienteControllerTest {
         @Test
         void deveRetornarStatusOkAoAtualizarCliente() throws Exception {
             Long codigoCliente = 1L;
-            ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-09", "maria@update.com", "87654-321", "Rua Atualizada", "101", "Apto 202", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
-            ClienteDtoResponse expectedResponse = new ClienteDtoResponse(codigoCliente, clienteDto.nome(), clienteDto.cpf(), clienteDto.email(), clienteDto.cep(), clienteDto.logradouro(), clienteDto.numero(), clienteDto.complemento(), clienteDto.bairro(), clienteDto.cidade(), clienteDto.estado(), clienteDto.telefone(), LocalDateTime.now());
+            ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@update.com", "87654-321", "Rua Atualizada", "101", "Apto 202", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+            ClienteDtoResponse expectedResponse = new ClienteDtoResponse(codigoCliente, clienteDto.nome(), clienteDto.cpf(), clienteDto.email(), clienteDto.cep(), clienteDto.logradouro(), clienteDto.numero(), clienteDto.complemento(), clienteDto.bairro(), clienteDto.cidade(), clienteDto.estado(), clienteDto.telefone(), LocalDateTime.now(), 0L);
 
-            given(clienteService.atualizarClientePorCodigo(eq(codigoCliente), any(ClienteDtoRequest.class))).willReturn(expectedResponse);
+            given(clienteService.atualizarClientePorCodigo(eq(codigoCliente), any(ClienteDtoRequest.class), isNull())).willReturn(expectedResponse);
 
             mockMvc.perform(put("/clientes/{codigoCliente}", codigoCliente)
                             .contentType(MediaType.APPLICATION_JSON)
@@ -200,10 +377,10 @@ public class ClienteControllerTest {
         @Test
         void deveRetornarStatusNotFoundQuandoClientePorEmailNaoEncontrado() throws Exception {
             String email = "notfound@example.com";
-            ClienteDtoRequest requestDto = new ClienteDtoRequest("Maria Silva", "987.654.321-09", "maria@notfound.com", "87654-321", "Rua Inexistente", "500", "Apto 5", "Bairro Fantasma", "Cidade Fictícia", "XX", "(00) 00000-0000");
+            ClienteDtoRequest requestDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@notfound.com", "87654-321", "Rua Inexistente", "500", "Apto 5", "Bairro Fantasma", "Cidade Fictícia", "XX", "(00) 00000-0000");
 
             // Usando uma exceção mais específica para clarificar o resultado esperado
-            given(clienteService.atualizarClientePorEmail(eq(email), any(ClienteDtoRequest.class)))
+            given(clienteService.atualizarClientePorEmail(eq(email), any(ClienteDtoRequest.class), isNull()))
                     .willThrow(new EntidadeNaoEncontrada("Cliente com Email " + email + " não encontrado"));
 
             mockMvc.perform(put("/clientes/email/{email}", email)
@@ -215,10 +392,10 @@ public class ClienteControllerTest {
         @Test
         void deveRetornarStatusOkAoAtualizarClientePorEmail() throws Exception {
             String email = "test@example.com";
-            ClienteDtoRequest requestDto = new ClienteDtoRequest("Maria Silva", "987.654.321-09", "maria@update.com", "87654-321", "Rua Atualizada", "101", "Apto 202", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
-            ClienteDtoResponse responseDto = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-09", "maria@update.com", "87654-321", "Rua Atualizada", "101", "Apto 202", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now());
+            ClienteDtoRequest requestDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@update.com", "87654-321", "Rua Atualizada", "101", "Apto 202", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+            ClienteDtoResponse responseDto = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-00", "maria@update.com", "87654-321", "Rua Atualizada", "101", "Apto 202", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321", LocalDateTime.now(), 0L);
 
-            given(clienteService.atualizarClientePorEmail(eq(email), any(ClienteDtoRequest.class))).willReturn(responseDto);
+            given(clienteService.atualizarClientePorEmail(eq(email), any(ClienteDtoRequest.class), isNull())).willReturn(responseDto);
 
             mockMvc.perform(put("/clientes/email/{email}", email)
                             .contentType(MediaType.APPLICATION_JSON)
@@ -228,6 +405,64 @@ public class ClienteControllerTest {
         }
     }
 
+    @Nested
+    class AtualizarClienteComIfMatch {
+        @Test
+        void deveRetornarPreconditionFailedQuandoVersaoEstiverDesatualizada() throws Exception {
+            ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@update.com", "87654-321", "Rua Atualizada", "101", "Apto 202", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+            given(clienteService.atualizarClientePorCodigo(eq(1L), any(ClienteDtoRequest.class), eq("\"1-0\"")))
+                    .willThrow(new VersaoDesatualizada());
+
+            mockMvc.perform(put("/clientes/{codigoCliente}", 1L)
+                            .header("If-Match", "\"1-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(new ObjectMapper().writeValueAsString(clienteDto)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(jsonPath("$.message").value("O cliente foi alterado por outra requisição. Busque a versão atual e tente novamente."));
+        }
+
+        @Test
+        void deveDevolverAETagDaNovaVersaoAoAtualizar() throws Exception {
+            ClienteDtoResponse responseDto = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua A", "101", null, "Bairro", "Cidade", "RJ", "(21) 91111-2222", LocalDateTime.now(), 1L);
+            given(clienteService.atualizarParcialmentePorCodigo(1L, Map.of("telefone", "(21) 91111-2222"), "\"1-0\"")).willReturn(responseDto);
+
+            mockMvc.perform(patch("/clientes/{codigoCliente}", 1L)
+                            .header("If-Match", "\"1-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"telefone\": \"(21) 91111-2222\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"1-1\""));
+        }
+    }
+
+    @Nested
+    class AtualizarClienteParcialmente {
+        @Test
+        void deveRepassarSomenteOsCamposInformados() throws Exception {
+            ClienteDtoResponse responseDto = new ClienteDtoResponse(1L, "Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua A", "101", null, "Bairro", "Cidade", "RJ", "(21) 91111-2222", LocalDateTime.now(), 0L);
+            given(clienteService.atualizarParcialmentePorCodigo(1L, Map.of("telefone", "(21) 91111-2222"), null)).willReturn(responseDto);
+
+            mockMvc.perform(patch("/clientes/{codigoCliente}", 1L)
+                            .contentType("application/merge-patch+json")
+                            .content("{\"telefone\": \"(21) 91111-2222\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.telefone").value("(21) 91111-2222"));
+        }
+
+        @Test
+        void deveRetornarBadRequestQuandoCampoInformadoForInvalido() throws Exception {
+            String email = "maria@example.com";
+            given(clienteService.atualizarParcialmentePorEmail(eq(email), any(), isNull()))
+                    .willThrow(new BusinessException("Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX."));
+
+            mockMvc.perform(patch("/clientes/email/{email}", email)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"telefone\": \"123\"}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX."));
+        }
+    }
+
     @Nested
     class ExcluirCliente {
 
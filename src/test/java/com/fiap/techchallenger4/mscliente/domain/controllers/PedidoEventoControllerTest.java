@@ -0,0 +1,141 @@
+package com.fiap.techchallenger4.mscliente.domain.controllers;
+
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoEvento;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoSnapshotEvento;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PedidoEventoControllerTest {
+
+    private static final String TOKEN = "segredo-do-feed";
+
+    private AutoCloseable autoCloseable;
+    private MockMvc mockMvc;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @InjectMocks
+    PedidoEventoController pedidoEventoController;
+
+    @BeforeEach
+    void setup() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(pedidoEventoController, "token", TOKEN);
+        ReflectionTestUtils.setField(pedidoEventoController, "instanciaUnica", true);
+        mockMvc = MockMvcBuilders.standaloneSetup(pedidoEventoController).build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void devePublicarCadaEventoRecebido() throws Exception {
+        mockMvc.perform(post("/eventos/pedidos")
+                        .header(PedidoEventoController.HEADER_TOKEN, TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"codigoCliente\": 1, \"possuiPedidos\": true}, {\"codigoCliente\": 2, \"possuiPedidos\": false}]"))
+                .andExpect(status().isAccepted());
+
+        verify(publisher).publishEvent(new PedidoEvento(1L, true));
+        verify(publisher).publishEvent(new PedidoEvento(2L, false));
+    }
+
+    @Test
+    void devePublicarSnapshotRecebido() throws Exception {
+        mockMvc.perform(post("/eventos/pedidos/snapshot")
+                        .header(PedidoEventoController.HEADER_TOKEN, TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 3]"))
+                .andExpect(status().isAccepted());
+
+        verify(publisher).publishEvent(new PedidoSnapshotEvento(List.of(1L, 3L)));
+    }
+
+    @Test
+    void deveRecusarFeedSemTokenOuComTokenInvalido() throws Exception {
+        mockMvc.perform(post("/eventos/pedidos/snapshot")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/eventos/pedidos")
+                        .header(PedidoEventoController.HEADER_TOKEN, "outro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"codigoCliente\": 1, \"possuiPedidos\": false}]"))
+                .andExpect(status().isUnauthorized());
+
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void deveRecusarFeedQuandoTokenNaoConfigurado() throws Exception {
+        ReflectionTestUtils.setField(pedidoEventoController, "token", "");
+
+        mockMvc.perform(post("/eventos/pedidos/snapshot")
+                        .header(PedidoEventoController.HEADER_TOKEN, "")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isUnauthorized());
+
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void deveRecusarFeedSemInstanciaUnica() throws Exception {
+        ReflectionTestUtils.setField(pedidoEventoController, "instanciaUnica", false);
+
+        mockMvc.perform(post("/eventos/pedidos/snapshot")
+                        .header(PedidoEventoController.HEADER_TOKEN, TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/eventos/pedidos")
+                        .header(PedidoEventoController.HEADER_TOKEN, TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"codigoCliente\": 1, \"possuiPedidos\": false}]"))
+                .andExpect(status().isConflict());
+
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void deveRecusarSnapshotVazio() throws Exception {
+        mockMvc.perform(post("/eventos/pedidos/snapshot")
+                        .header(PedidoEventoController.HEADER_TOKEN, TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void deveRecusarEventoSemPossuiPedidos() throws Exception {
+        mockMvc.perform(post("/eventos/pedidos")
+                        .header(PedidoEventoController.HEADER_TOKEN, TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"codigoCliente\": 1, \"possuiPedidos\": true}, {\"codigoCliente\": 2}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+}
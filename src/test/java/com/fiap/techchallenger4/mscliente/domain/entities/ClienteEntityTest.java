@@ -18,12 +18,12 @@ class ClienteEntityTest {
 
     @Test
     void deveAtribuirValoresCorretamente() {
-        ClienteEntity cliente = new ClienteEntity(1L, "Ana Silva", "123.456.789-09", "ana@example.com", "12345-000",
+        ClienteEntity cliente = new ClienteEntity(1L, "Ana Silva", 12345678909L, "ana@example.com", "12345-000",
                 "Rua das Flores", "100", "Apto 10", "Jardim", "São Paulo", "SP", "(11) 99876-5432");
         assertNotNull(cliente);
         assertEquals(1L, cliente.getCodigoCliente());
         assertEquals("Ana Silva", cliente.getNome());
-        assertEquals("123.456.789-09", cliente.getCpf());
+        assertEquals(12345678909L, cliente.getCpf());
         assertEquals("ana@example.com", cliente.getEmail());
         assertEquals("12345-000", cliente.getCep());
         assertEquals("Rua das Flores", cliente.getLogradouro());
@@ -35,15 +35,25 @@ class ClienteEntityTest {
         assertEquals("(11) 99876-5432", cliente.getTelefone());
     }
 
+    @Test
+    void deveManterEmailNormalizadoJuntoComOEmailInformado() {
+        cliente.setEmail("  Ana.Silva@Example.COM ");
+        assertEquals("  Ana.Silva@Example.COM ", cliente.getEmail());
+        assertEquals("ana.silva@example.com", cliente.getEmailNormalizado());
+
+        cliente.setEmail(null);
+        assertNull(cliente.getEmailNormalizado());
+    }
+
     @Test
     void deveRetornarDtoCorretamente() {
-        ClienteEntity cliente = new ClienteEntity(1L, "João Silva", "123.456.789-00", "joao@example.com", "12345-678",
+        ClienteEntity cliente = new ClienteEntity(1L, "João Silva", 11144477735L, "joao@example.com", "12345-678",
                 "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
         ClienteDtoResponse dto = cliente.toDto();
         assertNotNull(dto);
         assertEquals(cliente.getCodigoCliente(), dto.codigoCliente());
         assertEquals(cliente.getNome(), dto.nome());
-        assertEquals(cliente.getCpf(), dto.cpf());
+        assertEquals("111.444.777-35", dto.cpf()); // CPF canônico volta formatado na resposta
         assertEquals(cliente.getEmail(), dto.email());
         assertEquals(cliente.getCep(), dto.cep());
         assertEquals(cliente.getLogradouro(), dto.logradouro());
@@ -60,7 +70,7 @@ class ClienteEntityTest {
     void dtoRequestDeveConverterParaEntidadeCorretamente() {
         ClienteDtoRequest dto = new ClienteDtoRequest(
                 "Maria Silva", // nome
-                "123.456.789-01", // cpf
+                "123.456.789-09", // cpf
                 "maria@example.com", // email
                 "12345-678", // cep
                 "Rua Sol", // logradouro
@@ -76,7 +86,7 @@ class ClienteEntityTest {
 
         assertNull(entity.getCodigoCliente()); // ID deve ser nulo porque é gerado pelo banco de dados
         assertEquals("Maria Silva", entity.getNome());
-        assertEquals("123.456.789-01", entity.getCpf());
+        assertEquals(12345678909L, entity.getCpf());
         assertEquals("maria@example.com", entity.getEmail());
         assertEquals("12345-678", entity.getCep());
         assertEquals("Rua Sol", entity.getLogradouro());
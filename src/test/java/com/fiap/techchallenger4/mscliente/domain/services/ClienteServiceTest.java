@@ -1,22 +1,58 @@
 package com.fiap.techchallenger4.mscliente.domain.services;
 
 import br.com.fiap.estrutura.exception.BusinessException;
+import br.com.fiap.estrutura.exception.EntidadeNaoEncontrada;
 
-import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumerFeignClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumer;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagemEstadoDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteContagensDtoResponse;
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
 import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteExclusaoLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteLoteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClientePaginaCamposDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClientePaginaDtoResponse;
 import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import com.fiap.techchallenger4.mscliente.domain.exception.VersaoDesatualizada;
 import com.fiap.techchallenger4.mscliente.domain.repositories.ClienteRepository;
+import com.fiap.techchallenger4.mscliente.infra.busca.BuscaClientes;
+import com.fiap.techchallenger4.mscliente.infra.cache.ClienteCache;
+import com.fiap.techchallenger4.mscliente.infra.metricas.ClienteMetricas;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -27,7 +63,18 @@ class ClienteServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
     @Mock
-    private PedidoConsumerFeignClient consumerFeignClient;
+    private PedidoConsumer pedidoConsumer;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private BuscaClientes buscaClientes;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @Spy
+    private ClienteCache clienteCache = new ClienteCache(new ConcurrentMapCacheManager());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private ClienteMetricas clienteMetricas = new ClienteMetricas(meterRegistry);
     @InjectMocks
     ClienteService clienteService;
 
@@ -37,7 +84,7 @@ class ClienteServiceTest {
 
     @BeforeEach
     void setUp() {
-        clienteExistente = new ClienteEntity(1L, "João Silva", "123.456.789-00", "joao@example.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
+        clienteExistente = new ClienteEntity(1L, "João Silva", 11144477735L, "joao@example.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
         autoCloseable = MockitoAnnotations.openMocks(this);
     }
 
@@ -46,6 +93,11 @@ class ClienteServiceTest {
         autoCloseable.close();
     }
 
+    private static DataIntegrityViolationException violacaoDeUnicidade(String restricao) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value violates unique constraint", null, restricao));
+    }
+
     @Test
     void deveLancarExcecaoQuandoClienteNaoEncontrado() {
         // Configuração
@@ -77,58 +129,211 @@ class ClienteServiceTest {
     void deveLancarExcecaoQuandoClientePorEmailNaoEncontrado() {
         // Configuração
         String email = "inexistente@example.com";
-        when(clienteRepository.findByEmail(email)).thenReturn(null);
+        when(clienteRepository.findByEmailNormalizado(email)).thenReturn(null);
 
         // Ação e Verificação
         BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.buscarClientePorEmail(email));
         assertEquals("Cliente com Email " + email + " não encontrado", exception.getMessage());
-        verify(clienteRepository).findByEmail(email);
+        verify(clienteRepository).findByEmailNormalizado(email);
     }
 
     @Test
-    void deveLancarExcecaoQuandoEmailJaCadastradoEmOutroCliente() {
-        // Cliente existente com e-mail original
-        ClienteEntity clienteExistente = new ClienteEntity(1L, "Maria Silva", "987.654.321-09", "maria@original.com", "12345-678",
-                "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+    void deveBuscarClientePorCodigoNoCacheAPartirDaSegundaConsulta() throws BusinessException {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+
+        clienteService.buscarClientePorCodigo(1L);
+        ClienteDtoResponse result = clienteService.buscarClientePorCodigo(1L);
+
+        assertEquals("João Silva", result.nome());
+        verify(clienteRepository, times(1)).findByCodigoCliente(1L);
+    }
+
+    @Test
+    void deveBuscarClientePorEmailNoCacheJaPreenchidoPelaBuscaPorCodigo() throws BusinessException {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+
+        clienteService.buscarClientePorCodigo(1L);
+        ClienteDtoResponse result = clienteService.buscarClientePorEmail("joao@example.com");
+
+        assertEquals(1L, result.codigoCliente());
+        verify(clienteRepository, never()).findByEmailNormalizado(any());
+    }
+
+    @Test
+    void deveInvalidarCacheDoEmailAnteriorAoAtualizarCliente() throws BusinessException {
+        when(clienteRepository.findByEmailNormalizado("joao@example.com")).thenReturn(clienteExistente);
+        clienteService.buscarClientePorEmail("joao@example.com");
+
+        ClienteDtoRequest dto = new ClienteDtoRequest("João Silva", "111.444.777-35", "joao@novo.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
+        ClienteEntity atualizado = dto.toEntity();
+        atualizado.setCodigoCliente(1L);
+        when(clienteRepository.atualizarPorCodigo(eq(1L), any(ClienteEntity.class))).thenReturn(1);
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(atualizado);
+        clienteService.atualizarClientePorCodigo(1L, dto, null);
+
+        // O email antigo não pode mais ser atendido pelo cache
+        when(clienteRepository.findByEmailNormalizado("joao@example.com")).thenReturn(null);
+        assertThrows(BusinessException.class, () -> clienteService.buscarClientePorEmail("joao@example.com"));
+
+        // A releitura da resposta já deixou a versão nova no cache
+        assertEquals("joao@novo.com", clienteService.buscarClientePorCodigo(1L).email());
+        verify(clienteRepository, times(2)).findByEmailNormalizado("joao@example.com");
+        verify(clienteRepository).findByCodigoCliente(1L);
+    }
+
+    @Test
+    void deveInvalidarCacheAoExcluirCliente() throws BusinessException {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+        when(pedidoConsumer.clientePossuiPedidos(1L)).thenReturn(false);
+        when(clienteRepository.excluirPorCodigo(1L)).thenReturn(1);
+        clienteService.buscarClientePorCodigo(1L);
+
+        clienteService.excluirClientePorCodigo(1L);
+
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(null);
+        assertThrows(BusinessException.class, () -> clienteService.buscarClientePorCodigo(1L));
+        when(clienteRepository.findByEmailNormalizado("joao@example.com")).thenReturn(null);
+        assertThrows(BusinessException.class, () -> clienteService.buscarClientePorEmail("joao@example.com"));
+    }
+
+    private long medicoes(String operacao, String resultado) {
+        Timer timer = meterRegistry.find(ClienteMetricas.OPERACOES).tag("operacao", operacao).tag("resultado", resultado).timer();
+        return timer == null ? 0 : timer.count();
+    }
 
+    @Test
+    void deveMedirOperacoesSeparandoSucessoDeEntidadeNaoEncontradaEDeErroDeNegocio() {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+        ClienteDtoRequest semCpf = new ClienteDtoRequest("João Silva", "", "joao@example.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
+
+        assertDoesNotThrow(() -> clienteService.buscarClientePorCodigo(1L));
+        assertThrows(EntidadeNaoEncontrada.class, () -> clienteService.buscarClientePorCodigo(2L));
+        assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(semCpf));
+
+        assertEquals(1, medicoes("buscarClientePorCodigo", "sucesso"));
+        assertEquals(1, medicoes("buscarClientePorCodigo", "EntidadeNaoEncontrada"));
+        assertEquals(1, medicoes("cadastrarCliente", "BusinessException"));
+        assertEquals(0, medicoes("cadastrarCliente", "sucesso"));
+    }
+
+    @Test
+    void deveMedirListagemEExportacaoInclusiveFalhaDeEscrita() throws BusinessException {
+        when(clienteRepository.findAll()).thenReturn(List.of(clienteExistente));
+        when(clienteRepository.streamAllByOrderByCodigoCliente()).thenAnswer(invocacao -> Stream.of(clienteExistente));
+        OutputStream desconectado = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Conexão encerrada pelo cliente");
+            }
+        };
+
+        clienteService.listarClientes();
+        assertDoesNotThrow(() -> clienteService.exportarClientes(new ByteArrayOutputStream()));
+        assertThrows(IOException.class, () -> clienteService.exportarClientes(desconectado));
+
+        assertEquals(1, medicoes("listarClientes", "sucesso"));
+        assertEquals(1, medicoes("exportarClientes", "sucesso"));
+        assertEquals(1, medicoes("exportarClientes", "erro"));
+    }
+
+    @Test
+    void deveMedirAtualizacaoSemContarAReleituraComoBusca() throws BusinessException {
+        ClienteDtoRequest dto = new ClienteDtoRequest("João Silva", "111.444.777-35", "joao@example.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
+        when(clienteRepository.atualizarPorCodigo(eq(1L), any(ClienteEntity.class))).thenReturn(1);
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+
+        clienteService.atualizarClientePorCodigo(1L, dto, null);
+
+        assertEquals(1, medicoes("atualizarClientePorCodigo", "sucesso"));
+        assertNull(meterRegistry.find(ClienteMetricas.OPERACOES).tag("operacao", "buscarClientePorCodigo").timer());
+    }
+
+    @Test
+    void deveContarClientesPorEstadoCidadeEMesPeloCacheAteAProximaAlteracao() throws BusinessException {
+        when(clienteRepository.contarPorCidade()).thenReturn(List.of(
+                contagemCidade("RJ", "Niterói", 2), contagemCidade("RJ", "Rio de Janeiro", 5), contagemCidade("SP", "São Paulo", 3)));
+        when(clienteRepository.contarPorMes()).thenReturn(List.of(contagemMes(2024, 3, 4), contagemMes(2024, 11, 6)));
+
+        ClienteContagensDtoResponse contagens = clienteService.contarClientes();
+
+        assertEquals(10, contagens.total());
+        assertEquals(List.of(
+                new ClienteContagemEstadoDtoResponse("RJ", 7, List.of(new ClienteContagemDtoResponse("Niterói", 2), new ClienteContagemDtoResponse("Rio de Janeiro", 5))),
+                new ClienteContagemEstadoDtoResponse("SP", 3, List.of(new ClienteContagemDtoResponse("São Paulo", 3)))
+        ), contagens.porEstado());
+        assertEquals(List.of(new ClienteContagemDtoResponse("2024-03", 4), new ClienteContagemDtoResponse("2024-11", 6)), contagens.porMes());
+
+        // Sem alterações, o painel é atendido pelo cache; depois de uma exclusão as contagens são refeitas.
+        assertSame(contagens, clienteService.contarClientes());
+        verify(clienteRepository, times(1)).contarPorCidade();
+        when(pedidoConsumer.clientePossuiPedidos(1L)).thenReturn(false);
+        when(clienteRepository.excluirPorCodigo(1L)).thenReturn(1);
+        clienteService.excluirClientePorCodigo(1L);
+        clienteService.contarClientes();
+        verify(clienteRepository, times(2)).contarPorCidade();
+        verify(clienteRepository, times(2)).contarPorMes();
+    }
+
+    private static ClienteRepository.ContagemCidade contagemCidade(String estado, String cidade, long quantidade) {
+        return new ClienteRepository.ContagemCidade() {
+            public String getEstado() { return estado; }
+            public String getCidade() { return cidade; }
+            public Long getQuantidade() { return quantidade; }
+        };
+    }
+
+    private static ClienteRepository.ContagemMes contagemMes(int ano, int mes, long quantidade) {
+        return new ClienteRepository.ContagemMes() {
+            public Integer getAno() { return ano; }
+            public Integer getMes() { return mes; }
+            public Long getQuantidade() { return quantidade; }
+        };
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoEmailJaCadastradoEmOutroCliente() {
         // Tentativa de atualizar para um e-mail que já pertence a outro cliente
         ClienteDtoRequest clienteAtualizacao = new ClienteDtoRequest(
-                "Maria Silva", "987.654.321-09", "email@existente.com", "12345-678",
+                "Maria Silva", "987.654.321-00", "email@existente.com", "12345-678",
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
 
-        // Configurar o repositório para simular que o e-mail já existe no sistema
-        when(clienteRepository.existsByEmail("email@existente.com")).thenReturn(true);
+        // Configurar o repositório para simular que o índice único de e-mail foi violado
+        when(clienteRepository.atualizarPorCodigo(eq(1L), any(ClienteEntity.class))).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_EMAIL));
 
         // Ação e Verificação
         BusinessException exception = assertThrows(BusinessException.class,
-                () -> clienteService.atualizarCliente(clienteAtualizacao, clienteExistente));
+                () -> clienteService.atualizarClientePorCodigo(1L, clienteAtualizacao, null));
 
         assertEquals("Email já cadastrado.", exception.getMessage());
-        verify(clienteRepository).existsByEmail("email@existente.com");
+        verify(clienteRepository).atualizarPorCodigo(eq(1L), any(ClienteEntity.class));
     }
 
     @Test
-    void deveLancarExcecaoAoTentarAtualizarParaEmailJaUsadoPorOutroCliente() {
-        // Cliente original que será atualizado
-        ClienteEntity clienteExistente = new ClienteEntity(
-                1L, "João Silva", "123.456.789-00", "joao@original.com", "12345-678",
-                "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
+    void deveTraduzirViolacaoDoIndiceAntigoDeEmail() {
+        ClienteDtoRequest novoCliente = new ClienteDtoRequest("João Silva", "111.444.777-35", "joao@example.com", "12345-678",
+                "Rua Sol", "100", "Apto 2", "Centro", "São Paulo", "SP", "(11) 91234-5678");
+        when(clienteRepository.save(any(ClienteEntity.class))).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_EMAIL_ANTIGO));
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(novoCliente));
+        assertEquals("Email já cadastrado.", exception.getMessage());
+    }
 
+    @Test
+    void deveLancarExcecaoAoTentarAtualizarParaEmailJaUsadoPorOutroCliente() {
         // DTO com os novos dados, incluindo um e-mail que já está em uso por outro cliente
         ClienteDtoRequest atualizacaoDto = new ClienteDtoRequest(
-                "João Silva Atualizado", "123.456.789-00", "email@usado.com", "12345-678",
+                "João Silva Atualizado", "111.444.777-35", "email@usado.com", "12345-678",
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "SP", "(11) 99876-5432");
 
         // Configurando o repositório para indicar que o e-mail já está em uso
-        when(clienteRepository.findByEmail("joao@original.com")).thenReturn(clienteExistente);
-        when(clienteRepository.existsByEmail("email@usado.com")).thenReturn(true);
+        when(clienteRepository.atualizarPorEmail(eq("joao@original.com"), any(ClienteEntity.class))).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_EMAIL));
 
         // Ação e verificação
         BusinessException exception = assertThrows(BusinessException.class,
-                () -> clienteService.atualizarCliente(atualizacaoDto, clienteExistente));
+                () -> clienteService.atualizarClientePorEmail("joao@original.com", atualizacaoDto, null));
 
         assertEquals("Email já cadastrado.", exception.getMessage());
-        verify(clienteRepository).existsByEmail("email@usado.com");
+        verify(clienteRepository, never()).findByEmailNormalizado(any());
     }
 
     @Test
@@ -137,7 +342,7 @@ class ClienteServiceTest {
         String email = "cliente@example.com";
         ClienteEntity clienteMock = new ClienteEntity();
         clienteMock.setEmail(email);
-        when(clienteRepository.findByEmail(email)).thenReturn(clienteMock);
+        when(clienteRepository.findByEmailNormalizado(email)).thenReturn(clienteMock);
 
         // Ação
         ClienteDtoResponse result = clienteService.buscarClientePorEmail(email);
@@ -145,14 +350,14 @@ class ClienteServiceTest {
         // Verificação
         assertNotNull(result);
         assertEquals(email, result.email());
-        verify(clienteRepository).findByEmail(email);
+        verify(clienteRepository).findByEmailNormalizado(email);
     }
 
     @Test
     void deveLancarExcecaoQuandoCpfJaCadastrado() {
         // Cliente já existe com o CPF
-        ClienteDtoRequest novoCliente = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
-        when(clienteRepository.existsByCpf(novoCliente.cpf())).thenReturn(true);
+        ClienteDtoRequest novoCliente = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        when(clienteRepository.save(any(ClienteEntity.class))).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_CPF));
 
         // Ação e Verificação
         BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(novoCliente));
@@ -186,25 +391,22 @@ class ClienteServiceTest {
     void deveLancarExcecaoQuandoCpfJaCadastradoEmOutroClienteNaAtualizacao() {
         // Dados de entrada
         Long clienteId = 1L;
-        ClienteDtoRequest atualizacaoDto = new ClienteDtoRequest("João Silva", "456.789.123-99", "joao.silva@novoemail.com", "12345-678", "Rua das Flores", "100", "Apto 101", "Centro", "São Paulo", "SP", "(11) 91234-5678");
+        ClienteDtoRequest atualizacaoDto = new ClienteDtoRequest("João Silva", "456.789.123-64", "joao.silva@novoemail.com", "12345-678", "Rua das Flores", "100", "Apto 101", "Centro", "São Paulo", "SP", "(11) 91234-5678");
 
-        ClienteEntity clienteExistente = new ClienteEntity(clienteId, "João Silva", "123.456.789-00", "joao@original.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
-
-        // Configurando o repository para retornar um cliente diferente para o mesmo CPF
-        when(clienteRepository.findByCodigoCliente(clienteId)).thenReturn(clienteExistente);
-        when(clienteRepository.existsByCpf(atualizacaoDto.cpf())).thenReturn(true);
+        // Configurando o repository para indicar que o CPF pertence a outro cliente
+        when(clienteRepository.atualizarPorCodigo(eq(clienteId), any(ClienteEntity.class))).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_CPF));
 
         // Ação e Verificação
-        BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.atualizarCliente(atualizacaoDto, clienteExistente));
+        BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.atualizarClientePorCodigo(clienteId, atualizacaoDto, null));
         assertEquals("CPF já cadastrado.", exception.getMessage());
-        verify(clienteRepository, never()).save(clienteExistente);
+        verify(clienteRepository, times(1)).atualizarPorCodigo(eq(clienteId), any(ClienteEntity.class));
     }
 
     @Test
     void deveLancarExcecaoQuandoEmailJaCadastrado() {
         // Cliente já existe com o Email
-        ClienteDtoRequest novoCliente = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@already.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
-        when(clienteRepository.existsByEmail(novoCliente.email())).thenReturn(true);
+        ClienteDtoRequest novoCliente = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@already.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        when(clienteRepository.save(any(ClienteEntity.class))).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_EMAIL));
 
         // Ação e Verificação
         BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(novoCliente));
@@ -215,7 +417,7 @@ class ClienteServiceTest {
     void deveLancarExcecaoQuandoEmailInvalidoOuVazio() {
         // Testando com e-mail vazio
         ClienteDtoRequest clienteComEmailInvalido = new ClienteDtoRequest(
-                "Maria Silva", "987.654.321-09", "", "12345-678",
+                "Maria Silva", "987.654.321-00", "", "12345-678",
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
 
         BusinessException exception = assertThrows(BusinessException.class,
@@ -225,7 +427,7 @@ class ClienteServiceTest {
 
         // Testando com e-mail no formato errado
         ClienteDtoRequest clienteComEmailFormatoErrado = new ClienteDtoRequest(
-                "Maria Silva", "987.654.321-09", "mariaexample.com", "12345-678",
+                "Maria Silva", "987.654.321-00", "mariaexample.com", "12345-678",
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
 
         exception = assertThrows(BusinessException.class,
@@ -239,31 +441,24 @@ class ClienteServiceTest {
         // Dados de entrada
         Long clienteId = 1L;
         ClienteDtoRequest atualizacaoDto = new ClienteDtoRequest(
-                "João Silva", "123.456.789-00", "email@usadoporoutro.com",
+                "João Silva", "111.444.777-35", "email@usadoporoutro.com",
                 "12345-678", "Rua das Flores", "100", "Apto 101", "Centro",
                 "São Paulo", "SP", "(11) 91234-5678");
 
-        ClienteEntity clienteExistente = new ClienteEntity(
-                clienteId, "João Silva", "123.456.789-00", "joao@original.com",
-                "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C",
-                "SP", "(11) 91234-5678");
-
-        // Cliente existente no banco com o email que será testado para duplicidade
-        when(clienteRepository.findByCodigoCliente(clienteId)).thenReturn(clienteExistente);
-        when(clienteRepository.existsByEmail(atualizacaoDto.email())).thenReturn(true);
+        // O índice único de email acusa a duplicidade no próprio UPDATE
+        when(clienteRepository.atualizarPorCodigo(eq(clienteId), any(ClienteEntity.class))).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_EMAIL));
 
         // Ação e Verificação
         BusinessException exception = assertThrows(BusinessException.class,
-                () -> clienteService.atualizarCliente(atualizacaoDto, clienteExistente));
+                () -> clienteService.atualizarClientePorCodigo(clienteId, atualizacaoDto, null));
 
         assertEquals("Email já cadastrado.", exception.getMessage());
-        verify(clienteRepository).existsByEmail(atualizacaoDto.email());
-        verify(clienteRepository, never()).save(clienteExistente);
+        verify(clienteCache, never()).remover(any(), any(String[].class));
     }
 
     @Test
     void naoDeveCriarClienteSemNomeInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
 
         BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto));
         assertEquals("Nome não pode ser vazio.", exception.getMessage());
@@ -279,14 +474,14 @@ class ClienteServiceTest {
 
     @Test
     void naoDeveCriarClienteSemEmailInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "Email inválido ou vazio. Formato esperado: exemplo@dominio.com");
     }
 
     @Test
     void naoDeveCriarClienteSemCepInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "CEP inválido ou vazio. Deve estar no formato XXXXX-XXX.");
     }
@@ -294,7 +489,7 @@ class ClienteServiceTest {
     @Test
     void deveLancarExcecaoQuandoCepInvalidoOuVazioAtravesDeCadastro() {
         ClienteDtoRequest clienteComCepInvalido = new ClienteDtoRequest(
-                "Maria Silva", "987.654.321-09", "maria@example.com", "", // CEP vazio
+                "Maria Silva", "987.654.321-00", "maria@example.com", "", // CEP vazio
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
 
         BusinessException exception = assertThrows(BusinessException.class,
@@ -306,7 +501,7 @@ class ClienteServiceTest {
     @Test
     void deveLancarExcecaoQuandoCepNaoSegueFormato() {
         ClienteDtoRequest clienteComCepInvalido = new ClienteDtoRequest(
-                "Maria Silva", "987.654.321-09", "maria@example.com", "1234567", // CEP no formato errado
+                "Maria Silva", "987.654.321-00", "maria@example.com", "1234567", // CEP no formato errado
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
 
         BusinessException exception = assertThrows(BusinessException.class,
@@ -317,42 +512,42 @@ class ClienteServiceTest {
 
     @Test
     void naoDeveCriarClienteSemLogradouroInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "Logradouro não pode ser vazio.");
     }
 
     @Test
     void naoDeveCriarClienteSemEstadoInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "", "(11) 98765-4321");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "Estado não pode ser vazio.");
     }
 
     @Test
     void naoDeveCriarClienteSemCidadeInformada() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "", "SP", "(11) 98765-4321");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "Cidade não pode ser vazia.");
     }
 
     @Test
     void naoDeveCriarClienteSemBairroInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "", "São Paulo", "SP", "(11) 98765-4321");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "Bairro não pode ser vazio.");
     }
 
     @Test
     void naoDeveCriarClienteSemNumeroInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "Número não pode ser vazio.");
     }
 
     @Test
     void naoDeveCriarClienteSemTelefoneInformado() {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "");
 
         assertThrows(BusinessException.class, () -> clienteService.cadastrarCliente(dto), "Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX.");
     }
@@ -360,7 +555,7 @@ class ClienteServiceTest {
     @Test
     void deveLancarExcecaoQuandoTelefoneInvalidoOuVazio() {
         ClienteDtoRequest clienteComTelefoneInvalido = new ClienteDtoRequest(
-                "Maria Silva", "987.654.321-09", "maria@example.com", "12345-678",
+                "Maria Silva", "987.654.321-00", "maria@example.com", "12345-678",
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", ""); // Telefone vazio
 
         BusinessException exception = assertThrows(BusinessException.class,
@@ -372,7 +567,7 @@ class ClienteServiceTest {
     @Test
     void deveLancarExcecaoQuandoFormatoDeTelefoneIncorreto() {
         ClienteDtoRequest clienteComTelefoneInvalido = new ClienteDtoRequest(
-                "Maria Silva", "987.654.321-09", "maria@example.com", "12345-678",
+                "Maria Silva", "987.654.321-00", "maria@example.com", "12345-678",
                 "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "21987654321"); // Formato de telefone incorreto
 
         BusinessException exception = assertThrows(BusinessException.class,
@@ -383,7 +578,7 @@ class ClienteServiceTest {
 
     @Test
     void deveCadastrarClienteComInformacoesValidas() throws BusinessException {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
 
         when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(new ClienteEntity());
         assertNotNull(clienteService.cadastrarCliente(dto));
@@ -391,10 +586,10 @@ class ClienteServiceTest {
     }
 
     @Test
-    void deveRetornarListaDeClientes() {
+    void deveRetornarListaDeClientes() throws BusinessException {
         // Configuração
-        ClienteEntity cliente1 = new ClienteEntity(1L, "Maria Silva", "123.456.789-01", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
-        ClienteEntity cliente2 = new ClienteEntity(2L, "João Costa", "987.654.321-09", "joao@example.com", "87654-321", "Rua Lua", "200", "Apt 2", "Bairro Lunar", "Rio de Janeiro", "RJ", "(21) 65432-1987");
+        ClienteEntity cliente1 = new ClienteEntity(1L, "Maria Silva", 12345678909L, "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteEntity cliente2 = new ClienteEntity(2L, "João Costa", 98765432100L, "joao@example.com", "87654-321", "Rua Lua", "200", "Apt 2", "Bairro Lunar", "Rio de Janeiro", "RJ", "(21) 65432-1987");
 
         when(clienteRepository.findAll()).thenReturn(Arrays.asList(cliente1, cliente2));
 
@@ -410,84 +605,320 @@ class ClienteServiceTest {
     }
 
     @Test
-    void deveAtualizarClienteComInformacoesValidas() throws BusinessException {
-        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "987.654.321-09", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+    void deveRetornarPrimeiraPaginaComCursorDaProximaPagina() throws BusinessException {
+        ClienteEntity cliente1 = new ClienteEntity(1L, "Maria Silva", 12345678909L, "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteEntity cliente2 = new ClienteEntity(2L, "João Costa", 98765432100L, "joao@example.com", "87654-321", "Rua Lua", "200", "Apt 2", "Bairro Lunar", "Rio de Janeiro", "RJ", "(21) 65432-1987");
+        ClienteEntity cliente3 = new ClienteEntity(3L, "Ana Costa", 32165498765L, "ana@example.com", "87654-321", "Rua Lua", "300", "", "Bairro Lunar", "Rio de Janeiro", "RJ", "(21) 65432-1988");
 
-        when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(clienteExistente);
+        when(clienteRepository.findByCodigoClienteGreaterThanOrderByCodigoClienteAsc(0L, Limit.of(3)))
+                .thenReturn(Arrays.asList(cliente1, cliente2, cliente3));
 
-        ClienteDtoResponse updatedDto = clienteService.atualizarCliente(dto, clienteExistente);
+        ClientePaginaDtoResponse pagina = clienteService.listarClientesPaginados(null, 2);
 
-        assertNotNull(updatedDto);
-        assertEquals("Maria Silva", clienteExistente.getNome());
-        assertEquals("987.654.321-09", clienteExistente.getCpf());
-        assertEquals("maria@example.com", clienteExistente.getEmail());
-        assertEquals("87654-321", clienteExistente.getCep());
-        assertEquals("Rua Nova", clienteExistente.getLogradouro());
-        assertEquals("101", clienteExistente.getNumero());
-        assertEquals("Apto 2", clienteExistente.getComplemento());
-        assertEquals("Bairro Novo", clienteExistente.getBairro());
-        assertEquals("Cidade Nova", clienteExistente.getCidade());
-        assertEquals("RJ", clienteExistente.getEstado());
-        assertEquals("(21) 98765-4321", clienteExistente.getTelefone());
-        verify(clienteRepository).save(clienteExistente);
+        assertEquals(2, pagina.clientes().size());
+        assertEquals(2L, pagina.clientes().get(1).codigoCliente());
+        assertNotNull(pagina.proximoCursor());
+
+        // O cursor devolvido deve continuar a leitura a partir do último código da página
+        when(clienteRepository.findByCodigoClienteGreaterThanOrderByCodigoClienteAsc(2L, Limit.of(3)))
+                .thenReturn(List.of(cliente3));
+
+        ClientePaginaDtoResponse ultimaPagina = clienteService.listarClientesPaginados(pagina.proximoCursor(), 2);
+
+        assertEquals(1, ultimaPagina.clientes().size());
+        assertEquals("Ana Costa", ultimaPagina.clientes().get(0).nome());
+        assertNull(ultimaPagina.proximoCursor());
+        verify(clienteRepository, never()).findAll();
     }
 
     @Test
-    void deveAtualizarClientePorCodigo() throws BusinessException {
-        // Criação do DTO de entrada
-        ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-09", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+    void deveLancarExcecaoQuandoCursorInvalido() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> clienteService.listarClientesPaginados("cursor@invalido", 10));
+
+        assertEquals("Cursor inválido.", exception.getMessage());
+        verify(clienteRepository, never()).findByCodigoClienteGreaterThanOrderByCodigoClienteAsc(any(), any());
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoTamanhoDaPaginaForaDoLimite() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> clienteService.listarClientesPaginados(null, 0));
+        assertEquals("Tamanho da página deve estar entre 1 e 500.", exception.getMessage());
+
+        assertThrows(BusinessException.class, () -> clienteService.listarClientesPaginados(null, 501));
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void deveListarSoOsCamposPedidosComCpfFormatado() throws BusinessException {
+        when(clienteRepository.findCamposByCodigoClienteGreaterThan(List.of("codigoCliente", "nome", "cpf"), 0L, null))
+                .thenReturn(new ArrayList<>(List.of(new LinkedHashMap<>(Map.of("codigoCliente", 1L, "nome", "Maria Silva", "cpf", 12345678909L)))));
+
+        // A ordem pedida não importa: a seleção segue a ordem do DTO, para gerar sempre o mesmo SQL.
+        List<Map<String, Object>> clientes = clienteService.listarClientes(" cpf, nome ");
+
+        assertEquals(List.of(Map.of("codigoCliente", 1L, "nome", "Maria Silva", "cpf", "123.456.789-09")), clientes);
+        verify(clienteRepository, never()).findAll();
+    }
+
+    @Test
+    void deveListarPaginaSoComOsCamposPedidosEOCursorPeloUltimoCodigo() throws BusinessException {
+        when(clienteRepository.findCamposByCodigoClienteGreaterThan(List.of("codigoCliente", "email"), 0L, 3)).thenReturn(new ArrayList<>(List.of(
+                new LinkedHashMap<>(Map.of("codigoCliente", 1L, "email", "um@example.com")),
+                new LinkedHashMap<>(Map.of("codigoCliente", 2L, "email", "dois@example.com")),
+                new LinkedHashMap<>(Map.of("codigoCliente", 3L, "email", "tres@example.com")))));
+
+        ClientePaginaCamposDtoResponse pagina = clienteService.listarClientesPaginados(null, 2, "email");
+
+        assertEquals(List.of(Map.of("codigoCliente", 1L, "email", "um@example.com"), Map.of("codigoCliente", 2L, "email", "dois@example.com")), pagina.clientes());
+        when(clienteRepository.findCamposByCodigoClienteGreaterThan(List.of("codigoCliente", "email"), 2L, 3)).thenReturn(new ArrayList<>());
+        assertNull(clienteService.listarClientesPaginados(pagina.proximoCursor(), 2, "email").proximoCursor());
+    }
+
+    @Test
+    void deveRecortarClienteDoCacheSoComOsCamposPedidos() throws BusinessException {
+        Map<String, Object> cliente = clienteService.selecionarCampos(clienteExistente.toDto(), "email,estado");
+
+        assertEquals(List.of("codigoCliente", "email", "estado"), List.copyOf(cliente.keySet()));
+        assertEquals("joao@example.com", cliente.get("email"));
+    }
+
+    @Test
+    void deveRecusarCampoInexistente() {
+        BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.listarClientes("nome,senha"));
+
+        assertTrue(exception.getMessage().startsWith("Campo inexistente: senha."));
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void deveBuscarClientesNaOrdemDeRelevanciaComCursorDaProximaPagina() throws BusinessException {
+        ClienteEntity cliente7 = new ClienteEntity(7L, "Ana Silveira", 32165498765L, "ana@example.com", "87654-321", "Rua Lua", "300", "", "Bairro Lunar", "Santos", "SP", "(21) 65432-1988");
+        when(buscaClientes.buscar("silv", null, "SP", 0, 3)).thenReturn(List.of(1L, 7L, 9L));
+        // findAllById não garante a ordem: a página segue a ordem devolvida pela busca
+        when(clienteRepository.findAllById(List.of(1L, 7L))).thenReturn(List.of(cliente7, clienteExistente));
+
+        ClientePaginaDtoResponse pagina = clienteService.buscarClientes("silv", null, "SP", null, 2);
+
+        assertEquals(List.of(1L, 7L), pagina.clientes().stream().map(ClienteDtoResponse::codigoCliente).toList());
+        assertNotNull(pagina.proximoCursor());
+
+        when(buscaClientes.buscar("silv", null, "SP", 2, 3)).thenReturn(List.of(9L));
+        when(clienteRepository.findAllById(List.of(9L))).thenReturn(List.of());
+
+        assertNull(clienteService.buscarClientes("silv", null, "SP", pagina.proximoCursor(), 2).proximoCursor());
+    }
+
+    @Test
+    void deveRecusarBuscaSemFiltroOuComNomeCurto() {
+        BusinessException semFiltro = assertThrows(BusinessException.class, () -> clienteService.buscarClientes(" ", null, null, null, null));
+        assertEquals("Informe nome, cidade ou estado para a busca.", semFiltro.getMessage());
+
+        BusinessException nomeCurto = assertThrows(BusinessException.class, () -> clienteService.buscarClientes("jo", null, null, null, null));
+        assertEquals("Informe ao menos 3 letras do nome.", nomeCurto.getMessage());
+
+        assertThrows(BusinessException.class, () -> clienteService.buscarClientes("joão", null, null, null, 101));
+        verifyNoInteractions(buscaClientes);
+    }
+
+    @Test
+    void deveManterOIndiceDeBuscaNasAlteracoesENasExclusoes() throws BusinessException {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+
+        clienteService.atualizarParcialmentePorCodigo(1L, Map.of("nome", "João Souza"), null);
+        when(pedidoConsumer.clientePossuiPedidos(1L)).thenReturn(false);
+        when(clienteRepository.excluirPorCodigo(1L)).thenReturn(1);
+        clienteService.excluirClientePorCodigo(1L);
+
+        InOrder ordem = inOrder(buscaClientes);
+        ordem.verify(buscaClientes).indexar(1L, "João Souza", "Cidade C", "SP");
+        ordem.verify(buscaClientes).remover(1L);
+    }
+
+    @Test
+    void deveExportarClientesEmNdjson() throws IOException {
+        ClienteEntity cliente1 = new ClienteEntity(1L, "Maria Silva", 12345678909L, "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteEntity cliente2 = new ClienteEntity(2L, "João Costa", 98765432100L, "joao@example.com", "87654-321", "Rua Lua", "200", "Apt 2", "Bairro Lunar", "Rio de Janeiro", "RJ", "(21) 65432-1987");
+        when(clienteRepository.streamAllByOrderByCodigoCliente()).thenReturn(Stream.of(cliente1, cliente2));
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        clienteService.exportarClientes(saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("Maria Silva", objectMapper.readValue(linhas[0], ClienteDtoResponse.class).nome());
+        assertEquals(2L, objectMapper.readValue(linhas[1], ClienteDtoResponse.class).codigoCliente());
+        assertTrue(saida.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        verify(clienteRepository, never()).findAll();
+    }
 
-        // Cliente existente que será encontrado pelo código
-        ClienteEntity clienteExistente = new ClienteEntity(1L, "João Silva", "123.456.789-00", "joao@example.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
+    @Test
+    void deveLimparContextoDePersistenciaACadaLoteExportado() throws IOException {
+        Stream<ClienteEntity> clientes = Stream.iterate(1L, codigo -> codigo + 1).limit(1_001)
+                .map(codigo -> new ClienteEntity(codigo, "Cliente " + codigo, 12345678909L, "cliente" + codigo + "@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321"));
+        when(clienteRepository.streamAllByOrderByCodigoCliente()).thenReturn(clientes);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        clienteService.exportarClientes(saida);
+
+        assertEquals(1_001, saida.toString(StandardCharsets.UTF_8).split("\n").length);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void deveCadastrarLoteInformandoResultadoDeCadaRegistro() throws BusinessException {
+        ClienteDtoRequest valido = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest semNome = new ClienteDtoRequest("", "529.982.247-25", "sem.nome@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest cpfRepetido = new ClienteDtoRequest("Outra Maria", "123.456.789-09", "outra@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest emailCadastrado = new ClienteDtoRequest("João Costa", "987.654.321-00", "joao@example.com", "87654-321", "Rua Lua", "200", "", "Centro", "Rio de Janeiro", "RJ", "(21) 98765-4321");
+
+        when(clienteRepository.findCpfEmailByCpfInOrEmailNormalizadoIn(any(), any())).thenReturn(List.of(new ClienteRepository.CpfEmail() {
+            public Long getCpf() { return 11144477735L; }
+            public String getEmail() { return "joao@example.com"; }
+        }));
+
+        ClienteLoteDtoResponse resultado = clienteService.cadastrarClientesEmLote(Arrays.asList(valido, semNome, cpfRepetido, emailCadastrado, null));
+
+        assertEquals(5, resultado.total());
+        assertEquals(1, resultado.cadastrados());
+        assertEquals(4, resultado.rejeitados());
+        assertTrue(resultado.resultados().get(0).cadastrado());
+        assertEquals("Nome não pode ser vazio.", resultado.resultados().get(1).mensagem());
+        assertEquals("CPF repetido no lote.", resultado.resultados().get(2).mensagem());
+        assertEquals("Email já cadastrado.", resultado.resultados().get(3).mensagem());
+        assertEquals("Registro vazio.", resultado.resultados().get(4).mensagem());
+        assertEquals(5, resultado.resultados().get(4).linha());
+
+        // Uma única consulta de duplicidade para o lote inteiro
+        verify(clienteRepository, times(1)).findCpfEmailByCpfInOrEmailNormalizadoIn(any(), any());
+        verify(clienteRepository).saveAll(argThat(entidades -> ((List<?>) entidades).size() == 1));
+        verify(clienteRepository, never()).save(any());
+    }
+
+    @Test
+    void deveCompararCpfDoLoteNaFormaCanonica() throws BusinessException {
+        ClienteDtoRequest pontuado = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest semPontuacao = new ClienteDtoRequest("Outra Maria", "12345678909", "outra@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+
+        ClienteLoteDtoResponse resultado = clienteService.cadastrarClientesEmLote(List.of(pontuado, semPontuacao));
+
+        assertEquals(1, resultado.cadastrados());
+        assertEquals("CPF repetido no lote.", resultado.resultados().get(1).mensagem());
+        verify(clienteRepository).findCpfEmailByCpfInOrEmailNormalizadoIn(eq(List.of(12345678909L)), any());
+    }
+
+    @Test
+    void deveApontarRegistroQueViolouUnicidadeQuandoBlocoDoLoteFalha() throws BusinessException {
+        ClienteDtoRequest valido = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com", "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+        ClienteDtoRequest concorrente = new ClienteDtoRequest("João Costa", "987.654.321-00", "joao@example.com", "87654-321", "Rua Lua", "200", "", "Centro", "Rio de Janeiro", "RJ", "(21) 98765-4321");
+
+        // Outro cadastro gravou o CPF de João entre a verificação do lote e o insert
+        when(clienteRepository.saveAll(any())).thenThrow(violacaoDeUnicidade(ClienteEntity.UK_CPF));
+        when(clienteRepository.save(any(ClienteEntity.class))).thenAnswer(invocation -> {
+            ClienteEntity cliente = invocation.getArgument(0);
+            if (cliente.getCpf() == 98765432100L) throw violacaoDeUnicidade(ClienteEntity.UK_CPF);
+            return cliente;
+        });
+
+        ClienteLoteDtoResponse resultado = clienteService.cadastrarClientesEmLote(List.of(valido, concorrente));
+
+        assertEquals(1, resultado.cadastrados());
+        assertTrue(resultado.resultados().get(0).cadastrado());
+        assertEquals("CPF já cadastrado.", resultado.resultados().get(1).mensagem());
+    }
 
-        // Simulação do comportamento do repository para encontrar um cliente pelo código
+    @Test
+    void deveCadastrarLoteEmNdjson() throws BusinessException {
+        String ndjson = """
+                {"nome":"Maria Silva","cpf":"123.456.789-09","email":"maria@example.com","cep":"12345-678","logradouro":"Rua Sol","numero":"100","complemento":"","bairro":"Centro","cidade":"São Paulo","estado":"SP","telefone":"(11) 98765-4321"}
+                {"nome":"João Costa","cpf":"987.654.321-00","email":"joao@example.com","cep":"87654-321","logradouro":"Rua Lua","numero":"200","complemento":"","bairro":"Centro","cidade":"Rio de Janeiro","estado":"RJ","telefone":"(21) 98765-4321"}
+                """;
+
+        ClienteLoteDtoResponse resultado = clienteService.cadastrarClientesEmLote(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, resultado.cadastrados());
+        assertEquals("joao@example.com", resultado.resultados().get(1).email());
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoLoteVazioOuNdjsonInvalido() {
+        BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.cadastrarClientesEmLote(List.of()));
+        assertEquals("Nenhum cliente informado.", exception.getMessage());
+
+        exception = assertThrows(BusinessException.class, () -> clienteService.cadastrarClientesEmLote(
+                new ByteArrayInputStream("{\"nome\":\"Maria\"}\n{nome".getBytes(StandardCharsets.UTF_8))));
+        assertEquals("NDJSON inválido na linha 2.", exception.getMessage());
+        verify(clienteRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void deveAtualizarClienteComInformacoesValidas() throws BusinessException {
+        ClienteDtoRequest dto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+        ArgumentCaptor<ClienteEntity> dados = ArgumentCaptor.forClass(ClienteEntity.class);
+        when(clienteRepository.atualizarPorCodigo(eq(1L), dados.capture())).thenReturn(1);
         when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
 
-        // Simulação do método 'save' do repository
-        when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(clienteExistente);
+        ClienteDtoResponse updatedDto = clienteService.atualizarClientePorCodigo(1L, dto, null);
+
+        assertNotNull(updatedDto);
+        assertEquals("Maria Silva", dados.getValue().getNome());
+        assertEquals(98765432100L, dados.getValue().getCpf());
+        assertEquals("maria@example.com", dados.getValue().getEmail());
+        assertEquals("87654-321", dados.getValue().getCep());
+        assertEquals("Rua Nova", dados.getValue().getLogradouro());
+        assertEquals("101", dados.getValue().getNumero());
+        assertEquals("Apto 2", dados.getValue().getComplemento());
+        assertEquals("Bairro Novo", dados.getValue().getBairro());
+        assertEquals("Cidade Nova", dados.getValue().getCidade());
+        assertEquals("RJ", dados.getValue().getEstado());
+        assertEquals("(21) 98765-4321", dados.getValue().getTelefone());
+        verify(clienteRepository, never()).save(any());
+    }
+
+    @Test
+    void deveAtualizarClientePorCodigo() throws BusinessException {
+        // Criação do DTO de entrada
+        ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+
+        // Um único UPDATE, sem leitura prévia; a resposta é lida depois
+        when(clienteRepository.atualizarPorCodigo(eq(1L), any(ClienteEntity.class))).thenReturn(1);
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteDto.toEntity());
 
         // Ação: chamar o método 'atualizarClientePorCodigo'
-        ClienteDtoResponse updatedDto = clienteService.atualizarClientePorCodigo(1L, clienteDto);
+        ClienteDtoResponse updatedDto = clienteService.atualizarClientePorCodigo(1L, clienteDto, null);
 
         // Verificações
-        assertNotNull(updatedDto);
-        assertEquals("Maria Silva", clienteExistente.getNome());
-        assertEquals("987.654.321-09", clienteExistente.getCpf());
-        assertEquals("maria@example.com", clienteExistente.getEmail());
-        assertEquals("87654-321", clienteExistente.getCep());
-        assertEquals("Rua Nova", clienteExistente.getLogradouro());
-        assertEquals("101", clienteExistente.getNumero());
-        assertEquals("Apto 2", clienteExistente.getComplemento());
-        assertEquals("Bairro Novo", clienteExistente.getBairro());
-        assertEquals("Cidade Nova", clienteExistente.getCidade());
-        assertEquals("RJ", clienteExistente.getEstado());
-        assertEquals("(21) 98765-4321", clienteExistente.getTelefone());
+        assertEquals("Maria Silva", updatedDto.nome());
+        assertEquals("987.654.321-00", updatedDto.cpf());
 
         // Verificação da interação com o repositório
-        verify(clienteRepository).findByCodigoCliente(1L);
-        verify(clienteRepository).save(clienteExistente);
+        InOrder ordem = inOrder(clienteRepository);
+        ordem.verify(clienteRepository).atualizarPorCodigo(eq(1L), any(ClienteEntity.class));
+        ordem.verify(clienteRepository).findByCodigoCliente(1L);
+        verify(clienteRepository, never()).existsById(any());
     }
 
     @Test
     void deveAtualizarClientePorEmail() throws BusinessException {
         // Dados de entrada
-        String email = "maria@example.com";
-        ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-09", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+        String email = "joao@example.com";
+        ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
 
-        // Cliente existente que será encontrado pelo email
-        ClienteEntity clienteExistente = new ClienteEntity(1L, "João Silva", "123.456.789-00", "joao@example.com", "12345-678", "Rua A", "100", "Apto 1", "Bairro B", "Cidade C", "SP", "(11) 91234-5678");
-
-        // Simulando o comportamento do repositório
-        when(clienteRepository.findByEmail(email)).thenReturn(clienteExistente);
-        when(clienteRepository.save(any(ClienteEntity.class))).thenReturn(clienteExistente);
+        // Simulando o comportamento do repositório: o cliente atualizado é relido pelo email novo
+        when(clienteRepository.atualizarPorEmail(eq(email), any(ClienteEntity.class))).thenReturn(1);
+        ClienteEntity atualizado = clienteDto.toEntity();
+        atualizado.setCodigoCliente(1L);
+        when(clienteRepository.findByEmailNormalizado("maria@example.com")).thenReturn(atualizado);
 
         // Ação: chamando o método para atualizar o cliente pelo email
-        ClienteDtoResponse updatedDto = clienteService.atualizarClientePorEmail(email, clienteDto);
+        ClienteDtoResponse updatedDto = clienteService.atualizarClientePorEmail(email, clienteDto, null);
 
         // Verificações
         assertNotNull(updatedDto);
         assertEquals("Maria Silva", updatedDto.nome());
-        assertEquals("987.654.321-09", updatedDto.cpf());
+        assertEquals("987.654.321-00", updatedDto.cpf());
         assertEquals("maria@example.com", updatedDto.email());
         assertEquals("87654-321", updatedDto.cep());
         assertEquals("Rua Nova", updatedDto.logradouro());
@@ -499,8 +930,131 @@ class ClienteServiceTest {
         assertEquals("(21) 98765-4321", updatedDto.telefone());
 
         // Verificando interações com o mock
-        verify(clienteRepository).findByEmail(email);
-        verify(clienteRepository).save(clienteExistente);
+        verify(clienteRepository, never()).findByEmailNormalizado(email);
+        verify(clienteCache).remover(1L, email, "maria@example.com");
+    }
+
+    @Test
+    void deveRecusarAtualizacaoQuandoIfMatchNaoForAVersaoAtual() {
+        ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+        clienteExistente.setVersao(2L);
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+
+        // PUT: o If-Match vai no WHERE do UPDATE; nenhuma linha afetada com o cliente existente é versão desatualizada
+        assertThrows(VersaoDesatualizada.class, () -> clienteService.atualizarClientePorCodigo(1L, clienteDto, "\"1-1\""));
+        verify(clienteRepository).atualizarPorCodigo(eq(1L), any(ClienteEntity.class), eq(List.of("\"1-1\"")));
+
+        assertThrows(VersaoDesatualizada.class, () -> clienteService.atualizarParcialmentePorCodigo(1L, Map.of("telefone", "(11) 99999-0000"), "\"1-1\""));
+        assertEquals("(11) 91234-5678", clienteExistente.getTelefone());
+        verify(clienteRepository, never()).flush();
+    }
+
+    @Test
+    void deveResponderNaoEncontradoAntesDeValidarQuandoClienteNaoExiste() {
+        ClienteDtoRequest invalido = new ClienteDtoRequest("", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+
+        assertThrows(EntidadeNaoEncontrada.class, () -> clienteService.atualizarClientePorCodigo(7L, invalido, null));
+        assertThrows(EntidadeNaoEncontrada.class, () -> clienteService.atualizarClientePorCodigo(7L, new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321"), "\"7-0\""));
+
+        when(clienteRepository.existsById(8L)).thenReturn(true);
+        BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.atualizarClientePorCodigo(8L, invalido, null));
+        assertEquals("Nome não pode ser vazio.", exception.getMessage());
+        verify(clienteRepository, never()).atualizarPorCodigo(eq(8L), any(ClienteEntity.class));
+    }
+
+    @Test
+    void deveAtualizarQuandoIfMatchContiverAVersaoAtual() throws BusinessException {
+        ClienteDtoRequest clienteDto = new ClienteDtoRequest("Maria Silva", "987.654.321-00", "maria@example.com", "87654-321", "Rua Nova", "101", "Apto 2", "Bairro Novo", "Cidade Nova", "RJ", "(21) 98765-4321");
+        clienteExistente.setVersao(2L);
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+        when(clienteRepository.atualizarPorCodigo(eq(1L), any(ClienteEntity.class), eq(List.of("\"1-1\"", "\"1-2\"")))).thenReturn(1);
+        when(clienteRepository.atualizarPorCodigo(eq(1L), any(ClienteEntity.class))).thenReturn(1);
+
+        clienteService.atualizarClientePorCodigo(1L, clienteDto, "\"1-1\", \"1-2\"");
+        clienteService.atualizarClientePorCodigo(1L, clienteDto, "*");
+        clienteService.atualizarParcialmentePorCodigo(1L, Map.of("telefone", "(11) 99999-0000"), "*");
+
+        verify(clienteRepository).atualizarPorCodigo(eq(1L), any(ClienteEntity.class));
+        verify(clienteRepository).flush();
+    }
+
+    @Test
+    void deveTraduzirAlteracaoConcorrenteEmVersaoDesatualizada() {
+        when(clienteRepository.findByEmailNormalizado("joao@example.com")).thenReturn(clienteExistente);
+        doThrow(new ObjectOptimisticLockingFailureException(ClienteEntity.class, 1L)).when(clienteRepository).flush();
+
+        assertThrows(VersaoDesatualizada.class,
+                () -> clienteService.atualizarParcialmentePorEmail("joao@example.com", Map.of("telefone", "(11) 99999-0000"), null));
+        verify(clienteCache, never()).remover(any(), any(String[].class));
+    }
+
+    @Test
+    void deveAtualizarParcialmenteSomenteOsCamposInformados() throws BusinessException {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+        Map<String, String> campos = new HashMap<>();
+        campos.put("telefone", "(11) 99999-0000");
+        campos.put("complemento", null);
+
+        ClienteDtoResponse atualizado = clienteService.atualizarParcialmentePorCodigo(1L, campos, null);
+
+        assertEquals("(11) 99999-0000", atualizado.telefone());
+        assertNull(atualizado.complemento());
+        assertEquals("João Silva", atualizado.nome());
+        assertEquals(11144477735L, clienteExistente.getCpf());
+        assertEquals("joao@example.com", clienteExistente.getEmail());
+        verify(clienteRepository).flush();
+        verify(clienteRepository, never()).save(any());
+    }
+
+    @Test
+    void deveInvalidarCacheEReindexarSomenteDepoisDoCommitNaAtualizacaoParcial() throws BusinessException {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            clienteService.atualizarParcialmentePorCodigo(1L, Map.of("nome", "João Souza"), null);
+
+            verify(clienteCache, never()).remover(any(), any(String[].class));
+            verify(buscaClientes, never()).indexar(any(), any(), any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(clienteCache).remover(1L, "joao@example.com", "joao@example.com");
+        verify(buscaClientes).indexar(1L, "João Souza", clienteExistente.getCidade(), clienteExistente.getEstado());
+    }
+
+    @Test
+    void deveValidarSomenteOsCamposInformadosNaAtualizacaoParcial() {
+        when(clienteRepository.findByCodigoCliente(1L)).thenReturn(clienteExistente);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> clienteService.atualizarParcialmentePorCodigo(1L, Map.of("telefone", "123", "codigoCliente", "2"), null));
+
+        assertEquals("Campo codigoCliente não pode ser alterado. Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX.",
+                exception.getMessage());
+        assertEquals("(11) 91234-5678", clienteExistente.getTelefone());
+        verify(clienteRepository, never()).flush();
+
+        exception = assertThrows(BusinessException.class, () -> clienteService.atualizarParcialmentePorCodigo(1L, Map.of(), null));
+        assertEquals("Nenhum campo informado.", exception.getMessage());
+    }
+
+    @Test
+    void deveTraduzirEmailDuplicadoEInvalidarCacheNaAtualizacaoParcialPorEmail() throws BusinessException {
+        when(clienteRepository.findByEmailNormalizado("joao@example.com")).thenReturn(clienteExistente);
+        doThrow(violacaoDeUnicidade(ClienteEntity.UK_EMAIL)).when(clienteRepository).flush();
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> clienteService.atualizarParcialmentePorEmail("joao@example.com", Map.of("email", "maria@example.com"), null));
+        assertEquals("Email já cadastrado.", exception.getMessage());
+
+        doNothing().when(clienteRepository).flush();
+        clienteExistente.setEmail("joao@example.com");
+        clienteService.atualizarParcialmentePorEmail("joao@example.com", Map.of("email", "joao.silva@example.com"), null);
+        verify(clienteCache).remover(1L, "joao@example.com", "joao.silva@example.com");
     }
 
     @Test
@@ -508,14 +1062,16 @@ class ClienteServiceTest {
         // Dados de entrada
         Long codigoCliente = 1L;
 
-        // Simulando o comportamento do repositório para não encontrar o cliente
-        when(clienteRepository.findByCodigoCliente(codigoCliente)).thenReturn(null);
+        // Simulando o comportamento do repositório: o DELETE não encontra a linha
+        when(clienteRepository.excluirPorCodigo(codigoCliente)).thenReturn(0);
 
         // Ação e Verificação: esperando uma exceção ao tentar excluir um cliente inexistente
-        assertThrows(BusinessException.class, () -> clienteService.excluirClientePorCodigo(codigoCliente));
+        EntidadeNaoEncontrada exception = assertThrows(EntidadeNaoEncontrada.class, () -> clienteService.excluirClientePorCodigo(codigoCliente));
+        assertEquals("Cliente com código 1 não encontrado", exception.getMessage());
 
-        // Verificando que não foi tentada a exclusão no repositório
-        verify(clienteRepository, never()).deleteById(codigoCliente);
+        // Verificando que o cliente não foi carregado antes
+        verify(clienteRepository, never()).findByCodigoCliente(codigoCliente);
+        verify(clienteCache, never()).remover(any(), any(String[].class));
     }
 
     @Test
@@ -523,19 +1079,75 @@ class ClienteServiceTest {
         // Dados de entrada
         Long codigoCliente = 1L;
 
-        // Cliente que será encontrado para exclusão
-        ClienteEntity clienteMock = new ClienteEntity();
-        clienteMock.setCodigoCliente(codigoCliente);
-
         // Simulando o comportamento do repositório
-        when(clienteRepository.findByCodigoCliente(codigoCliente)).thenReturn(clienteMock);
-        when(consumerFeignClient.clientePossuiPedidos(codigoCliente)).thenReturn(Map.of("possui-pedidos", false));
+        when(clienteRepository.excluirPorCodigo(codigoCliente)).thenReturn(1);
+        when(pedidoConsumer.clientePossuiPedidos(codigoCliente)).thenReturn(false);
         // Ação: chamando o método para excluir o cliente pelo código
         clienteService.excluirClientePorCodigo(codigoCliente);
 
-        // Verificando as interações com o mock
-        verify(clienteRepository).findByCodigoCliente(codigoCliente);
-        verify(clienteRepository).delete(any());
+        // Verificando as interações com o mock: só o DELETE, sem leitura do cliente
+        verify(clienteRepository).excluirPorCodigo(codigoCliente);
+        verify(clienteRepository, never()).findByCodigoCliente(any());
+        verify(clienteRepository, never()).delete(any());
+    }
+
+    @Test
+    void naoDeveExcluirClienteQuandoNaoForPossivelConfirmarQueNaoPossuiPedidos() throws BusinessException {
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(pedidoConsumer.clientePossuiPedidos(1L)).thenThrow(new BusinessException("Serviço de pedidos indisponível."));
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> clienteService.excluirClientePorCodigo(1L));
+
+        assertEquals("Serviço de pedidos indisponível.", exception.getMessage());
+        verify(clienteRepository, never()).excluirPorCodigo(any());
+
+        // Para um cliente inexistente, o 404 continua à frente da falha do serviço de pedidos
+        when(pedidoConsumer.clientePossuiPedidos(2L)).thenThrow(new BusinessException("Serviço de pedidos indisponível."));
+        assertThrows(EntidadeNaoEncontrada.class, () -> clienteService.excluirClientePorCodigo(2L));
+    }
+
+    @Test
+    void deveExcluirEmLoteApenasClientesSemPedidosComUmaConsultaEUmDelete() throws BusinessException {
+        when(clienteRepository.findCodigoEmailByCodigoClienteIn(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                codigoEmail(1L, "um@example.com"), codigoEmail(2L, "dois@example.com"), codigoEmail(4L, "quatro@example.com")));
+        Map<Long, Boolean> pedidos = new HashMap<>();
+        pedidos.put(1L, false);
+        pedidos.put(2L, true);
+        when(pedidoConsumer.clientesPossuemPedidos(Set.of(1L, 2L, 4L))).thenReturn(pedidos);
+
+        ClienteExclusaoLoteDtoResponse resultado = clienteService.excluirClientesEmLote(Arrays.asList(1L, 2L, 3L, 4L, 1L, null));
+
+        assertEquals(4, resultado.total());
+        assertEquals(1, resultado.excluidos());
+        assertTrue(resultado.resultados().get(0).excluido());
+        assertEquals("O Cliente não pode ser excluido pois possui pedidos realizados", resultado.resultados().get(1).mensagem());
+        assertEquals("Cliente não encontrado.", resultado.resultados().get(2).mensagem());
+        // Sem resposta do serviço de pedidos o cliente é mantido
+        assertFalse(resultado.resultados().get(3).excluido());
+
+        verify(pedidoConsumer, times(1)).clientesPossuemPedidos(any());
+        verify(pedidoConsumer, never()).clientePossuiPedidos(any());
+        verify(clienteRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(clienteRepository, never()).delete(any());
+    }
+
+    @Test
+    void deveManterClientesDoLoteQuandoServicoDePedidosFalha() throws BusinessException {
+        when(clienteRepository.findCodigoEmailByCodigoClienteIn(List.of(1L))).thenReturn(List.of(codigoEmail(1L, "um@example.com")));
+        when(pedidoConsumer.clientesPossuemPedidos(any())).thenThrow(new BusinessException("Serviço de pedidos indisponível."));
+
+        ClienteExclusaoLoteDtoResponse resultado = clienteService.excluirClientesEmLote(List.of(1L));
+
+        assertEquals(0, resultado.excluidos());
+        assertEquals("Serviço de pedidos indisponível.", resultado.resultados().get(0).mensagem());
+        verify(clienteRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static ClienteRepository.CodigoEmail codigoEmail(Long codigoCliente, String email) {
+        return new ClienteRepository.CodigoEmail() {
+            public Long getCodigoCliente() { return codigoCliente; }
+            public String getEmail() { return email; }
+        };
     }
 
     @Test
@@ -544,13 +1156,13 @@ class ClienteServiceTest {
         String email = "maria@example.com";
 
         // Simulando o comportamento do repositório para não encontrar o cliente
-        when(clienteRepository.findByEmail(email)).thenReturn(null);
+        when(clienteRepository.findCodigoClienteByEmailNormalizado(email)).thenReturn(null);
 
         // Ação e Verificação: esperando uma exceção ao tentar excluir um cliente inexistente
-        assertThrows(BusinessException.class, () -> clienteService.excluirClientePorEmail(email));
+        assertThrows(EntidadeNaoEncontrada.class, () -> clienteService.excluirClientePorEmail(email));
 
         // Verificando que não foi tentada a exclusão no repositório
-        verify(clienteRepository, never()).delete(any(ClienteEntity.class));
+        verify(clienteRepository, never()).excluirPorCodigo(any());
     }
 
     @Test
@@ -558,18 +1170,16 @@ class ClienteServiceTest {
         // Dados de entrada
         String email = "maria@example.com";
 
-        // Cliente que será encontrado para exclusão
-        ClienteEntity clienteMock = new ClienteEntity();
-        clienteMock.setEmail(email);
-
-        // Simulando o comportamento do repositório
-        when(clienteRepository.findByEmail(email)).thenReturn(clienteMock);
-        when(consumerFeignClient.clientePossuiPedidos(any())).thenReturn(Map.of("possui-pedidos", false));
+        // Simulando o comportamento do repositório: só o código é lido, para consultar os pedidos
+        when(clienteRepository.findCodigoClienteByEmailNormalizado(email)).thenReturn(1L);
+        when(clienteRepository.excluirPorCodigo(1L)).thenReturn(1);
+        when(pedidoConsumer.clientePossuiPedidos(1L)).thenReturn(false);
         // Ação: chamando o método para excluir o cliente pelo email
         clienteService.excluirClientePorEmail(email);
 
         // Verificando as interações com o mock
-        verify(clienteRepository).findByEmail(email);
-        verify(clienteRepository).delete(clienteMock);
+        verify(clienteRepository, never()).findByEmailNormalizado(email);
+        verify(clienteRepository).excluirPorCodigo(1L);
+        verify(clienteCache).remover(1L, email);
     }
 }
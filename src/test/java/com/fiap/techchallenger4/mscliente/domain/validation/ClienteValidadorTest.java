@@ -0,0 +1,51 @@
+package com.fiap.techchallenger4.mscliente.domain.validation;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteValidadorTest {
+
+    private static final ClienteDtoRequest VALIDO = new ClienteDtoRequest("Maria Silva", "123.456.789-09", "maria@example.com",
+            "12345-678", "Rua Sol", "100", "", "Centro", "São Paulo", "SP", "(11) 98765-4321");
+
+    @Test
+    void naoDeveApontarViolacoesParaClienteValido() {
+        assertTrue(ClienteValidador.violacoes(VALIDO).isEmpty());
+        assertDoesNotThrow(() -> ClienteValidador.validar(VALIDO));
+    }
+
+    @Test
+    void deveReunirTodasAsViolacoesNaMesmaExcecao() {
+        ClienteDtoRequest invalido = new ClienteDtoRequest("", "123.456.789", "maria@", "12345-678",
+                "Rua Sol", "100", null, "Centro", "São Paulo", "SP", null);
+
+        assertEquals(List.of(
+                "Nome não pode ser vazio.",
+                "CPF inválido ou vazio. Deve estar no formato XXX.XXX.XXX-XX.",
+                "Email inválido ou vazio. Formato esperado: exemplo@dominio.com",
+                "Telefone inválido ou vazio. Deve estar no formato (XX) 9XXXX-XXXX."
+        ), ClienteValidador.violacoes(invalido));
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> ClienteValidador.validar(invalido));
+        assertTrue(exception.getMessage().startsWith("Nome não pode ser vazio. CPF inválido"));
+    }
+
+    @Test
+    void deveAceitarOsMesmosValoresQueAsExpressoesRegularesAnteriores() {
+        List<String> ceps = List.of("12345-678", "12345678", "1234-5678", "12345-67a", "");
+        List<String> telefones = List.of("(11) 98765-4321", "(11) 8765-4321", "(11) 88765-4321", "(11)98765-4321",
+                "(1) 98765-4321", "(11) 98765-432", "");
+        List<String> emails = List.of("maria@example.com", "m.a_r%i+a-1@sub.exemplo.com.br", "maria@example", "@example.com",
+                "maria@example.c", "maria@example.comercial", "maria@.com", "maria@..com", "maria@@example.com",
+                "maria@exa_mple.com", "maria@example.c0m", "maria exemplo@example.com", "");
+
+        ceps.forEach(cep -> assertEquals(cep.matches("\\d{5}-\\d{3}"), ClienteValidador.cepValido(cep), cep));
+        telefones.forEach(telefone -> assertEquals(telefone.matches("\\(\\d{2}\\) 9?\\d{4}-\\d{4}"), ClienteValidador.telefoneValido(telefone), telefone));
+        emails.forEach(email -> assertEquals(email.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}$"), ClienteValidador.emailValido(email), email));
+    }
+}
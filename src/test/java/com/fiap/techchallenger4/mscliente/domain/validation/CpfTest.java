@@ -0,0 +1,42 @@
+package com.fiap.techchallenger4.mscliente.domain.validation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpfTest {
+
+    @Test
+    void deveAceitarCpfComOuSemPontuacao() {
+        assertEquals(12345678909L, Cpf.paraNumero("123.456.789-09"));
+        assertEquals(12345678909L, Cpf.paraNumero("12345678909"));
+        assertEquals(1234567890L, Cpf.paraNumero("012.345.678-90"));
+    }
+
+    @Test
+    void deveRejeitarDigitosVerificadoresInvalidos() {
+        assertFalse(Cpf.valido("123.456.789-00"));
+        assertFalse(Cpf.valido("123.456.789-19"));
+        assertFalse(Cpf.valido("12345678900"));
+        assertThrows(IllegalArgumentException.class, () -> Cpf.paraNumero("123.456.789-00"));
+    }
+
+    @Test
+    void deveRejeitarFormatoInvalidoOuSequenciaRepetida() {
+        assertFalse(Cpf.valido(null));
+        assertFalse(Cpf.valido(""));
+        assertFalse(Cpf.valido("123.456.789-0"));
+        assertFalse(Cpf.valido("123456789-09"));
+        assertFalse(Cpf.valido("123.456.789.09"));
+        assertFalse(Cpf.valido("1234567890a"));
+        assertFalse(Cpf.valido("111.111.111-11"));
+        assertFalse(Cpf.valido("00000000000"));
+    }
+
+    @Test
+    void deveFormatarCpfCanonico() {
+        assertEquals("123.456.789-09", Cpf.formatar(12345678909L));
+        assertEquals("012.345.678-90", Cpf.formatar(1234567890L));
+        assertNull(Cpf.formatar(null));
+    }
+}
@@ -0,0 +1,62 @@
+package com.fiap.techchallenger4.mscliente.infra.busca;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BuscaClientesMemoriaTest {
+
+    BuscaClientesMemoria busca;
+
+    @BeforeEach
+    void setUp() {
+        busca = new BuscaClientesMemoria(null, null);
+        busca.indexar(1L, "João Silva", "São Paulo", "SP");
+        busca.indexar(2L, "Maria Oliveira", "Rio de Janeiro", "RJ");
+        busca.indexar(3L, "Ana Silveira", "São José dos Campos", "SP");
+        busca.indexar(4L, "Silva Santos", "Santos", "sp");
+    }
+
+    @Test
+    void deveBuscarPorPrefixoDePalavraComPalavraInteiraPrimeiro() {
+        assertEquals(List.of(1L, 3L, 4L), busca.buscar("silv", null, null, 0, 10));
+        assertEquals(List.of(1L, 4L, 3L), busca.buscar("SILVA", null, null, 0, 10));
+    }
+
+    @Test
+    void deveToleraErroDeDigitacao() {
+        assertEquals(List.of(2L), busca.buscar("olivera", null, null, 0, 10));
+    }
+
+    @Test
+    void deveExigirTodosOsTermosEAplicarCidadeEEstado() {
+        assertEquals(List.of(3L), busca.buscar("ana silv", null, null, 0, 10));
+        assertEquals(List.of(3L), busca.buscar("silv", "são j", null, 0, 10));
+        assertEquals(List.of(1L, 3L, 4L), busca.buscar(null, null, "sp", 0, 10));
+        assertEquals(List.of(3L), busca.buscar(null, null, "SP", 1, 1));
+    }
+
+    @Test
+    void deveAplicarCidadeEEstadoETermosAnterioresAntesDoTetoDeCandidatos() {
+        for (long codigo = 100; codigo < 100 + 2L * BuscaClientes.CANDIDATOS_MAXIMOS; codigo++) {
+            busca.indexar(codigo, "Carlos Silva", "Campinas", "SP");
+        }
+        busca.indexar(50_000L, "Carlos Silva Pereira", "Recife", "PE");
+
+        assertEquals(List.of(50_000L), busca.buscar("carlos silva", "recife", null, 0, 10));
+        assertEquals(List.of(50_000L), busca.buscar("silva", null, "PE", 0, 10));
+        assertEquals(List.of(50_000L), busca.buscar("carlos pereira", null, null, 0, 10));
+    }
+
+    @Test
+    void deveRefletirAlteracoesEExclusoes() {
+        busca.indexar(1L, "João Souza", "São Paulo", "SP");
+        busca.remover(4L);
+
+        assertEquals(List.of(3L), busca.buscar("silv", null, null, 0, 10));
+        assertEquals(List.of(1L), busca.buscar("souza", null, null, 0, 10));
+    }
+}
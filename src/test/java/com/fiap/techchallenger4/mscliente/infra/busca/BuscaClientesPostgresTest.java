@@ -0,0 +1,74 @@
+package com.fiap.techchallenger4.mscliente.infra.busca;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Busca pelo pg_trgm num Postgres de verdade. Rodar com:
+ * mvn test -Dtest=BuscaClientesPostgresTest -Dteste.postgres.url=jdbc:postgresql://localhost:5432/mscliente
+ */
+@EnabledIfSystemProperty(named = "teste.postgres.url", matches = ".+")
+@ActiveProfiles("dev")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=${teste.postgres.url}",
+        "spring.datasource.hikari.minimum-idle=1"
+})
+class BuscaClientesPostgresTest {
+
+    private static final long PRIMEIRO_CODIGO = 80_000_000L;
+    private static final int PARECIDOS = 3 * BuscaClientes.CANDIDATOS_MAXIMOS;
+
+    @Autowired
+    private BuscaClientesPostgres buscaClientes;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Mais clientes casando com o termo do que o antigo teto de candidatos, e o mais parecido gravado por último.
+    @BeforeEach
+    void setUp() {
+        limpar();
+        jdbcTemplate.update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, email_normalizado, cidade, estado, data_criacao, versao) "
+                + "SELECT ? + n, 'Cliente Albuquerquino ' || n, ? + n, 'parecido' || n || '@example.com', "
+                + "'parecido' || n || '@example.com', 'Recife', 'PE', now(), 0 FROM generate_series(1, ?) n",
+                PRIMEIRO_CODIGO, 90_000_000_000L, PARECIDOS);
+        jdbcTemplate.update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, email_normalizado, cidade, estado, data_criacao, versao) "
+                + "VALUES (?, 'Pedro Albuquerque', ?, 'pedro@example.com', 'pedro@example.com', 'Recife', 'PE', now(), 0)",
+                PRIMEIRO_CODIGO + PARECIDOS + 1, 90_000_000_000L + PARECIDOS + 1);
+        jdbcTemplate.execute("ANALYZE clientes");
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM clientes WHERE codigo_cliente > ?", PRIMEIRO_CODIGO);
+    }
+
+    @Test
+    void deveManterOMaisParecidoQuandoMaisClientesCasamQueOTeto() {
+        List<Long> codigos = buscaClientes.buscar("albuquerque", null, "PE", 0, 5);
+
+        assertEquals(PRIMEIRO_CODIGO + PARECIDOS + 1, codigos.get(0));
+    }
+
+    @Test
+    void devePaginarSemRepetirNemPularClientes() {
+        List<Long> paginas = new ArrayList<>();
+        for (int inicio = 0; inicio < 200; inicio += 50) {
+            paginas.addAll(buscaClientes.buscar("albuquerquino", "reci", null, inicio, 50));
+        }
+
+        assertEquals(200, new HashSet<>(paginas).size());
+        assertEquals(buscaClientes.buscar("albuquerquino", "reci", null, 0, 200), paginas);
+    }
+}
@@ -0,0 +1,102 @@
+package com.fiap.techchallenger4.mscliente.infra.cache;
+
+import br.com.fiap.estrutura.exception.BusinessException;
+import br.com.fiap.estrutura.exception.EntidadeNaoEncontrada;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteCacheTest {
+
+    private final ClienteCache clienteCache = new ClienteCache(new CaffeineCacheManager(
+            CacheConfig.CLIENTES_POR_CODIGO, CacheConfig.CLIENTES_POR_EMAIL, CacheConfig.CONTAGENS_CLIENTES));
+
+    private static ClienteDtoResponse cliente(long codigo, String email, long versao) {
+        return new ClienteDtoResponse(codigo, "Cliente " + codigo, "123.456.789-09", email, "12345-678", "Rua Sol", "100",
+                "", "Centro", "São Paulo", "SP", "(11) 98765-4321", LocalDateTime.of(2024, 3, 10, 14, 30), versao);
+    }
+
+    @Test
+    void naoDeveGuardarCargaLentaQueTerminaDepoisDaInvalidacaoNemBloquearOutrasChaves() throws Exception {
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        CompletableFuture<ClienteDtoResponse> cargaAntiga = CompletableFuture.supplyAsync(() -> {
+            try {
+                return clienteCache.buscarPorCodigo(1L, () -> {
+                    carregando.countDown();
+                    aguardar(liberarCarga);
+                    return cliente(1L, "antigo@example.com", 0);
+                });
+            } catch (BusinessException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(carregando.await(5, TimeUnit.SECONDS));
+
+        // A alteração já foi gravada e invalida o código enquanto a leitura antiga ainda está no banco: a invalidação
+        // não espera a carga, e outra chave carrega normalmente nesse meio tempo.
+        clienteCache.remover(1L, "antigo@example.com");
+        assertEquals(2L, clienteCache.buscarPorCodigo(2L, () -> cliente(2L, "outro@example.com", 0)).codigoCliente());
+        liberarCarga.countDown();
+        assertEquals(0L, cargaAntiga.get(5, TimeUnit.SECONDS).versao());
+
+        ClienteDtoResponse atual = clienteCache.buscarPorCodigo(1L, () -> cliente(1L, "novo@example.com", 1));
+        assertEquals(1L, atual.versao());
+    }
+
+    @Test
+    void deveCarregarUmaVezPorChaveEPropagarEntidadeNaoEncontrada() throws BusinessException {
+        AtomicInteger cargas = new AtomicInteger();
+        clienteCache.buscarPorCodigo(1L, () -> {
+            cargas.incrementAndGet();
+            return cliente(1L, "cliente@example.com", 0);
+        });
+        ClienteDtoResponse porEmail = clienteCache.buscarPorEmail("Cliente@Example.com", () -> fail("deveria vir do cache"));
+
+        assertEquals(1L, porEmail.codigoCliente());
+        assertEquals(1, cargas.get());
+        assertThrows(EntidadeNaoEncontrada.class, () -> clienteCache.buscarPorCodigo(2L, () -> {
+            throw new EntidadeNaoEncontrada("Cliente não encontrado.");
+        }));
+    }
+
+    @Test
+    void deveGuardarSoOCodigoNaBuscaPorEmailEConferirOClienteNaProxima() throws BusinessException {
+        AtomicInteger cargas = new AtomicInteger();
+        clienteCache.buscarPorEmail("cliente@example.com", () -> {
+            cargas.incrementAndGet();
+            return cliente(1L, "cliente@example.com", 0);
+        });
+        clienteCache.buscarPorEmail("cliente@example.com", () -> {
+            cargas.incrementAndGet();
+            return cliente(1L, "cliente@example.com", 0);
+        });
+        ClienteDtoResponse doCache = clienteCache.buscarPorEmail("cliente@example.com", () -> fail("deveria vir do cache"));
+
+        assertEquals(2, cargas.get());
+        assertEquals(1L, doCache.codigoCliente());
+
+        // O email passou a ser de outro cliente: o código guardado é descartado, sem gravar o outro cliente no código 1.
+        clienteCache.remover(1L);
+        ClienteDtoResponse outro = clienteCache.buscarPorEmail("cliente@example.com", () -> cliente(2L, "cliente@example.com", 0));
+        assertEquals(2L, outro.codigoCliente());
+        assertEquals(1L, clienteCache.buscarPorCodigo(1L, () -> cliente(1L, "trocado@example.com", 1)).versao());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fiap.techchallenger4.mscliente.infra.migracao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rodar com: mvn test -Dtest=CpfNumericoMigracaoTest -Dteste.postgres.url=jdbc:postgresql://localhost:5432/mscliente
+ */
+@EnabledIfSystemProperty(named = "teste.postgres.url", matches = ".+")
+@ActiveProfiles("dev")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=${teste.postgres.url}",
+        "spring.datasource.hikari.minimum-idle=1"
+})
+class CpfNumericoMigracaoTest {
+
+    private static final long PRIMEIRO_CODIGO = 60_000_000L;
+
+    @Autowired
+    private CpfNumericoMigracao migracao;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Coluna como nas bases antigas: texto pontuado.
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM clientes WHERE codigo_cliente > ? AND codigo_cliente < ?", PRIMEIRO_CODIGO, PRIMEIRO_CODIGO + 10);
+        jdbcTemplate.execute("ALTER TABLE clientes ALTER COLUMN cpf TYPE varchar(14) USING lpad(cpf::text, 11, '0')");
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM clientes WHERE codigo_cliente > ? AND codigo_cliente < ?", PRIMEIRO_CODIGO, PRIMEIRO_CODIGO + 10);
+        migracao.run(null);
+    }
+
+    private void inserir(long codigo, String cpf) {
+        jdbcTemplate.update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, email_normalizado, estado, data_criacao, versao) "
+                + "VALUES (?, 'Cliente antigo', ?, ?, ?, 'SP', now(), 0)", codigo, cpf, codigo + "@example.com", codigo + "@example.com");
+    }
+
+    private String tipoDaColuna() {
+        return jdbcTemplate.queryForObject("SELECT data_type FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'clientes' AND column_name = 'cpf'", String.class);
+    }
+
+    @Test
+    void deveConverterCpfsPontuadosParaBigintUmaVezSo() {
+        inserir(PRIMEIRO_CODIGO + 1, "123.456.789-09");
+        inserir(PRIMEIRO_CODIGO + 2, "52998224725");
+
+        migracao.run(null);
+        migracao.run(null);
+
+        assertEquals("bigint", tipoDaColuna());
+        assertEquals(12345678909L, jdbcTemplate.queryForObject("SELECT cpf FROM clientes WHERE codigo_cliente = ?", Long.class, PRIMEIRO_CODIGO + 1));
+        assertEquals(52998224725L, jdbcTemplate.queryForObject("SELECT cpf FROM clientes WHERE codigo_cliente = ?", Long.class, PRIMEIRO_CODIGO + 2));
+    }
+
+    @Test
+    void deveInterromperSemConverterQuandoCpfsFicariamRepetidos() {
+        inserir(PRIMEIRO_CODIGO + 1, "123.456.789-09");
+        inserir(PRIMEIRO_CODIGO + 2, "12345678909");
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () -> migracao.run(null));
+
+        assertTrue(erro.getMessage().contains((PRIMEIRO_CODIGO + 2) + "=12345678909"));
+        assertEquals("character varying", tipoDaColuna());
+        jdbcTemplate.update("DELETE FROM clientes WHERE codigo_cliente = ?", PRIMEIRO_CODIGO + 2);
+    }
+}
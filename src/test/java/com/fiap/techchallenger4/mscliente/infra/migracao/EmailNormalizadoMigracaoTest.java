@@ -0,0 +1,45 @@
+package com.fiap.techchallenger4.mscliente.infra.migracao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cliente-migracao;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;",
+        "spring.jpa.show-sql=false"
+})
+class EmailNormalizadoMigracaoTest {
+
+    @Autowired
+    private EmailNormalizadoMigracao migracao;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void inserirSemEmailNormalizado(long codigo, long cpf, String email) {
+        jdbcTemplate.update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, cep, logradouro, numero, complemento, bairro, "
+                + "cidade, estado, telefone, data_criacao, versao) VALUES (?, 'Cliente antigo', ?, ?, '12345-678', 'Rua Sol', '100', '', "
+                + "'Centro', 'São Paulo', 'SP', '(11) 91234-5678', CURRENT_TIMESTAMP, 0)", codigo, cpf, email);
+    }
+
+    private String emailNormalizado(long codigo) {
+        return jdbcTemplate.queryForObject("SELECT email_normalizado FROM clientes WHERE codigo_cliente = ?", String.class, codigo);
+    }
+
+    @Test
+    void devePreencherEmailsSemConflitoERelatarOsQueDiferemSoPorMaiusculas() {
+        inserirSemEmailNormalizado(90_000_001L, 90_000_000_001L, " Antigo@Example.com");
+        inserirSemEmailNormalizado(90_000_002L, 90_000_000_002L, "Repetido@Example.com");
+        inserirSemEmailNormalizado(90_000_003L, 90_000_000_003L, "repetido@example.com");
+
+        assertDoesNotThrow(() -> migracao.run(null));
+
+        assertEquals("antigo@example.com", emailNormalizado(90_000_001L));
+        assertNull(emailNormalizado(90_000_002L));
+        assertNull(emailNormalizado(90_000_003L));
+    }
+}
@@ -0,0 +1,67 @@
+package com.fiap.techchallenger4.mscliente.infra.migracao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rodar com: mvn test -Dtest=SequenciaClientesMigracaoTest -Dteste.postgres.url=jdbc:postgresql://localhost:5432/mscliente
+ */
+@EnabledIfSystemProperty(named = "teste.postgres.url", matches = ".+")
+@ActiveProfiles("dev")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=${teste.postgres.url}",
+        "spring.datasource.hikari.minimum-idle=1"
+})
+class SequenciaClientesMigracaoTest {
+
+    private static final long MAIOR_CODIGO = 70_000_003L;
+
+    @Autowired
+    private SequenciaClientesMigracao migracao;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM clientes WHERE codigo_cliente BETWEEN ? AND ?", MAIOR_CODIGO - 2, MAIOR_CODIGO);
+    }
+
+    // Base vinda da coluna IDENTITY: códigos já gravados e a sequence recém-criada pelo ddl-auto.
+    private void inserirClientesAntigos() {
+        jdbcTemplate.update("INSERT INTO clientes (codigo_cliente, nome, cpf, email, email_normalizado, estado, data_criacao, versao) "
+                + "SELECT n, 'Cliente antigo ' || n, n, 'antigo' || n || '@example.com', 'antigo' || n || '@example.com', "
+                + "'SP', now(), 0 FROM generate_series(?::bigint, ?::bigint) n", MAIOR_CODIGO - 2, MAIOR_CODIGO);
+        jdbcTemplate.queryForObject("SELECT setval('clientes_seq', 1, false)", Long.class);
+    }
+
+    private long proximoBloco() {
+        return jdbcTemplate.queryForObject("SELECT nextval('clientes_seq')", Long.class) - 49;
+    }
+
+    @Test
+    void deveAvancarASequenceParaOPoolComecarDepoisDoMaiorCodigo() {
+        inserirClientesAntigos();
+
+        migracao.run(null);
+
+        assertEquals(MAIOR_CODIGO + 1, proximoBloco());
+    }
+
+    @Test
+    void naoDeveVoltarASequenceQuandoJaEstaAFrenteDaTabela() {
+        inserirClientesAntigos();
+        jdbcTemplate.queryForObject("SELECT setval('clientes_seq', ?)", Long.class, MAIOR_CODIGO + 1_000);
+
+        migracao.run(null);
+
+        assertTrue(proximoBloco() > MAIOR_CODIGO + 1_000);
+    }
+}
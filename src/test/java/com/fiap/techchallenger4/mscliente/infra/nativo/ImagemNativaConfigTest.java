@@ -0,0 +1,45 @@
+package com.fiap.techchallenger4.mscliente.infra.nativo;
+
+import br.com.fiap.estrutura.swagger.annotations.ApiResponseSwaggerOk;
+import br.com.fiap.estrutura.utils.MessageErrorHandler;
+import com.fiap.techchallenger4.mscliente.domain.consumer.PedidoConsumerFeignClient;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoRequest;
+import com.fiap.techchallenger4.mscliente.domain.dto.ClienteDtoResponse;
+import com.fiap.techchallenger4.mscliente.domain.entities.ClienteEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImagemNativaConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new ImagemNativaConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void deveRegistrarDtosParaOJackson() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ClienteDtoResponse.class, "nome").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ClienteDtoRequest.class, "email").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(MessageErrorHandler.class).test(hints));
+    }
+
+    @Test
+    void deveRegistrarEntidadeParaOHibernate() {
+        assertTrue(RuntimeHintsPredicates.reflection().onField(ClienteEntity.class, "codigoCliente").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ClienteEntity.class).withMemberCategory(
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void deveRegistrarProxyDoFeignEAnotacoesDaEstrutura() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PedidoConsumerFeignClient.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ApiResponseSwaggerOk.class).test(hints));
+    }
+}
@@ -0,0 +1,104 @@
+package com.fiap.techchallenger4.mscliente.infra.rastreamento;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.restassured.RestAssured;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.context.annotation.Bean;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "url.pedido.consumer.feign.client=http://localhost:${wiremock.server.port}",
+        "spring.datasource.url=jdbc:h2:mem:cliente-rastreamento;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;",
+        "management.tracing.sampling.probability=1.0",
+        "rastreamento.log=false"
+})
+@AutoConfigureWireMock(port = 0)
+@AutoConfigureObservability
+class RastreamentoConfigTest {
+
+    private static final AttributeKey<String> REPOSITORIO = AttributeKey.stringKey("repositorio");
+    private static final AttributeKey<String> METODO = AttributeKey.stringKey("metodo");
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+    @Autowired
+    private SpansExportados spansExportados;
+
+    @Test
+    void deveRastrearRequisicaoRepositorioEServicoDePedidosNoMesmoTraceEPropagarOContexto() {
+        stubFor(post(urlPathEqualTo("/cliente/possui-pedidos")).willReturn(okJson("{\"possui-pedidos\": true}")));
+        RestAssured.port = porta;
+
+        given()
+                .pathParam("codigoCliente", 1)
+        .when()
+                .delete("/clientes/{codigoCliente}")
+        .then()
+                .statusCode(HttpStatus.SC_BAD_REQUEST);
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        SpanData requisicao = spansExportados.spans.stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER && span.getName().contains("/clientes/{codigoCliente}"))
+                .findFirst().orElseThrow();
+        List<SpanData> trace = spansExportados.spans.stream().filter(span -> span.getTraceId().equals(requisicao.getTraceId())).toList();
+
+        // Pedidos recusaram a exclusão; a existência do cliente é então conferida no banco.
+        assertTrue(trace.stream().anyMatch(span -> span.getKind() == SpanKind.CLIENT), "Sem span da chamada ao serviço de pedidos: " + trace);
+        SpanData repositorio = trace.stream().filter(span -> "ClienteRepository".equals(span.getAttributes().get(REPOSITORIO))).findFirst().orElseThrow();
+        assertEquals("existsById", repositorio.getAttributes().get(METODO));
+        assertEquals("cliente-repository.exists-by-id", repositorio.getName());
+        verify(postRequestedFor(urlPathEqualTo("/cliente/possui-pedidos")).withHeader("traceparent", containing(requisicao.getTraceId())));
+    }
+
+    static class SpansExportados implements SpanExporter {
+        final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> exportados) {
+            spans.addAll(exportados);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    @TestConfiguration
+    static class ExportacaoEmMemoria {
+        @Bean
+        SpansExportados spansExportados() {
+            return new SpansExportados();
+        }
+    }
+}